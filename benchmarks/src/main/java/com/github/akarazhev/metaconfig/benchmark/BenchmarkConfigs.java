@@ -0,0 +1,117 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.benchmark;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.H2dbMetaConfig;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.ARGS;
+import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.TYPE;
+
+/**
+ * Provides configurations and meta configurations for benchmarks.
+ */
+final class BenchmarkConfigs {
+    // The embedded mode
+    static final String EMBEDDED = "embedded";
+    // The tcp mode
+    static final String TCP = "tcp";
+    // The number of top level properties of a config
+    private static final int PROPERTIES = 10;
+
+    private BenchmarkConfigs() {
+        throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+    }
+
+    /**
+     * Returns a meta configuration in the given mode which stores configs in the in-memory database.
+     *
+     * @param mode     a mode, embedded or tcp.
+     * @param poolType a type of a connection pool.
+     * @param poolSize a maximum number of connections.
+     * @return a meta configuration.
+     */
+    static H2dbMetaConfig newMetaConfig(final String mode, final String poolType, final int poolSize) {
+        final H2dbMetaConfig.Builder builder = new H2dbMetaConfig.Builder();
+        final String url;
+        if (EMBEDDED.equals(mode)) {
+            builder.embedded();
+            url = "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+        } else {
+            builder.dbServer(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                    new Property.Builder(TYPE, "tcp").build(),
+                    new Property.Builder(ARGS, "-tcp", "-tcpPort", "8043", "-ifNotExists").build())).build());
+            url = "jdbc:h2:tcp://localhost:8043/mem:benchmark;DB_CLOSE_DELAY=-1";
+        }
+
+        final H2dbMetaConfig h2dbMetaConfig = builder.connectionPool(
+                new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                        new Property.Builder(ConnectionPools.Settings.TYPE, poolType).build(),
+                        new Property.Builder(ConnectionPools.Settings.URL, url).build(),
+                        new Property.Builder(ConnectionPools.Settings.USER, "sa").build(),
+                        new Property.Builder(ConnectionPools.Settings.PASSWORD, "sa").build(),
+                        new Property.Builder(ConnectionPools.Settings.MAX_CONNECTIONS, poolSize).build(),
+                        new Property.Builder(ConnectionPools.Settings.MIN_IDLE, poolSize).build())).build()).
+                build();
+        // Start from the empty store
+        h2dbMetaConfig.remove(h2dbMetaConfig.getNames());
+        return h2dbMetaConfig;
+    }
+
+    /**
+     * Returns a config with properties of the given depth.
+     *
+     * @param name  a name of a config.
+     * @param depth a depth of properties.
+     * @return a config.
+     */
+    static Config newConfig(final String name, final int depth) {
+        final List<Property> properties = new ArrayList<>(PROPERTIES);
+        for (int i = 0; i < PROPERTIES; i++) {
+            properties.add(newProperty("Property-" + i, depth));
+        }
+
+        return new Config.Builder(name, properties).
+                description("Description of " + name).
+                attribute("key", "value").
+                build();
+    }
+
+    /**
+     * Returns a name of a config by the index.
+     *
+     * @param index an index of a config.
+     * @return a name of a config.
+     */
+    static String getName(final int index) {
+        return "Config-" + index;
+    }
+
+    private static Property newProperty(final String name, final int depth) {
+        final Property.Builder builder = new Property.Builder(name, "Value of " + name).
+                caption("Caption").
+                description("Description").
+                attribute("key", "value");
+        if (depth > 1) {
+            builder.property(new String[0], newProperty("Sub-" + name, depth - 1));
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,86 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.benchmark;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.H2dbMetaConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bulk import with the per-config update for loading large config sets.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class H2dbImportBenchmark {
+    @Param({BenchmarkConfigs.EMBEDDED, BenchmarkConfigs.TCP})
+    public String mode;
+    @Param({"1000", "10000"})
+    public int configs;
+    @Param({"1", "3"})
+    public int depth;
+    @Param({"500"})
+    public int chunkSize;
+    private H2dbMetaConfig h2dbMetaConfig;
+    private List<Config> loaded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        h2dbMetaConfig = BenchmarkConfigs.newMetaConfig(mode, "h2", 4);
+        loaded = new ArrayList<>(configs);
+        for (int i = 0; i < configs; i++) {
+            loaded.add(BenchmarkConfigs.newConfig(BenchmarkConfigs.getName(i), depth));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        // Every iteration loads configs into empty tables
+        h2dbMetaConfig.remove(h2dbMetaConfig.getNames());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        h2dbMetaConfig.remove(h2dbMetaConfig.getNames());
+        h2dbMetaConfig.close();
+    }
+
+    @Benchmark
+    public int importConfigs() {
+        return h2dbMetaConfig.importConfigs(loaded.stream(), chunkSize, count -> {
+        });
+    }
+
+    @Benchmark
+    public long update() {
+        return h2dbMetaConfig.update(loaded.stream()).count();
+    }
+}
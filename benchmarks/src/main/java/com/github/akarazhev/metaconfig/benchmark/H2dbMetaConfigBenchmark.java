@@ -0,0 +1,153 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.benchmark;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.H2dbMetaConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures operations of the meta configuration at varying config counts, property depths, modes and pool sizes.
+ * The number of threads is set with the -t option of the runner.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class H2dbMetaConfigBenchmark {
+    private static final int NAMES = 10;
+    @Param({BenchmarkConfigs.EMBEDDED, BenchmarkConfigs.TCP})
+    public String mode;
+    @Param({"h2", "striped"})
+    public String poolType;
+    @Param({"4", "16"})
+    public int poolSize;
+    @Param({"100", "1000"})
+    public int configs;
+    @Param({"1", "3"})
+    public int depth;
+    private final AtomicInteger threads = new AtomicInteger();
+    private H2dbMetaConfig h2dbMetaConfig;
+
+    /**
+     * The state of a thread that updates its own config.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private Config config;
+
+        @Setup(Level.Trial)
+        public void setUp(final H2dbMetaConfigBenchmark benchmark) {
+            final String name = "Thread-" + benchmark.threads.incrementAndGet();
+            config = benchmark.h2dbMetaConfig.update(Stream.of(BenchmarkConfigs.newConfig(name, benchmark.depth))).
+                    findFirst().
+                    orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    /**
+     * The state of a thread that removes its own config, it is used only by the remove benchmark.
+     */
+    @State(Scope.Thread)
+    public static class RemoveState {
+        private String name;
+
+        @Setup(Level.Trial)
+        public void setUp(final H2dbMetaConfigBenchmark benchmark) {
+            name = "Thread-" + benchmark.threads.incrementAndGet() + "-removed";
+        }
+
+        @Setup(Level.Invocation)
+        public void setUpRemoved(final H2dbMetaConfigBenchmark benchmark) {
+            // Every invocation removes a stored config
+            benchmark.h2dbMetaConfig.update(Stream.of(BenchmarkConfigs.newConfig(name, benchmark.depth))).count();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        h2dbMetaConfig = BenchmarkConfigs.newMetaConfig(mode, poolType, poolSize);
+        final List<Config> stored = new ArrayList<>(configs);
+        for (int i = 0; i < configs; i++) {
+            stored.add(BenchmarkConfigs.newConfig(BenchmarkConfigs.getName(i), depth));
+        }
+
+        h2dbMetaConfig.update(stored.stream()).count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        h2dbMetaConfig.remove(h2dbMetaConfig.getNames());
+        h2dbMetaConfig.close();
+    }
+
+    @Benchmark
+    public void get(final Blackhole blackhole) {
+        h2dbMetaConfig.get().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void getByName(final Blackhole blackhole) {
+        final String name = BenchmarkConfigs.getName(ThreadLocalRandom.current().nextInt(configs));
+        h2dbMetaConfig.get(Stream.of(name)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void getByNames(final Blackhole blackhole) {
+        final List<String> names = IntStream.range(0, NAMES).
+                mapToObj(i -> BenchmarkConfigs.getName(ThreadLocalRandom.current().nextInt(configs))).
+                collect(Collectors.toList());
+        h2dbMetaConfig.get(names.stream()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void getNames(final Blackhole blackhole) {
+        h2dbMetaConfig.getNames().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void update(final ThreadState state) {
+        // Every update is based on the last version to pass the optimistic locking
+        state.config = h2dbMetaConfig.update(Stream.of(state.config)).
+                findFirst().
+                orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public int remove(final RemoveState state) {
+        return h2dbMetaConfig.remove(Stream.of(state.name));
+    }
+}
@@ -0,0 +1,154 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+
+/**
+ * Provides constants of the h2db extension.
+ */
+public final class H2dbConstants {
+
+    private H2dbConstants() {
+        throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+    }
+
+    /**
+     * Mapping constants of the h2db extension.
+     */
+    public final static class Mapping {
+
+        private Mapping() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The config changes table key
+        public static final String CONFIG_CHANGES_TABLE = "config-changes";
+    }
+
+    /**
+     * Messages constants of the h2db extension.
+     */
+    public final static class Messages {
+
+        private Messages() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // Wrong param value message
+        public static final String WRONG_PARAM_VALUE = "Wrong value of the parameter: %s";
+        // Acquire timeout error message
+        public static final String ACQUIRE_TIMEOUT_ERROR = "Connection is not acquired within %d ms";
+        // Connection closed message
+        public static final String CONNECTION_CLOSED = "Connection is closed";
+        // Connection invalid message
+        public static final String CONNECTION_INVALID = "Connection is not valid";
+        // Statement closed message
+        public static final String STATEMENT_CLOSED = "Statement is closed";
+        // Pool warm-up error message
+        public static final String POOL_WARM_UP_ERROR = "Connection pool is not warmed up";
+        // Wait queue full message
+        public static final String WAIT_QUEUE_FULL = "Connection is not acquired, %d threads are already waiting";
+        // Pool closed message
+        public static final String POOL_CLOSED = "Connection pool is closed";
+        // Connection close error message
+        public static final String CONNECTION_CLOSE_ERROR = "Connection is not closed properly";
+        // Embedded url error message
+        public static final String EMBEDDED_URL_ERROR = "Connection pool url must be in-process in the embedded mode";
+        // Generated keys error message
+        public static final String GENERATED_KEYS_ERROR = "Expected %d generated keys, but received %d";
+        // Bulk import error message
+        public static final String BULK_IMPORT_ERROR = "Configs are not imported";
+        // Export error message
+        public static final String EXPORT_ERROR = "Configs are not exported";
+        // Dump error message
+        public static final String DUMP_ERROR = "Configs are not dumped";
+        // Restore error message
+        public static final String RESTORE_ERROR = "Configs are not restored";
+        // Wrong dump format message
+        public static final String WRONG_DUMP_FORMAT = "Wrong format of the dump";
+        // Change log error message
+        public static final String CHANGE_LOG_ERROR = "Change log is not supported by the layout of tables";
+        // Wrong column message
+        public static final String WRONG_COLUMN = "Table %s does not have the column: %s";
+        // Change poll error message
+        public static final String CHANGE_POLL_ERROR = "Changes are not polled";
+        // Virtual threads not supported message
+        public static final String VIRTUAL_THREADS_NOT_SUPPORTED = "Virtual threads are not supported, " +
+                "platform threads are used";
+        // Schema tuned message
+        public static final String SCHEMA_TUNED = "Schema is tuned: %s";
+        // Maintenance error message
+        public static final String MAINTENANCE_ERROR = "Maintenance is not completed";
+        // Maintenance skipped message
+        public static final String MAINTENANCE_SKIPPED = "Maintenance is skipped, active connections: %d";
+        // Maintenance completed message
+        public static final String MAINTENANCE_COMPLETED = "Maintenance is completed, file size: %d -> %d bytes, " +
+                "duration: %d ms";
+        // Warm-up completed message
+        public static final String WARM_UP_COMPLETED = "Warm-up is completed, configs: %d, from the snapshot: %d, " +
+                "duration: %d ms";
+        // Snapshot read error message
+        public static final String SNAPSHOT_READ_ERROR = "Snapshot is not read, configs are loaded from the database";
+        // Snapshot write error message
+        public static final String SNAPSHOT_WRITE_ERROR = "Snapshot is not written";
+        // Startup timeout message
+        public static final String STARTUP_TIMEOUT = "Startup is not completed within %d ms";
+        // Startup completed message
+        public static final String STARTUP_COMPLETED = "Startup is completed, duration: %d ms, phases: %s";
+        // Replication error message
+        public static final String REPLICATION_ERROR = "Replication is not supported by the layout of tables";
+        // Replica sync error message
+        public static final String REPLICA_SYNC_ERROR = "Replicas are not synchronized";
+        // Replica synchronized message
+        public static final String REPLICA_SYNCHRONIZED = "Replica is synchronized, removed: %d, copied: %d";
+        // Replica read error message
+        public static final String REPLICA_READ_ERROR = "Configs are not read from the replica";
+        // Sharding error message
+        public static final String SHARDING_ERROR = "Sharding is not supported with %s";
+        // Shard read error message
+        public static final String SHARD_READ_ERROR = "Configs are not read from shards";
+        // Shard write error message
+        public static final String SHARD_WRITE_ERROR = "Configs are not written to shards";
+        // Shard stale configs error message
+        public static final String SHARD_STALE_ERROR = "Configs are not updated on shards, versions are stale: %s";
+        // Delta update error message
+        public static final String DELTA_UPDATE_ERROR = "Delta updates are not supported by the layout of tables";
+        // Update error message
+        public static final String UPDATE_ERROR = "Configs are not updated";
+        // Property read error message
+        public static final String PROPERTY_READ_ERROR = "Property is not read";
+        // Snapshot publish error message
+        public static final String SNAPSHOT_PUBLISH_ERROR = "Snapshot is not published";
+        // Snapshot refresh error message
+        public static final String SNAPSHOT_REFRESH_ERROR = "Snapshot is not refreshed";
+        // Snapshot size error message
+        public static final String SNAPSHOT_SIZE_ERROR = "Snapshot exceeds %d bytes";
+        // Snapshot read-only message
+        public static final String SNAPSHOT_READ_ONLY = "Snapshot is read-only";
+        // MBean registration error message
+        public static final String MBEAN_REGISTRATION_ERROR = "MBean is not registered for the operation: %s";
+        // Metrics listener error message
+        public static final String METRICS_LISTENER_ERROR = "Sample is not delivered to the metrics listener";
+        // Slow query message
+        public static final String SLOW_QUERY = "Statement is executed in %d ms: %s";
+        // Slow query plan error message
+        public static final String SLOW_QUERY_PLAN_ERROR = "Plan is not captured for the statement: %s";
+        // Write-behind error message
+        public static final String WRITE_BEHIND_ERROR = "Configs are not written behind";
+        // Write-behind queue full message
+        public static final String WRITE_BEHIND_QUEUE_FULL = "Configs are not queued, %d configs are already pending";
+        // Write-behind closed message
+        public static final String WRITE_BEHIND_CLOSED = "Write-behind queue is closed";
+        // Not a wrapper message
+        public static final String NOT_WRAPPER = "Not a wrapper for: %s";
+    }
+}
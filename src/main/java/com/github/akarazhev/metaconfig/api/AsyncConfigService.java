@@ -0,0 +1,68 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Provides asynchronous methods of the configuration service. Arguments are collected on the caller thread,
+ * operations are executed by a bounded executor and results are materialized before futures are completed.
+ * If the executor is saturated, a future is completed exceptionally with a rejected execution exception.
+ */
+public interface AsyncConfigService {
+    /**
+     * Updates configurations.
+     *
+     * @param stream a stream of configurations.
+     * @return a future of updated configurations.
+     */
+    CompletableFuture<List<Config>> update(final Stream<Config> stream);
+
+    /**
+     * Returns all names of configurations.
+     *
+     * @return a future of names.
+     */
+    CompletableFuture<List<String>> getNames();
+
+    /**
+     * Returns all configurations.
+     *
+     * @return a future of configurations.
+     */
+    CompletableFuture<List<Config>> get();
+
+    /**
+     * Returns configurations by names.
+     *
+     * @param stream a stream of names.
+     * @return a future of configurations.
+     */
+    CompletableFuture<List<Config>> get(final Stream<String> stream);
+
+    /**
+     * Removes configurations by names.
+     *
+     * @param stream a stream of names.
+     * @return a future of a number of removed configurations.
+     */
+    CompletableFuture<Integer> remove(final Stream<String> stream);
+
+    /**
+     * Accepts configurations by names and notifies consumers.
+     *
+     * @param stream a stream of names.
+     * @return a future of the completion.
+     */
+    CompletableFuture<Void> accept(final Stream<String> stream);
+}
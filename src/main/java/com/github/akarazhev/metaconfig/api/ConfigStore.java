@@ -0,0 +1,235 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCache;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.DeltaResult;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Routes reads and writes of configurations to the databases and keeps the config cache, replicas and readers
+ * of the snapshot in sync with writes.
+ */
+abstract class ConfigStore implements Closeable {
+    final MetaConfig metaConfig;
+    final ConfigCache configCache;
+    private final SnapshotPublisher snapshotPublisher;
+
+    ConfigStore(final MetaConfig metaConfig, final ConfigCache configCache,
+                final SnapshotPublisher snapshotPublisher) {
+        this.metaConfig = metaConfig;
+        this.configCache = configCache;
+        this.snapshotPublisher = snapshotPublisher;
+    }
+
+    /**
+     * Updates configurations.
+     *
+     * @param stream a stream of configurations.
+     * @return a stream of updated configurations.
+     */
+    abstract Stream<Config> update(final Stream<Config> stream);
+
+    /**
+     * Updates configurations by writing only changed properties and attributes.
+     *
+     * @param configs configurations.
+     * @return a result of the delta update.
+     */
+    abstract DeltaResult updateDelta(final Collection<Config> configs);
+
+    /**
+     * Writes configurations which replace the stored ones with the same names.
+     *
+     * @param configs configurations.
+     * @return a number of written configurations.
+     */
+    abstract int write(final List<Config> configs);
+
+    /**
+     * Removes configurations.
+     *
+     * @param stream a stream of names.
+     * @return a number of removed configurations.
+     */
+    abstract int remove(final Stream<String> stream);
+
+    /**
+     * Returns names of all configurations.
+     *
+     * @return a stream of names.
+     */
+    abstract Stream<String> getNames();
+
+    /**
+     * Returns all configurations.
+     *
+     * @return a stream of configurations.
+     */
+    abstract Stream<Config> get();
+
+    /**
+     * Loads configurations by names without the config cache.
+     *
+     * @param names names of configurations.
+     * @return a stream of configurations.
+     */
+    abstract Stream<Config> load(final Collection<String> names);
+
+    /**
+     * Returns a property of a configuration by its path.
+     *
+     * @param name  a name of a configuration.
+     * @param paths names of the property and its parents.
+     * @return a property or an empty optional.
+     */
+    abstract Optional<Property> getProperty(final String name, final String... paths);
+
+    /**
+     * Notifies consumers about changed configurations.
+     *
+     * @param stream a stream of names.
+     */
+    abstract void accept(final Stream<String> stream);
+
+    /**
+     * Adds a consumer of changed configurations.
+     *
+     * @param consumer a consumer.
+     */
+    abstract void addConsumer(final Consumer<Config> consumer);
+
+    /**
+     * Returns a lazy stream of all configurations.
+     *
+     * @param fetchSize a number of rows which are fetched at once.
+     * @return a stream of configurations.
+     */
+    abstract Stream<Config> export(final int fetchSize);
+
+    /**
+     * Preloads configurations into the config cache, they are read from the primary database or shards.
+     *
+     * @param warmUp a warm-up.
+     * @return a number of preloaded configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    abstract long preload(final WarmUp warmUp) throws SQLException;
+
+    /**
+     * Returns configurations by names, they are read with the config cache if it is enabled.
+     *
+     * @param stream a stream of names.
+     * @return a stream of configurations.
+     */
+    Stream<Config> get(final Stream<String> stream) {
+        return configCache != null ?
+                configCache.get(stream, this::load) :
+                load(stream.collect(Collectors.toList()));
+    }
+
+    /**
+     * Accepts changes which are made by any client of the database.
+     *
+     * @param names names of changed configurations.
+     */
+    void acceptChanges(final Collection<String> names) {
+        invalidate(names);
+        if (snapshotPublisher != null) {
+            snapshotPublisher.requestPublish();
+        }
+
+        metaConfig.accept(names.stream());
+    }
+
+    /**
+     * Removes changed configurations from the config cache.
+     *
+     * @param names names of changed configurations.
+     */
+    void invalidate(final Collection<String> names) {
+        if (configCache != null) {
+            configCache.invalidate(names.stream());
+        }
+    }
+
+    /**
+     * Requests the synchronization of copies of configurations after a write.
+     */
+    void requestSync() {
+        // Readers of the snapshot receive writes after the publish delay
+        if (snapshotPublisher != null) {
+            snapshotPublisher.requestPublish();
+        }
+    }
+
+    /**
+     * Returns the config cache.
+     *
+     * @return a config cache or null if the cache is disabled.
+     */
+    ConfigCache getConfigCache() {
+        return configCache;
+    }
+
+    /**
+     * Returns snapshots of the connection pool metrics of read replicas.
+     *
+     * @return a list of pool metrics.
+     */
+    List<PoolMetrics> getReplicaMetrics() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns snapshots of the connection pool metrics of shards.
+     *
+     * @return a list of pool metrics.
+     */
+    List<PoolMetrics> getShardMetrics() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns databases which are closed with the store, besides the primary database.
+     *
+     * @return databases or null if they are not used.
+     */
+    Closeable getDatabases() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        // Databases are closed after the meta configuration, even if it fails
+        try (final Closeable databases = getDatabases()) {
+            if (metaConfig != null) {
+                metaConfig.close();
+            }
+        }
+    }
+}
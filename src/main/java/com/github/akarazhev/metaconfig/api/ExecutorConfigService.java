@@ -0,0 +1,107 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.writebehind.WriteBehindQueue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Executes operations of the configuration service with the executor. Updates are queued to the write-behind
+ * queue if it is configured.
+ */
+final class ExecutorConfigService implements AsyncConfigService {
+    private final ConfigService configService;
+    private final Executor executor;
+    private final WriteBehindQueue writeBehind;
+
+    ExecutorConfigService(final ConfigService configService, final Executor executor,
+                          final WriteBehindQueue writeBehind) {
+        this.configService = configService;
+        this.executor = executor;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<Config>> update(final Stream<Config> stream) {
+        if (writeBehind != null) {
+            return writeBehind.update(stream);
+        }
+
+        final List<Config> configs = stream.collect(Collectors.toList());
+        return supply(() -> configService.update(configs.stream()).collect(Collectors.toList()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<String>> getNames() {
+        return supply(() -> configService.getNames().collect(Collectors.toList()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<Config>> get() {
+        return supply(() -> configService.get().collect(Collectors.toList()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<Config>> get(final Stream<String> stream) {
+        final List<String> names = stream.collect(Collectors.toList());
+        return supply(() -> configService.get(names.stream()).collect(Collectors.toList()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Integer> remove(final Stream<String> stream) {
+        final List<String> names = stream.collect(Collectors.toList());
+        return supply(() -> configService.remove(names.stream()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> accept(final Stream<String> stream) {
+        final List<String> names = stream.collect(Collectors.toList());
+        return supply(() -> {
+            configService.accept(names.stream());
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> supply(final Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (final RejectedExecutionException e) {
+            final CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+}
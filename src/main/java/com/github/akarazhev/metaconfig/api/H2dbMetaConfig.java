@@ -10,42 +10,147 @@
  * limitations under the License. */
 package com.github.akarazhev.metaconfig.api;
 
+import com.github.akarazhev.metaconfig.engine.cache.CacheMemory;
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCache;
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCaches;
 import com.github.akarazhev.metaconfig.engine.db.DbServer;
-import com.github.akarazhev.metaconfig.engine.db.DbServers;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.BulkImporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ConfigExporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.DeltaResult;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
 import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
-import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+import com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQuery;
+import com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLog;
+import com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs;
+import com.github.akarazhev.metaconfig.engine.dump.ConfigDumps;
+import com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceMetrics;
+import com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceScheduler;
+import com.github.akarazhev.metaconfig.engine.metrics.Instrumentation;
+import com.github.akarazhev.metaconfig.engine.metrics.MetricsListener;
+import com.github.akarazhev.metaconfig.engine.metrics.OperationMetrics;
+import com.github.akarazhev.metaconfig.engine.notification.ChangeNotifier;
+import com.github.akarazhev.metaconfig.engine.replication.ReplicaSet;
+import com.github.akarazhev.metaconfig.engine.sharding.ShardedStore;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUp;
+import com.github.akarazhev.metaconfig.engine.writebehind.WriteBehindQueue;
 import com.github.akarazhev.metaconfig.extension.Validator;
 
 import javax.sql.DataSource;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import static com.github.akarazhev.metaconfig.Constants.Messages.META_CONFIG_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.CHANGE_LOG_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.DUMP_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.EMBEDDED_URL_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.REPLICATION_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.RESTORE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SHARDING_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
 
 /**
  * The core configuration class that provides the functionality.
  */
 public final class H2dbMetaConfig implements ConfigService, Closeable {
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 100;
+    private static final long ASYNC_SHUTDOWN_TIMEOUT = 10;
+    private static final long DEFAULT_STARTUP_TIMEOUT = 60000;
+    private static final String UPDATE_OPERATION = "update";
+    private static final String UPDATE_DELTA_OPERATION = "update-delta";
+    private static final String GET_NAMES_OPERATION = "get-names";
+    private static final String GET_ALL_OPERATION = "get-all";
+    private static final String GET_OPERATION = "get";
+    private static final String GET_PROPERTY_OPERATION = "get-property";
+    private static final String REMOVE_OPERATION = "remove";
+    private static final String ACCEPT_OPERATION = "accept";
+    private static final String IMPORT_OPERATION = "import";
+    private static final String EXPORT_OPERATION = "export";
     private final DbServer dbServer;
     private final ConnectionPool connectionPool;
-    private final MetaConfig metaConfig;
+    private final ConfigStore store;
+    private final SnapshotPublisher snapshotPublisher;
+    private final ChangeNotifier changeNotifier;
+    private final ExecutorService asyncExecutor;
+    private final AsyncConfigService asyncConfigService;
+    private final List<String> schemaChanges;
+    private final MaintenanceScheduler maintenanceScheduler;
+    private final WarmUp warmUp;
+    private final Instrumentation instrumentation;
+    private final SlowQueryLog slowQueryLog;
+    private final WriteBehindQueue writeBehind;
+    private final Map<String, Long> startupTimings;
 
-    private H2dbMetaConfig(final DbServer dbServer, final ConnectionPool connectionPool, final MetaConfig metaConfig) {
+    private H2dbMetaConfig(final DbServer dbServer, final ConnectionPool connectionPool, final ConfigStore store,
+                           final SnapshotPublisher snapshotPublisher, final ChangeNotifier changeNotifier,
+                           final ExecutorService asyncExecutor, final List<String> schemaChanges,
+                           final MaintenanceScheduler maintenanceScheduler, final WarmUp warmUp,
+                           final Instrumentation instrumentation, final SlowQueryLog slowQueryLog,
+                           final WriteBehindQueue writeBehind, final Map<String, Long> startupTimings) {
         this.dbServer = dbServer;
         this.connectionPool = connectionPool;
-        this.metaConfig = metaConfig;
+        this.store = store;
+        this.snapshotPublisher = snapshotPublisher;
+        this.changeNotifier = changeNotifier;
+        this.asyncExecutor = asyncExecutor;
+        this.asyncConfigService = new ExecutorConfigService(this, asyncExecutor, writeBehind);
+        this.schemaChanges = schemaChanges;
+        this.maintenanceScheduler = maintenanceScheduler;
+        this.warmUp = warmUp;
+        this.instrumentation = instrumentation;
+        this.slowQueryLog = slowQueryLog;
+        this.writeBehind = writeBehind;
+        this.startupTimings = startupTimings;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * With sharding, ids of stored configurations are kept and unchanged configurations keep their versions.
+     * Configurations must have the stored versions, stale ones are rejected before any shard is written.
+     *
+     * @throws IllegalStateException when sharded configurations have stale versions.
      */
     @Override
     public Stream<Config> update(final Stream<Config> stream) {
-        return metaConfig.update(stream);
+        flushWrites();
+        return measure(UPDATE_OPERATION, () -> store.update(stream));
+    }
+
+    /**
+     * Updates configurations by writing only changed properties and attributes in a single transaction.
+     * Configurations must have the stored versions, e.g. they are read with the get method and changed with
+     * the config builder, otherwise they are rejected as stale. Unchanged configurations are not written.
+     * Consumers are not notified about updated configurations.
+     *
+     * @param stream a stream of configurations.
+     * @return a result with stored configurations, rejected names and a number of written rows.
+     */
+    public DeltaResult updateDelta(final Stream<Config> stream) {
+        flushWrites();
+        return measure(UPDATE_DELTA_OPERATION, () -> {
+            final Map<String, Config> configs = new LinkedHashMap<>();
+            Validator.of(stream).get().forEach(config -> configs.put(config.getName(), config));
+            return store.updateDelta(configs.values());
+        });
     }
 
     /**
@@ -53,7 +158,7 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public Stream<String> getNames() {
-        return metaConfig.getNames();
+        return measure(GET_NAMES_OPERATION, store::getNames);
     }
 
     /**
@@ -61,7 +166,7 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public Stream<Config> get() {
-        return metaConfig.get();
+        return measure(GET_ALL_OPERATION, store::get);
     }
 
     /**
@@ -69,7 +174,27 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public Stream<Config> get(final Stream<String> stream) {
-        return metaConfig.get(stream);
+        return measure(GET_OPERATION, () -> store.get(stream));
+    }
+
+    /**
+     * Returns a property of a configuration by its path without reading the whole configuration,
+     * so hot-path checks of flags are cheap. Typed values are read with the accessors of the property,
+     * e.g. {@code getProperty("db", "pool", "size").map(Property::asLong)}. If the tables have an unknown layout,
+     * the property is taken from the configuration which is read with the get method.
+     *
+     * @param name  a name of a configuration.
+     * @param paths names of the property and its parents, starting from the top level.
+     * @return a property with its attributes and sub-properties or an empty optional.
+     */
+    public Optional<Property> getProperty(final String name, final String... paths) {
+        return measure(GET_PROPERTY_OPERATION, () -> {
+            if (Validator.of(paths).get().length == 0) {
+                throw new IllegalArgumentException(String.format(WRONG_PARAM_VALUE, "paths"));
+            }
+
+            return store.getProperty(Validator.of(name).get(), paths);
+        });
     }
 
     /**
@@ -77,7 +202,8 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public int remove(final Stream<String> stream) {
-        return metaConfig.remove(stream);
+        flushWrites();
+        return measure(REMOVE_OPERATION, () -> store.remove(stream));
     }
 
     /**
@@ -85,7 +211,10 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public void accept(final Stream<String> stream) {
-        metaConfig.accept(stream);
+        measure(ACCEPT_OPERATION, () -> {
+            store.accept(stream);
+            return null;
+        });
     }
 
     /**
@@ -93,7 +222,227 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public void addConsumer(final Consumer<Config> consumer) {
-        metaConfig.addConsumer(consumer);
+        store.addConsumer(consumer);
+    }
+
+    private <T> T measure(final String operation, final Supplier<T> call) {
+        // Operations are called directly without the instrumentation
+        return instrumentation != null ? instrumentation.measure(operation, call) : call.get();
+    }
+
+    private <T> Stream<T> measureStream(final String operation, final Supplier<Stream<T>> call) {
+        // A lazy stream is recorded when it is closed
+        return instrumentation != null ? instrumentation.measureStream(operation, call) : call.get();
+    }
+
+    private void flushWrites() {
+        // Queued updates are written before, so writes are not reordered
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+    }
+
+    /**
+     * Returns the asynchronous service that executes operations with a bounded executor, so callers
+     * are not blocked by the database. By default, the executor has as many threads as the connection pool.
+     * Updates are queued to the write-behind queue if it is configured.
+     *
+     * @return an asynchronous configuration service.
+     */
+    public AsyncConfigService async() {
+        return asyncConfigService;
+    }
+
+    /**
+     * Imports configurations in chunks of the default size.
+     *
+     * @param stream a stream of configurations.
+     * @return a number of imported configurations.
+     * @see #importConfigs(Stream, int, IntConsumer)
+     */
+    public int importConfigs(final Stream<Config> stream) {
+        return importConfigs(stream, DEFAULT_CHUNK_SIZE, count -> {
+        });
+    }
+
+    /**
+     * Imports configurations with JDBC batch inserts, every chunk is written in a single transaction.
+     * Imported configurations replace the stored ones with the same names and start with the first version.
+     * Consumers are not notified about imported configurations. If the tables have an unknown layout,
+     * configurations are imported in chunks with the update method.
+     *
+     * @param stream    a stream of configurations.
+     * @param chunkSize a number of configurations in a transaction.
+     * @param progress  a consumer of the number of imported configurations after every chunk.
+     * @return a number of imported configurations.
+     */
+    public int importConfigs(final Stream<Config> stream, final int chunkSize, final IntConsumer progress) {
+        flushWrites();
+        return measure(IMPORT_OPERATION, () -> {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException(String.format(WRONG_PARAM_VALUE, "chunkSize"));
+            }
+
+            int imported = 0;
+            final Map<String, Config> chunk = new LinkedHashMap<>();
+            final Iterator<Config> iterator = Validator.of(stream).get().iterator();
+            while (iterator.hasNext()) {
+                final Config config = iterator.next();
+                chunk.put(config.getName(), config);
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    imported += store.write(new ArrayList<>(chunk.values()));
+                    chunk.clear();
+                    progress.accept(imported);
+                }
+            }
+
+            return imported;
+        });
+    }
+
+    /**
+     * Returns a lazy stream of all configurations that is backed by database cursors, so configurations
+     * are read with constant heap. The stream holds a connection until it is exhausted or closed,
+     * so it should be used in a try-with-resources statement. If the tables have an unknown layout,
+     * configurations are read with the get method.
+     *
+     * @return a stream of configurations.
+     */
+    public Stream<Config> export() {
+        return measureStream(EXPORT_OPERATION, () -> store.export(DEFAULT_FETCH_SIZE));
+    }
+
+    /**
+     * Writes all configurations to a dump file with constant heap.
+     *
+     * @param path a path of a dump.
+     * @return a number of dumped configurations.
+     */
+    public long dump(final Path path) {
+        try (final Stream<Config> stream = export()) {
+            return ConfigDumps.write(stream, Validator.of(path).get());
+        } catch (final Exception e) {
+            throw new RuntimeException(DUMP_ERROR, e);
+        }
+    }
+
+    /**
+     * Restores configurations from a dump file with the bulk import.
+     *
+     * @param path a path of a dump.
+     * @return a number of restored configurations.
+     * @see #importConfigs(Stream, int, IntConsumer)
+     */
+    public int restore(final Path path) {
+        try (final Stream<Config> stream = ConfigDumps.read(Validator.of(path).get())) {
+            return importConfigs(stream);
+        } catch (final Exception e) {
+            throw new RuntimeException(RESTORE_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns the number of reads that are served by the config cache.
+     *
+     * @return a number of cache hits or 0 if the cache is disabled.
+     */
+    public long getCacheHits() {
+        final ConfigCache configCache = store.getConfigCache();
+        return configCache != null ? configCache.getHits() : 0;
+    }
+
+    /**
+     * Returns the number of reads that are missed by the config cache and loaded from the database.
+     *
+     * @return a number of cache misses or 0 if the cache is disabled.
+     */
+    public long getCacheMisses() {
+        final ConfigCache configCache = store.getConfigCache();
+        return configCache != null ? configCache.getMisses() : 0;
+    }
+
+    /**
+     * Returns the memory that is used by the config cache.
+     *
+     * @return a memory report or null if the cache is disabled.
+     */
+    public CacheMemory getCacheMemory() {
+        final ConfigCache configCache = store.getConfigCache();
+        return configCache != null ? configCache.getMemory() : null;
+    }
+
+    /**
+     * Returns statements which are applied to tune the schema at the start: created indexes and analyzed tables.
+     *
+     * @return a list of statements.
+     */
+    public List<String> getSchemaChanges() {
+        return schemaChanges;
+    }
+
+    /**
+     * Returns a snapshot of the connection pool metrics.
+     *
+     * @return pool metrics.
+     */
+    public PoolMetrics getPoolMetrics() {
+        return connectionPool.getMetrics();
+    }
+
+    /**
+     * Returns snapshots of the connection pool metrics of read replicas.
+     *
+     * @return a list of pool metrics or an empty list if replicas are not configured.
+     */
+    public List<PoolMetrics> getReplicaMetrics() {
+        return store.getReplicaMetrics();
+    }
+
+    /**
+     * Returns snapshots of the connection pool metrics of shards, the first one is the primary database.
+     *
+     * @return a list of pool metrics or an empty list if shards are not configured.
+     */
+    public List<PoolMetrics> getShardMetrics() {
+        return store.getShardMetrics();
+    }
+
+    /**
+     * Returns durations of startup phases in milliseconds, independent phases are started concurrently.
+     *
+     * @return a map of durations by phases.
+     */
+    public Map<String, Long> getStartupTimings() {
+        return startupTimings;
+    }
+
+    /**
+     * Returns snapshots of metrics of instrumented operations: counts, errors, latencies split into acquire,
+     * query and mapping time, read rows and bytes.
+     *
+     * @return metrics by names of operations or an empty map if the instrumentation is disabled.
+     */
+    public Map<String, OperationMetrics> getOperationMetrics() {
+        return instrumentation != null ? instrumentation.getMetrics() : Collections.emptyMap();
+    }
+
+    /**
+     * Returns statements which are executed longer than the threshold of the slow query log, from the oldest
+     * to the latest one.
+     *
+     * @return a list of slow statements or an empty list if the slow query log is disabled.
+     */
+    public List<SlowQuery> getSlowQueries() {
+        return slowQueryLog != null ? slowQueryLog.getQueries() : Collections.emptyList();
+    }
+
+    /**
+     * Returns a snapshot of the maintenance metrics.
+     *
+     * @return maintenance metrics or null if the maintenance is disabled.
+     */
+    public MaintenanceMetrics getMaintenanceMetrics() {
+        return maintenanceScheduler != null ? maintenanceScheduler.getMetrics() : null;
     }
 
     /**
@@ -101,17 +450,69 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
      */
     @Override
     public void close() throws IOException {
-        // Stop the meta configuration
-        if (metaConfig != null) {
-            metaConfig.close();
+        // Stop the async executor, started operations are completed
+        asyncExecutor.shutdown();
+        try {
+            asyncExecutor.awaitTermination(ASYNC_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Every component is closed, even if some of them fail
+        Exception exception = null;
+        // Write queued updates
+        if (writeBehind != null) {
+            exception = close(exception, writeBehind);
+        }
+        // Stop the change notifier
+        if (changeNotifier != null) {
+            exception = close(exception, changeNotifier);
+        }
+        // Publish pending changes to readers of the snapshot
+        if (snapshotPublisher != null) {
+            exception = close(exception, snapshotPublisher);
+        }
+        // Write the snapshot for the next start
+        if (warmUp != null) {
+            exception = close(exception, () -> warmUp.save(this::export, store::load));
+        }
+        // Stop the meta configuration, close connection pools of shards or replicas
+        exception = close(exception, store);
+        // Stop the maintenance, the database is compacted before the connection pool is closed
+        if (maintenanceScheduler != null) {
+            exception = close(exception, maintenanceScheduler);
         }
         // Close the connection pool
         if (connectionPool != null) {
-            connectionPool.close();
+            exception = close(exception, connectionPool);
         }
         // Stop the database server
         if (dbServer != null) {
-            dbServer.stop();
+            exception = close(exception, dbServer::stop);
+        }
+        // Unregister MBeans of the instrumentation
+        if (instrumentation != null) {
+            exception = close(exception, instrumentation);
+        }
+
+        if (exception instanceof IOException) {
+            throw (IOException) exception;
+        } else if (exception != null) {
+            throw (RuntimeException) exception;
+        }
+    }
+
+    private static Exception close(final Exception exception, final Closeable component) {
+        try {
+            component.close();
+            return exception;
+        } catch (final IOException | RuntimeException e) {
+            // The first exception is thrown, later ones are suppressed
+            if (exception == null) {
+                return e;
+            }
+
+            exception.addSuppressed(e);
+            return exception;
         }
     }
 
@@ -122,7 +523,23 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
         private Config dbConfig;
         private Config webConfig;
         private Config poolConfig;
+        private Config cacheConfig;
+        private Config notifierConfig;
+        private Config asyncConfig;
+        private Config maintenanceConfig;
+        private Config warmUpConfig;
+        private Config replicationConfig;
+        private final List<Config> replicaConfigs = new ArrayList<>();
+        private Config shardingConfig;
+        private final List<Config> shardConfigs = new ArrayList<>();
+        private Config snapshotConfig;
+        private Config instrumentationConfig;
+        private Config slowQueryLogConfig;
+        private Config writeBehindConfig;
+        private final List<MetricsListener> metricsListeners = new ArrayList<>();
         private Map<String, String> dataMapping;
+        private boolean embedded;
+        private long startupTimeout = DEFAULT_STARTUP_TIMEOUT;
 
         /**
          * Constructs the core configuration class with the configuration of a db server.
@@ -135,6 +552,31 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
             return this;
         }
 
+        /**
+         * Constructs the core configuration class in the embedded mode. The connection pool is bound to
+         * an in-process url and a db server is started only if it is configured, e.g. for external tools.
+         *
+         * @return a builder of the core configuration class.
+         */
+        public Builder embedded() {
+            this.embedded = true;
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the startup timeout. All startup phases, including
+         * the readiness of the db server, must be completed within it.
+         *
+         * @param timeout a timeout in milliseconds.
+         * @return a builder of the core configuration class.
+         */
+        public Builder startupTimeout(final long timeout) {
+            this.startupTimeout = Validator.of(timeout).
+                    validate(t -> t > 0, String.format(WRONG_PARAM_VALUE, "startup-timeout")).
+                    get();
+            return this;
+        }
+
         /**
          * Constructs the core configuration class with the configuration of a connection pool.
          *
@@ -146,6 +588,176 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
             return this;
         }
 
+        /**
+         * Constructs the core configuration class with the configuration of a config cache.
+         *
+         * @param config a configuration a config cache.
+         * @return a builder of the core configuration class.
+         */
+        public Builder configCache(final Config config) {
+            this.cacheConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a change notifier.
+         * Triggers on the configs and properties tables log changes of all clients of the database,
+         * names of changed configs are delivered to consumers.
+         *
+         * @param config a configuration a change notifier.
+         * @return a builder of the core configuration class.
+         */
+        public Builder changeNotifier(final Config config) {
+            this.notifierConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of an async executor.
+         *
+         * @param config a configuration an async executor.
+         * @return a builder of the core configuration class.
+         */
+        public Builder asyncExecutor(final Config config) {
+            this.asyncConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a maintenance scheduler.
+         * The database file is periodically compacted and statistics of tables are updated when the load is low.
+         *
+         * @param config a configuration a maintenance scheduler.
+         * @return a builder of the core configuration class.
+         */
+        public Builder maintenance(final Config config) {
+            this.maintenanceConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a warm-up. Connections of the pool
+         * are opened and configurations are preloaded into the config cache before the build method returns.
+         * Configurations are written to a snapshot on close, so the next start reads only changed ones.
+         *
+         * @param config a configuration a warm-up.
+         * @return a builder of the core configuration class.
+         */
+        public Builder warmUp(final Config config) {
+            this.warmUpConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a connection pool of a read replica,
+         * it can be called for every replica. Reads are routed to the least loaded replica and writes are made
+         * on the primary database, replicas are synchronized with it periodically and after writes.
+         *
+         * @param config a configuration a connection pool of a replica.
+         * @return a builder of the core configuration class.
+         */
+        public Builder readReplica(final Config config) {
+            this.replicaConfigs.add(Validator.of(config).get());
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of the replication of read replicas.
+         *
+         * @param config a configuration of the replication.
+         * @return a builder of the core configuration class.
+         */
+        public Builder replication(final Config config) {
+            this.replicationConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a connection pool of a shard,
+         * it can be called for every shard. Configurations are partitioned across the primary database and
+         * shards by consistent hashing of names, so the number of shards must not be changed for stored data.
+         *
+         * @param config a configuration a connection pool of a shard.
+         * @return a builder of the core configuration class.
+         */
+        public Builder shard(final Config config) {
+            this.shardConfigs.add(Validator.of(config).get());
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of the sharding.
+         *
+         * @param config a configuration of the sharding.
+         * @return a builder of the core configuration class.
+         */
+        public Builder sharding(final Config config) {
+            this.shardingConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a snapshot. All configurations are
+         * published to the memory-mapped snapshot file at the start and after changes, so processes which only
+         * read configurations use the {@link SnapshotConfigService} without connections to the database.
+         *
+         * @param config a configuration of a snapshot.
+         * @return a builder of the core configuration class.
+         */
+        public Builder snapshot(final Config config) {
+            this.snapshotConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of an instrumentation. Operations are
+         * recorded with counts, errors, latency histograms, read rows and bytes, metrics are registered as MBeans.
+         *
+         * @param config a configuration of an instrumentation.
+         * @return a builder of the core configuration class.
+         */
+        public Builder instrumentation(final Config config) {
+            this.instrumentationConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a slow query log. Statements of
+         * connection pools which are executed longer than the threshold are recorded with optional plans.
+         *
+         * @param config a configuration of a slow query log.
+         * @return a builder of the core configuration class.
+         */
+        public Builder slowQueryLog(final Config config) {
+            this.slowQueryLogConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with the configuration of a write-behind queue. Updates of
+         * the asynchronous service are coalesced within the delay and written in batches, futures are completed
+         * when updates are written. Other writes wait for queued updates.
+         *
+         * @param config a configuration of a write-behind queue.
+         * @return a builder of the core configuration class.
+         */
+        public Builder writeBehind(final Config config) {
+            this.writeBehindConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Constructs the core configuration class with a metrics listener, it can be called for every listener.
+         * The listener receives samples of operations, the default instrumentation is used if it is not configured.
+         *
+         * @param listener a metrics listener.
+         * @return a builder of the core configuration class.
+         */
+        public Builder metricsListener(final MetricsListener listener) {
+            this.metricsListeners.add(Validator.of(listener).get());
+            return this;
+        }
+
         /**
          * Constructs the core configuration class with the custom mapping.
          *
@@ -174,27 +786,124 @@ public final class H2dbMetaConfig implements ConfigService, Closeable {
          * @return a builder of the core configuration class.
          */
         public H2dbMetaConfig build() {
+            final H2dbStartup startup = new H2dbStartup(startupTimeout);
             try {
-                // Init the DB server
-                final DbServer dbServer = dbConfig != null ?
-                        DbServers.newServer(dbConfig).start() :
-                        DbServers.newServer().start();
-                // Init the connection pool and the data source
-                final ConnectionPool connectionPool = poolConfig != null ?
-                        ConnectionPools.newPool(poolConfig) :
-                        ConnectionPools.newPool();
-                final DataSource dataSource = connectionPool.getDataSource();
-                // Init the data mapping
+                // Check the url of the embedded mode
+                if (embedded && H2dbStartup.isRemote(poolConfig)) {
+                    throw new IllegalArgumentException(EMBEDDED_URL_ERROR);
+                }
+                // Init the slow query log, it wraps data sources of connection pools
+                final SlowQueryLog slowQueryLog = slowQueryLogConfig != null ?
+                        SlowQueryLogs.newLog(slowQueryLogConfig) :
+                        null;
+                // Start the db server, connection pools and the main instance concurrently
+                final CompletableFuture<DbServer> dbServerPhase = startup.startDbServer(dbConfig, embedded);
+                final CompletableFuture<ConnectionPool> connectionPoolPhase =
+                        startup.startConnectionPool(poolConfig, slowQueryLog, dbServerPhase);
+                final CompletableFuture<List<ConnectionPool>> replicasPhase =
+                        startup.startReplicaPools(replicaConfigs, slowQueryLog, dbServerPhase);
+                final CompletableFuture<List<ConnectionPool>> shardsPhase =
+                        startup.startShardPools(shardConfigs, slowQueryLog, dbServerPhase);
                 final Map<String, String> mapping = dataMapping != null ? dataMapping : new HashMap<>();
-                // Create the main instance
-                final MetaConfig metaConfig = webConfig != null ?
-                        new MetaConfig.Builder().webServer(webConfig).
-                                dataMapping(mapping).dataSource(dataSource).build() :
-                        new MetaConfig.Builder().defaultConfig().
-                                dataMapping(mapping).dataSource(dataSource).build();
-                return new H2dbMetaConfig(dbServer, connectionPool, metaConfig);
+                final CompletableFuture<MetaConfig> metaConfigPhase =
+                        startup.startMetaConfig(webConfig, mapping, connectionPoolPhase);
+                final CompletableFuture<WarmUp> connectionsPhase =
+                        startup.openConnections(warmUpConfig, connectionPoolPhase);
+                // Init the config cache
+                final ConfigCache configCache = cacheConfig != null ? ConfigCaches.newCache(cacheConfig) : null;
+                final ConnectionPool connectionPool = startup.await(connectionPoolPhase);
+                final DataSource dataSource = connectionPool.getDataSource();
+                final MetaConfig metaConfig = startup.await(metaConfigPhase);
+                // Init the bulk importer and the exporter, they are used only for the known layout of tables
+                final Tables tables = new Tables(mapping);
+                final BulkImporter bulkImporter = new BulkImporter(dataSource, tables);
+                final boolean supported = bulkImporter.isSupported();
+                validate(supported);
+                final ConfigExporter configExporter = supported ? new ConfigExporter(dataSource, tables) : null;
+                // Tune the schema, so lookups of configs are backed by indexes
+                final List<String> schemaChanges = supported ?
+                        startup.tuneSchema(dataSource, tables) :
+                        Collections.emptyList();
+                // Init the store, reads and writes are routed to shards or reads are routed to replicas
+                final List<ConnectionPool> shardPools = startup.await(shardsPhase);
+                final ShardedStore shardedStore = shardPools != null ?
+                        startup.startShardedStore(shardingConfig, connectionPool, shardPools, tables) :
+                        null;
+                final List<ConnectionPool> replicaPools = startup.await(replicasPhase);
+                final ReplicaSet replicaSet = replicaPools != null ?
+                        startup.newReplicaSet(replicationConfig, dataSource, tables, replicaPools,
+                                names -> invalidate(configCache, names)) :
+                        null;
+                final SnapshotPublisher snapshotPublisher = startup.newSnapshotPublisher(snapshotConfig);
+                final ConfigStore store = shardedStore != null ?
+                        new ShardedConfigStore(metaConfig, configCache, snapshotPublisher, shardedStore) :
+                        replicaSet != null ?
+                                new ReplicatedConfigStore(metaConfig, configCache, snapshotPublisher, bulkImporter,
+                                        configExporter, replicaSet) :
+                                new PrimaryConfigStore(metaConfig, configCache, snapshotPublisher,
+                                        supported ? bulkImporter : null, configExporter);
+                // Init the change notifier, the async executor and the maintenance scheduler
+                final ChangeNotifier changeNotifier =
+                        startup.startChangeNotifier(notifierConfig, dataSource, tables, store::acceptChanges);
+                final ExecutorService asyncExecutor =
+                        startup.newAsyncExecutor(asyncConfig, connectionPool.getMaxConnections());
+                final MaintenanceScheduler maintenanceScheduler =
+                        startup.startMaintenance(maintenanceConfig, connectionPool);
+                // Warm up the config cache, replicas are synchronized before reads are routed to them
+                final WarmUp warmUp = startup.preload(connectionsPhase, store);
+                if (replicaSet != null) {
+                    startup.startReplicaSet(replicaSet);
+                }
+                // Wait for the db server
+                final DbServer dbServer = startup.await(dbServerPhase);
+                final Map<String, Long> startupTimings = startup.complete();
+                // Init the write-behind queue and the instrumentation
+                final WriteBehindQueue writeBehind = startup.newWriteBehind(writeBehindConfig);
+                final Instrumentation instrumentation =
+                        startup.newInstrumentation(instrumentationConfig, metricsListeners);
+                final H2dbMetaConfig h2dbMetaConfig = new H2dbMetaConfig(dbServer, connectionPool, store,
+                        snapshotPublisher, changeNotifier, asyncExecutor, schemaChanges, maintenanceScheduler, warmUp,
+                        instrumentation, slowQueryLog, writeBehind, startupTimings);
+                // Publish the first snapshot
+                if (snapshotPublisher != null) {
+                    snapshotPublisher.start(h2dbMetaConfig::export);
+                }
+                // Write batches of queued updates
+                if (writeBehind != null) {
+                    writeBehind.start(h2dbMetaConfig::update);
+                }
+
+                return h2dbMetaConfig;
             } catch (final Exception e) {
-                throw new RuntimeException(META_CONFIG_ERROR, e);
+                throw startup.rollback(e);
+            }
+        }
+
+        private void validate(final boolean supported) {
+            // The change log, shards and replicas require the known layout of tables
+            if (notifierConfig != null && !supported) {
+                throw new IllegalStateException(CHANGE_LOG_ERROR);
+            }
+
+            if (shardConfigs.size() > 0) {
+                if (!supported) {
+                    throw new IllegalStateException(String.format(SHARDING_ERROR, "the unknown layout of tables"));
+                } else if (replicaConfigs.size() > 0) {
+                    throw new IllegalStateException(String.format(SHARDING_ERROR, "read replicas"));
+                } else if (notifierConfig != null) {
+                    throw new IllegalStateException(String.format(SHARDING_ERROR, "the change notifier"));
+                }
+            }
+
+            if (replicaConfigs.size() > 0 && !supported) {
+                throw new IllegalStateException(REPLICATION_ERROR);
+            }
+        }
+
+        private static void invalidate(final ConfigCache configCache, final Collection<String> names) {
+            // Cached configs are reloaded from replicas when they are changed
+            if (configCache != null) {
+                configCache.invalidate(names.stream());
             }
         }
     }
@@ -0,0 +1,456 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.async.AsyncExecutors;
+import com.github.akarazhev.metaconfig.engine.db.DbServer;
+import com.github.akarazhev.metaconfig.engine.db.DbServers;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ChangeLog;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.SchemaManager;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLog;
+import com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceScheduler;
+import com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers;
+import com.github.akarazhev.metaconfig.engine.metrics.Instrumentation;
+import com.github.akarazhev.metaconfig.engine.metrics.Instrumentations;
+import com.github.akarazhev.metaconfig.engine.metrics.MetricsListener;
+import com.github.akarazhev.metaconfig.engine.notification.ChangeNotifier;
+import com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers;
+import com.github.akarazhev.metaconfig.engine.replication.ReplicaSet;
+import com.github.akarazhev.metaconfig.engine.replication.ReplicaSets;
+import com.github.akarazhev.metaconfig.engine.sharding.ShardedStore;
+import com.github.akarazhev.metaconfig.engine.sharding.ShardedStores;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+import com.github.akarazhev.metaconfig.engine.snapshot.Snapshots;
+import com.github.akarazhev.metaconfig.engine.startup.StartupPhases;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUp;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUps;
+import com.github.akarazhev.metaconfig.engine.writebehind.WriteBehindQueue;
+import com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.Constants.Messages.META_CONFIG_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.STARTUP_COMPLETED;
+
+/**
+ * Starts components of the core configuration class in phases, independent phases are started concurrently.
+ * Started components are released in the reverse order on a failure.
+ */
+final class H2dbStartup {
+    private final static Logger LOGGER = Logger.getLogger(H2dbStartup.class.getSimpleName());
+    private static final String DB_SERVER_PHASE = "db-server";
+    private static final String CONNECTION_POOL_PHASE = "connection-pool";
+    private static final String META_CONFIG_PHASE = "meta-config";
+    private static final String CONNECTIONS_PHASE = "connections";
+    private static final String SCHEMA_PHASE = "schema";
+    private static final String PRELOAD_PHASE = "preload";
+    private static final String REPLICAS_PHASE = "replicas";
+    private static final String REPLICATION_PHASE = "replication";
+    private static final String SHARDS_PHASE = "shards";
+    private static final String SHARDING_PHASE = "sharding";
+    private final long started = System.nanoTime();
+    private final StartupPhases phases;
+    private final List<AutoCloseable> components = Collections.synchronizedList(new ArrayList<>());
+
+    H2dbStartup(final long timeout) {
+        this.phases = new StartupPhases(timeout);
+    }
+
+    /**
+     * Starts the db server, it is optional in the embedded mode.
+     *
+     * @param config   a configuration of a db server or null.
+     * @param embedded true if the embedded mode is used.
+     * @return a phase of the db server.
+     */
+    CompletableFuture<DbServer> startDbServer(final Config config, final boolean embedded) {
+        return phases.run(DB_SERVER_PHASE, () -> {
+            final DbServer dbServer = config != null ?
+                    DbServers.newServer(config) :
+                    embedded ? null : DbServers.newServer();
+            if (dbServer != null) {
+                dbServer.start();
+                components.add(dbServer::stop);
+                phases.awaitReady(dbServer::isRunning);
+            }
+
+            return dbServer;
+        });
+    }
+
+    /**
+     * Inits the connection pool, an in-process url does not wait for the db server.
+     *
+     * @param config        a configuration of a connection pool or null.
+     * @param slowQueryLog  a slow query log or null.
+     * @param dbServerPhase a phase of the db server.
+     * @return a phase of the connection pool.
+     */
+    CompletableFuture<ConnectionPool> startConnectionPool(final Config config, final SlowQueryLog slowQueryLog,
+                                                          final CompletableFuture<DbServer> dbServerPhase) {
+        return phases.run(CONNECTION_POOL_PHASE, () -> {
+            final ConnectionPool connectionPool = config != null ?
+                    ConnectionPools.newPool(config) :
+                    ConnectionPools.newPool();
+            components.add(connectionPool);
+            return wrap(slowQueryLog, connectionPool);
+        }, after(Collections.singletonList(config), dbServerPhase));
+    }
+
+    /**
+     * Inits connection pools of read replicas.
+     *
+     * @param configs       configurations of connection pools.
+     * @param slowQueryLog  a slow query log or null.
+     * @param dbServerPhase a phase of the db server.
+     * @return a phase of connection pools, they are null if replicas are not configured.
+     */
+    CompletableFuture<List<ConnectionPool>> startReplicaPools(final List<Config> configs,
+                                                              final SlowQueryLog slowQueryLog,
+                                                              final CompletableFuture<DbServer> dbServerPhase) {
+        return startPools(REPLICAS_PHASE, configs, slowQueryLog, dbServerPhase);
+    }
+
+    /**
+     * Inits connection pools of shards.
+     *
+     * @param configs       configurations of connection pools.
+     * @param slowQueryLog  a slow query log or null.
+     * @param dbServerPhase a phase of the db server.
+     * @return a phase of connection pools, they are null if shards are not configured.
+     */
+    CompletableFuture<List<ConnectionPool>> startShardPools(final List<Config> configs,
+                                                            final SlowQueryLog slowQueryLog,
+                                                            final CompletableFuture<DbServer> dbServerPhase) {
+        return startPools(SHARDS_PHASE, configs, slowQueryLog, dbServerPhase);
+    }
+
+    /**
+     * Creates the meta configuration on the data source of the connection pool.
+     *
+     * @param webConfig           a configuration of a web server or null.
+     * @param mapping             a table mapping.
+     * @param connectionPoolPhase a phase of the connection pool.
+     * @return a phase of the meta configuration.
+     */
+    CompletableFuture<MetaConfig> startMetaConfig(final Config webConfig, final Map<String, String> mapping,
+                                                  final CompletableFuture<ConnectionPool> connectionPoolPhase) {
+        return phases.run(META_CONFIG_PHASE, () -> {
+            final DataSource dataSource = connectionPoolPhase.join().getDataSource();
+            final MetaConfig metaConfig = webConfig != null ?
+                    new MetaConfig.Builder().webServer(webConfig).
+                            dataMapping(mapping).dataSource(dataSource).build() :
+                    new MetaConfig.Builder().defaultConfig().
+                            dataMapping(mapping).dataSource(dataSource).build();
+            components.add(metaConfig);
+            return metaConfig;
+        }, connectionPoolPhase);
+    }
+
+    /**
+     * Opens connections of the warm-up while the meta configuration is created.
+     *
+     * @param config              a configuration of a warm-up or null.
+     * @param connectionPoolPhase a phase of the connection pool.
+     * @return a phase of the warm-up, it is null if the warm-up is not configured.
+     */
+    CompletableFuture<WarmUp> openConnections(final Config config,
+                                              final CompletableFuture<ConnectionPool> connectionPoolPhase) {
+        if (config == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return phases.run(CONNECTIONS_PHASE, () -> {
+            final ConnectionPool connectionPool = connectionPoolPhase.join();
+            final WarmUp warmUp = WarmUps.newWarmUp(config, connectionPool.getMaxConnections());
+            warmUp.openConnections(connectionPool.getDataSource());
+            return warmUp;
+        }, connectionPoolPhase);
+    }
+
+    /**
+     * Tunes the schema, so lookups of configs are backed by indexes.
+     *
+     * @param dataSource a data source of the primary database.
+     * @param tables     tables of configurations.
+     * @return statements which are applied.
+     * @throws Exception when the phase is failed or the timeout is expired.
+     */
+    List<String> tuneSchema(final DataSource dataSource, final Tables tables) throws Exception {
+        return phases.await(phases.run(SCHEMA_PHASE, () -> new SchemaManager(dataSource, tables).tune()));
+    }
+
+    /**
+     * Starts the sharded store, shards are read and written with JDBC.
+     *
+     * @param config         a configuration of the sharding or null.
+     * @param connectionPool a connection pool of the primary database.
+     * @param shardPools     connection pools of shards.
+     * @param tables         tables of configurations.
+     * @return a sharded store.
+     * @throws Exception when the phase is failed or the timeout is expired.
+     */
+    ShardedStore startShardedStore(final Config config, final ConnectionPool connectionPool,
+                                   final List<ConnectionPool> shardPools, final Tables tables) throws Exception {
+        final List<ConnectionPool> pools = new ArrayList<>(shardPools.size() + 1);
+        pools.add(connectionPool);
+        pools.addAll(shardPools);
+        final ShardedStore shardedStore = config != null ?
+                ShardedStores.newStore(config, pools, tables) :
+                ShardedStores.newStore(pools, tables);
+        components.add(shardedStore);
+        return phases.await(phases.run(SHARDING_PHASE, shardedStore::start));
+    }
+
+    /**
+     * Inits the replica set, it is started after the preload.
+     *
+     * @param config       a configuration of the replication or null.
+     * @param dataSource   a data source of the primary database.
+     * @param tables       tables of configurations.
+     * @param replicaPools connection pools of replicas.
+     * @param listener     a consumer of names of configurations which are changed on replicas.
+     * @return a replica set.
+     */
+    ReplicaSet newReplicaSet(final Config config, final DataSource dataSource, final Tables tables,
+                             final List<ConnectionPool> replicaPools, final Consumer<Collection<String>> listener) {
+        final ReplicaSet replicaSet = config != null ?
+                ReplicaSets.newReplicaSet(config, dataSource, tables, replicaPools, listener) :
+                ReplicaSets.newReplicaSet(dataSource, tables, replicaPools, listener);
+        components.add(replicaSet);
+        return replicaSet;
+    }
+
+    /**
+     * Starts the replica set, replicas are synchronized before reads are routed to them.
+     *
+     * @param replicaSet a replica set.
+     * @throws Exception when the phase is failed or the timeout is expired.
+     */
+    void startReplicaSet(final ReplicaSet replicaSet) throws Exception {
+        phases.await(phases.run(REPLICATION_PHASE, replicaSet::start));
+    }
+
+    /**
+     * Inits the snapshot publisher, it is started with the core configuration class.
+     *
+     * @param config a configuration of a snapshot or null.
+     * @return a snapshot publisher or null.
+     */
+    SnapshotPublisher newSnapshotPublisher(final Config config) {
+        return register(config != null ? Snapshots.newPublisher(config) : null);
+    }
+
+    /**
+     * Starts the change notifier, the change log requires the known layout of tables.
+     *
+     * @param config     a configuration of a change notifier or null.
+     * @param dataSource a data source of the primary database.
+     * @param tables     tables of configurations.
+     * @param consumer   a consumer of names of changed configurations.
+     * @return a change notifier or null.
+     * @throws Exception when the change notifier is not started.
+     */
+    ChangeNotifier startChangeNotifier(final Config config, final DataSource dataSource, final Tables tables,
+                                       final Consumer<Collection<String>> consumer) throws Exception {
+        return register(config != null ?
+                ChangeNotifiers.newNotifier(config, new ChangeLog(dataSource, tables), consumer).start() :
+                null);
+    }
+
+    /**
+     * Inits the async executor, it is sized to the connection pool.
+     *
+     * @param config         a configuration of an async executor or null.
+     * @param maxConnections a maximum number of connections of the pool.
+     * @return an async executor.
+     */
+    ExecutorService newAsyncExecutor(final Config config, final int maxConnections) {
+        final ExecutorService asyncExecutor = config != null ?
+                AsyncExecutors.newExecutor(config, maxConnections) :
+                AsyncExecutors.newExecutor(maxConnections);
+        components.add(asyncExecutor::shutdownNow);
+        return asyncExecutor;
+    }
+
+    /**
+     * Starts the maintenance scheduler.
+     *
+     * @param config         a configuration of a maintenance scheduler or null.
+     * @param connectionPool a connection pool of the primary database.
+     * @return a maintenance scheduler or null.
+     */
+    MaintenanceScheduler startMaintenance(final Config config, final ConnectionPool connectionPool) {
+        return register(config != null ? MaintenanceSchedulers.newScheduler(config, connectionPool).start() : null);
+    }
+
+    /**
+     * Warms up the config cache.
+     *
+     * @param connectionsPhase a phase of the warm-up.
+     * @param store            a config store.
+     * @return a warm-up or null if it is not configured.
+     * @throws Exception when the phase is failed or the timeout is expired.
+     */
+    WarmUp preload(final CompletableFuture<WarmUp> connectionsPhase, final ConfigStore store) throws Exception {
+        final WarmUp warmUp = phases.await(connectionsPhase);
+        if (warmUp != null) {
+            phases.await(phases.run(PRELOAD_PHASE, () -> store.preload(warmUp)));
+        }
+
+        return warmUp;
+    }
+
+    /**
+     * Inits the write-behind queue, it is started with the core configuration class.
+     *
+     * @param config a configuration of a write-behind queue or null.
+     * @return a write-behind queue or null.
+     */
+    WriteBehindQueue newWriteBehind(final Config config) {
+        return register(config != null ? WriteBehinds.newQueue(config) : null);
+    }
+
+    /**
+     * Inits the instrumentation, the default one is used for listeners without the configuration.
+     *
+     * @param config    a configuration of an instrumentation or null.
+     * @param listeners metrics listeners.
+     * @return an instrumentation or null.
+     */
+    Instrumentation newInstrumentation(final Config config, final List<MetricsListener> listeners) {
+        final Instrumentation instrumentation = register(config != null ?
+                Instrumentations.newInstrumentation(config) :
+                listeners.size() > 0 ? Instrumentations.newInstrumentation() : null);
+        if (instrumentation != null) {
+            listeners.forEach(instrumentation::addListener);
+        }
+
+        return instrumentation;
+    }
+
+    /**
+     * Waits for a phase.
+     *
+     * @param phase a phase.
+     * @param <T>   a type of a result.
+     * @return a result of the phase.
+     * @throws Exception when the phase is failed or the timeout is expired.
+     */
+    <T> T await(final CompletableFuture<T> phase) throws Exception {
+        return phases.await(phase);
+    }
+
+    /**
+     * Completes the startup and logs durations of phases.
+     *
+     * @return durations of phases in milliseconds.
+     */
+    Map<String, Long> complete() {
+        phases.close();
+        final Map<String, Long> timings = phases.getTimings();
+        LOGGER.log(Level.INFO, String.format(STARTUP_COMPLETED,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), timings));
+        return timings;
+    }
+
+    /**
+     * Releases started components in the reverse order.
+     *
+     * @param e an exception of the startup.
+     * @return an exception to throw.
+     */
+    RuntimeException rollback(final Exception e) {
+        // Running phases are completed, so their components are released too
+        phases.close();
+        final List<AutoCloseable> release;
+        synchronized (components) {
+            release = new ArrayList<>(components);
+        }
+
+        Collections.reverse(release);
+        for (final AutoCloseable component : release) {
+            try {
+                component.close();
+            } catch (final Exception ex) {
+                e.addSuppressed(ex);
+            }
+        }
+
+        return new RuntimeException(META_CONFIG_ERROR, e);
+    }
+
+    /**
+     * Checks if the connection pool connects to the db server.
+     *
+     * @param config a configuration of a connection pool or null.
+     * @return true if the url of the pool is remote.
+     */
+    static boolean isRemote(final Config config) {
+        // Pools connect to the db server only over tcp or ssl, the default url is in-process
+        return config != null && config.getProperty(ConnectionPools.Settings.URL).
+                map(p -> p.getValue().startsWith("jdbc:h2:tcp:") || p.getValue().startsWith("jdbc:h2:ssl:")).
+                orElse(false);
+    }
+
+    private CompletableFuture<List<ConnectionPool>> startPools(final String phase, final List<Config> configs,
+                                                               final SlowQueryLog slowQueryLog,
+                                                               final CompletableFuture<DbServer> dbServerPhase) {
+        if (configs.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return phases.run(phase, () -> {
+            final List<ConnectionPool> pools = new ArrayList<>(configs.size());
+            for (final Config config : configs) {
+                final ConnectionPool pool = ConnectionPools.newPool(config);
+                components.add(pool);
+                pools.add(wrap(slowQueryLog, pool));
+            }
+
+            return pools;
+        }, after(configs, dbServerPhase));
+    }
+
+    private static ConnectionPool wrap(final SlowQueryLog slowQueryLog, final ConnectionPool connectionPool) {
+        // The slow query log wraps data sources of connection pools
+        return slowQueryLog != null ? slowQueryLog.wrap(connectionPool) : connectionPool;
+    }
+
+    private <T extends AutoCloseable> T register(final T component) {
+        if (component != null) {
+            components.add(component);
+        }
+
+        return component;
+    }
+
+    private static CompletableFuture<?> after(final Collection<Config> poolConfigs,
+                                              final CompletableFuture<DbServer> dbServerPhase) {
+        return poolConfigs.stream().anyMatch(H2dbStartup::isRemote) ?
+                dbServerPhase :
+                CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,220 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCache;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.BulkImporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ConfigExporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.DeltaResult;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUp;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.BULK_IMPORT_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.DELTA_UPDATE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.EXPORT_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.PROPERTY_READ_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.UPDATE_ERROR;
+
+/**
+ * Reads and writes configurations on the primary database. The bulk importer and the exporter are used
+ * for the known layout of tables, otherwise configurations are read and written with the meta configuration.
+ */
+class PrimaryConfigStore extends ConfigStore {
+    private final BulkImporter bulkImporter;
+    private final ConfigExporter configExporter;
+
+    PrimaryConfigStore(final MetaConfig metaConfig, final ConfigCache configCache,
+                       final SnapshotPublisher snapshotPublisher, final BulkImporter bulkImporter,
+                       final ConfigExporter configExporter) {
+        super(metaConfig, configCache, snapshotPublisher);
+        this.bulkImporter = bulkImporter;
+        this.configExporter = configExporter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> update(final Stream<Config> stream) {
+        if (configCache == null) {
+            try {
+                return metaConfig.update(stream);
+            } finally {
+                requestSync();
+            }
+        }
+
+        final List<Config> configs = stream.collect(Collectors.toList());
+        try {
+            return metaConfig.update(configs.stream());
+        } finally {
+            configCache.invalidateConfigs(configs.stream());
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    DeltaResult updateDelta(final Collection<Config> configs) {
+        if (bulkImporter == null) {
+            throw new IllegalStateException(DELTA_UPDATE_ERROR);
+        }
+
+        try {
+            return bulkImporter.updateDelta(configs);
+        } catch (final SQLException e) {
+            throw new RuntimeException(UPDATE_ERROR, e);
+        } finally {
+            invalidate(configs.stream().map(Config::getName).collect(Collectors.toList()));
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int write(final List<Config> configs) {
+        try {
+            if (bulkImporter != null) {
+                return bulkImporter.write(configs);
+            }
+
+            metaConfig.remove(configs.stream().map(Config::getName));
+            return (int) metaConfig.update(configs.stream()).count();
+        } catch (final Exception e) {
+            throw new RuntimeException(BULK_IMPORT_ERROR, e);
+        } finally {
+            invalidate(configs.stream().map(Config::getName).collect(Collectors.toList()));
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int remove(final Stream<String> stream) {
+        if (configCache == null) {
+            try {
+                return metaConfig.remove(stream);
+            } finally {
+                requestSync();
+            }
+        }
+
+        final List<String> names = stream.collect(Collectors.toList());
+        try {
+            return metaConfig.remove(names.stream());
+        } finally {
+            invalidate(names);
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<String> getNames() {
+        return metaConfig.getNames();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> get() {
+        return metaConfig.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> load(final Collection<String> names) {
+        return metaConfig.get(names.stream());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Optional<Property> getProperty(final String name, final String... paths) {
+        if (configExporter == null) {
+            return get(Stream.of(name)).findFirst().flatMap(config -> config.getProperty(paths));
+        }
+
+        try {
+            return configExporter.getProperty(name, paths);
+        } catch (final SQLException e) {
+            throw new RuntimeException(PROPERTY_READ_ERROR, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void accept(final Stream<String> stream) {
+        if (configCache == null) {
+            metaConfig.accept(stream);
+        } else {
+            final List<String> names = stream.collect(Collectors.toList());
+            invalidate(names);
+            metaConfig.accept(names.stream());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void addConsumer(final Consumer<Config> consumer) {
+        metaConfig.addConsumer(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> export(final int fetchSize) {
+        if (configExporter == null) {
+            return metaConfig.get();
+        }
+
+        try {
+            return configExporter.export(fetchSize);
+        } catch (final Exception e) {
+            throw new RuntimeException(EXPORT_ERROR, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long preload(final WarmUp warmUp) throws SQLException {
+        // Versions validate the snapshot of the warm-up
+        return warmUp.preload(configCache, metaConfig::getNames, names -> metaConfig.get(names.stream()),
+                configExporter != null ? configExporter.getVersions() : null);
+    }
+}
@@ -0,0 +1,96 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCache;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.BulkImporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ConfigExporter;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+import com.github.akarazhev.metaconfig.engine.replication.ReplicaSet;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes configurations on the primary database and reads them from the least loaded replica.
+ */
+final class ReplicatedConfigStore extends PrimaryConfigStore {
+    private final ReplicaSet replicaSet;
+
+    ReplicatedConfigStore(final MetaConfig metaConfig, final ConfigCache configCache,
+                          final SnapshotPublisher snapshotPublisher, final BulkImporter bulkImporter,
+                          final ConfigExporter configExporter, final ReplicaSet replicaSet) {
+        super(metaConfig, configCache, snapshotPublisher, bulkImporter, configExporter);
+        this.replicaSet = replicaSet;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<String> getNames() {
+        return replicaSet.getNames();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> get() {
+        return replicaSet.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> load(final Collection<String> names) {
+        return replicaSet.get(names);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Optional<Property> getProperty(final String name, final String... paths) {
+        return replicaSet.getProperty(name, paths);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void requestSync() {
+        // Replicas receive writes without waiting for the sync interval
+        replicaSet.requestSync();
+        super.requestSync();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    List<PoolMetrics> getReplicaMetrics() {
+        return replicaSet.getMetrics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Closeable getDatabases() {
+        return replicaSet;
+    }
+}
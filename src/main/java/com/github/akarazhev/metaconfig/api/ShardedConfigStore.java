@@ -0,0 +1,187 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCache;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.DeltaResult;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+import com.github.akarazhev.metaconfig.engine.sharding.ShardedStore;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUp;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.BULK_IMPORT_ERROR;
+
+/**
+ * Reads and writes configurations on shards, the primary database is the first shard.
+ */
+final class ShardedConfigStore extends ConfigStore {
+    private final ShardedStore shardedStore;
+    private final List<Consumer<Config>> consumers = new CopyOnWriteArrayList<>();
+
+    ShardedConfigStore(final MetaConfig metaConfig, final ConfigCache configCache,
+                       final SnapshotPublisher snapshotPublisher, final ShardedStore shardedStore) {
+        super(metaConfig, configCache, snapshotPublisher);
+        this.shardedStore = shardedStore;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> update(final Stream<Config> stream) {
+        final Map<String, Config> configs = new LinkedHashMap<>();
+        stream.forEach(config -> configs.put(config.getName(), config));
+        try {
+            return shardedStore.update(configs.values()).stream();
+        } finally {
+            invalidate(configs.keySet());
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    DeltaResult updateDelta(final Collection<Config> configs) {
+        try {
+            return shardedStore.updateDelta(configs);
+        } finally {
+            invalidate(configs.stream().map(Config::getName).collect(Collectors.toList()));
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int write(final List<Config> configs) {
+        try {
+            return shardedStore.write(configs);
+        } catch (final Exception e) {
+            throw new RuntimeException(BULK_IMPORT_ERROR, e);
+        } finally {
+            invalidate(configs.stream().map(Config::getName).collect(Collectors.toList()));
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int remove(final Stream<String> stream) {
+        final List<String> names = stream.collect(Collectors.toList());
+        try {
+            return shardedStore.remove(names);
+        } finally {
+            invalidate(names);
+            requestSync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<String> getNames() {
+        return shardedStore.getNames();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> get() {
+        return shardedStore.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> load(final Collection<String> names) {
+        return shardedStore.get(names);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Optional<Property> getProperty(final String name, final String... paths) {
+        return shardedStore.getProperty(name, paths);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void accept(final Stream<String> stream) {
+        // The meta configuration reads only the primary database, so consumers are notified with configs of shards
+        final List<String> names = stream.collect(Collectors.toList());
+        invalidate(names);
+        shardedStore.get(names).forEach(config -> consumers.forEach(consumer -> consumer.accept(config)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void addConsumer(final Consumer<Config> consumer) {
+        consumers.add(Validator.of(consumer).get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Stream<Config> export(final int fetchSize) {
+        return shardedStore.export(fetchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long preload(final WarmUp warmUp) {
+        // Ids of configs are not unique across shards, so the snapshot is not used with shards
+        return warmUp.preload(configCache, shardedStore::getNames, shardedStore::get, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    List<PoolMetrics> getShardMetrics() {
+        return shardedStore.getMetrics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Closeable getDatabases() {
+        return shardedStore;
+    }
+}
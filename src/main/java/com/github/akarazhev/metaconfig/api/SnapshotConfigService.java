@@ -0,0 +1,168 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotReader;
+import com.github.akarazhev.metaconfig.engine.snapshot.Snapshots;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.Constants.Messages.META_CONFIG_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_READ_ONLY;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_REFRESH_ERROR;
+
+/**
+ * The read-only configuration service that reads configurations from the snapshot file which is published
+ * by the core configuration class, so processes which only read configurations do not connect to the database.
+ * Consumers are notified about configurations which are changed by a new snapshot.
+ */
+public final class SnapshotConfigService implements ConfigService, Closeable {
+    private final SnapshotReader snapshotReader;
+    private final List<Consumer<Config>> consumers = new CopyOnWriteArrayList<>();
+
+    private SnapshotConfigService(final SnapshotReader snapshotReader) {
+        this.snapshotReader = snapshotReader;
+    }
+
+    /**
+     * The snapshot is read-only, so configurations can not be updated.
+     *
+     * @param stream a stream of configurations.
+     * @return nothing, the method always throws the exception.
+     * @throws IllegalStateException always.
+     */
+    @Override
+    public Stream<Config> update(final Stream<Config> stream) {
+        throw new IllegalStateException(SNAPSHOT_READ_ONLY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<String> getNames() {
+        return snapshotReader.getNames();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Config> get() {
+        return snapshotReader.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Config> get(final Stream<String> stream) {
+        return snapshotReader.get(stream.distinct().collect(Collectors.toList()));
+    }
+
+    /**
+     * The snapshot is read-only, so configurations can not be removed.
+     *
+     * @param stream a stream of names.
+     * @return nothing, the method always throws the exception.
+     * @throws IllegalStateException always.
+     */
+    @Override
+    public int remove(final Stream<String> stream) {
+        throw new IllegalStateException(SNAPSHOT_READ_ONLY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(final Stream<String> stream) {
+        notify(stream.collect(Collectors.toList()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addConsumer(final Consumer<Config> consumer) {
+        consumers.add(Validator.of(consumer).get());
+    }
+
+    /**
+     * Maps the snapshot file if it is replaced, without waiting for the check interval.
+     *
+     * @return names of configurations which are added or changed by a new snapshot.
+     */
+    public List<String> refresh() {
+        try {
+            return snapshotReader.refresh();
+        } catch (final IOException e) {
+            throw new RuntimeException(SNAPSHOT_REFRESH_ERROR, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        snapshotReader.close();
+    }
+
+    private void notify(final Collection<String> names) {
+        if (consumers.size() > 0) {
+            snapshotReader.get(names).forEach(config -> consumers.forEach(consumer -> consumer.accept(config)));
+        }
+    }
+
+    /**
+     * Wraps and builds the instance of the read-only configuration service.
+     */
+    public final static class Builder {
+        private Config snapshotConfig;
+
+        /**
+         * Constructs the read-only configuration service with the configuration of a snapshot.
+         *
+         * @param config a configuration of a snapshot.
+         * @return a builder of the read-only configuration service.
+         */
+        public Builder snapshot(final Config config) {
+            this.snapshotConfig = Validator.of(config).get();
+            return this;
+        }
+
+        /**
+         * Builds the read-only configuration service with parameters.
+         *
+         * @return a read-only configuration service.
+         */
+        public SnapshotConfigService build() {
+            final SnapshotReader snapshotReader = Snapshots.newReader(Validator.of(snapshotConfig).get());
+            final SnapshotConfigService configService = new SnapshotConfigService(snapshotReader);
+            try {
+                snapshotReader.start(configService::notify);
+            } catch (final Exception e) {
+                throw new RuntimeException(META_CONFIG_ERROR, e);
+            }
+
+            return configService;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.async;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.VIRTUAL_THREADS_NOT_SUPPORTED;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.QUEUE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.QUEUE_SIZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.THREADS;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.VIRTUAL_THREADS;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.VIRTUAL_THREADS_VALUE;
+
+/**
+ * Provides factory methods to create a bounded executor of asynchronous operations.
+ */
+public final class AsyncExecutors {
+    private final static Logger LOGGER = Logger.getLogger(AsyncExecutors.class.getSimpleName());
+    // The prefix of thread names
+    private static final String THREAD_NAME = "config-async-";
+    // The keep alive time of idle threads (seconds)
+    private static final long KEEP_ALIVE = 60;
+
+    private AsyncExecutors() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the async executor.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "async-executor";
+        // The threads key, by default it is the maximum number of connections of the pool
+        public static final String THREADS = "threads";
+        // The queue size key
+        public static final String QUEUE_SIZE = "queue-size";
+        // The queue size value
+        static final long QUEUE_SIZE_VALUE = 1024;
+        // The virtual threads key
+        public static final String VIRTUAL_THREADS = "virtual-threads";
+        // The virtual threads value
+        static final boolean VIRTUAL_THREADS_VALUE = false;
+    }
+
+    /**
+     * Returns a default executor.
+     *
+     * @param threads a number of threads.
+     * @return an executor.
+     */
+    public static ExecutorService newExecutor(final int threads) {
+        return newExecutor(new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(), threads);
+    }
+
+    /**
+     * Returns an executor based on the configuration. Tasks above the queue size are rejected,
+     * so callers are not blocked when the database is saturated.
+     *
+     * @param config  a configuration of an async executor.
+     * @param threads a default number of threads.
+     * @return an executor.
+     */
+    public static ExecutorService newExecutor(final Config config, final int threads) {
+        // Validate the config
+        final Config executorConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(THREADS).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, THREADS)).
+                validate(c -> c.getProperty(QUEUE_SIZE).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, QUEUE_SIZE)).
+                get();
+        // Get the threads
+        final long maxThreads = executorConfig.getProperty(THREADS).
+                map(Property::asLong).
+                orElse((long) threads);
+        // Get the queue size
+        final long queueSize = executorConfig.getProperty(QUEUE_SIZE).
+                map(Property::asLong).
+                orElse(QUEUE_SIZE_VALUE);
+        // Get the virtual threads
+        final boolean virtualThreads = executorConfig.getProperty(VIRTUAL_THREADS).
+                map(Property::asBool).
+                orElse(VIRTUAL_THREADS_VALUE);
+        // Create the executor
+        final int size = (int) Math.min(maxThreads, Integer.MAX_VALUE);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, KEEP_ALIVE, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>((int) Math.min(queueSize, Integer.MAX_VALUE)),
+                virtualThreads ? newVirtualThreadFactory() : newThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_NAME + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory newVirtualThreadFactory() {
+        try {
+            // Virtual threads are available since Java 21, the library is compiled for older versions
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object named = builderClass.getMethod("name", String.class, long.class).
+                    invoke(builder, THREAD_NAME, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(named);
+        } catch (final ReflectiveOperationException e) {
+            LOGGER.log(Level.INFO, VIRTUAL_THREADS_NOT_SUPPORTED);
+            return newThreadFactory();
+        }
+    }
+}
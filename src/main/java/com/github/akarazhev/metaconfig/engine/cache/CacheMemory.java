@@ -0,0 +1,198 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+
+import java.util.Map;
+
+/**
+ * The immutable snapshot of memory that is used by a config cache.
+ */
+public final class CacheMemory {
+    // Approximate sizes of objects in bytes on a 64-bit JVM with compressed references
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING = 24;
+    private static final int CONFIG = 48;
+    private static final int PROPERTY = 40;
+    private static final int HASH_MAP = 48;
+    private static final int HASH_MAP_ENTRY = 32;
+    private static final int ARRAY_LIST = 24;
+    private final int entries;
+    private final long heapBytes;
+    private final long offHeapBytes;
+    private final long capacity;
+    private final int strings;
+    private final long stringBytes;
+
+    CacheMemory(final int entries, final long heapBytes, final long offHeapBytes, final long capacity,
+                final int strings, final long stringBytes) {
+        this.entries = entries;
+        this.heapBytes = heapBytes;
+        this.offHeapBytes = offHeapBytes;
+        this.capacity = capacity;
+        this.strings = strings;
+        this.stringBytes = stringBytes;
+    }
+
+    /**
+     * Returns the number of cached configurations.
+     *
+     * @return a number of configurations.
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the estimated size of cached configurations when they are kept as objects on the heap.
+     *
+     * @return a number of bytes.
+     */
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * Returns the size of encoded configurations in direct buffers.
+     *
+     * @return a number of bytes or 0 if configurations are kept on the heap.
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * Returns the capacity of direct buffers.
+     *
+     * @return a number of bytes or 0 if configurations are kept on the heap.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of interned strings.
+     *
+     * @return a number of strings.
+     */
+    public int getStrings() {
+        return strings;
+    }
+
+    /**
+     * Returns the estimated size of interned strings on the heap.
+     *
+     * @return a number of bytes.
+     */
+    public long getStringBytes() {
+        return stringBytes;
+    }
+
+    /**
+     * Returns the ratio of the heap size of cached configurations to the size of their compact representation.
+     *
+     * @return a ratio or 1 if configurations are kept on the heap.
+     */
+    public double getCompression() {
+        final long compact = offHeapBytes + stringBytes;
+        return compact > 0 ? (double) heapBytes / compact : 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CacheMemory{" +
+                "entries=" + entries +
+                ", heapBytes=" + heapBytes +
+                ", offHeapBytes=" + offHeapBytes +
+                ", capacity=" + capacity +
+                ", strings=" + strings +
+                ", stringBytes=" + stringBytes +
+                '}';
+    }
+
+    /**
+     * Returns the estimated size of a configuration on the heap.
+     *
+     * @param config a configuration.
+     * @return a number of bytes.
+     */
+    static long estimate(final Config config) {
+        long size = CONFIG + estimate(config.getName()) + estimate(config.getDescription()) +
+                estimate(config.getAttributes().orElse(null));
+        final Property[] properties = config.getProperties().toArray(Property[]::new);
+        size += estimate(properties);
+        for (final Property property : properties) {
+            size += estimate(property);
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the estimated size of a string on the heap.
+     *
+     * @param value a string.
+     * @return a number of bytes.
+     */
+    static long estimate(final String value) {
+        // Latin-1 strings are compacted to one byte per character
+        return value != null ? STRING + align(ARRAY_HEADER + (long) value.length()) : 0;
+    }
+
+    private static long estimate(final Property property) {
+        long size = PROPERTY + estimate(property.getName()) + estimate(property.getCaption()) +
+                estimate(property.getDescription()) + estimate(property.getValue()) +
+                estimate(property.getAttributes().orElse(null));
+        final Property[] properties = property.getProperties().toArray(Property[]::new);
+        size += estimate(properties);
+        for (final Property child : properties) {
+            size += estimate(child);
+        }
+
+        return size;
+    }
+
+    private static long estimate(final Property[] properties) {
+        return ARRAY_LIST + align(ARRAY_HEADER + (long) REFERENCE * properties.length);
+    }
+
+    private static long estimate(final Map<String, String> attributes) {
+        if (attributes == null) {
+            return 0;
+        }
+
+        long size = HASH_MAP + align(ARRAY_HEADER + (long) REFERENCE * tableSize(attributes.size()));
+        for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+            size += HASH_MAP_ENTRY + estimate(attribute.getKey()) + estimate(attribute.getValue());
+        }
+
+        return size;
+    }
+
+    private static int tableSize(final int size) {
+        int table = 16;
+        while (table * 0.75 < size) {
+            table <<= 1;
+        }
+
+        return table;
+    }
+
+    private static long align(final long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,78 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Provides methods for a read-through cache of configurations.
+ */
+public interface ConfigCache {
+    /**
+     * Returns configurations by names, the missed ones are loaded by the loader and cached.
+     *
+     * @param stream a stream of names.
+     * @param loader a function that loads configurations by missed names.
+     * @return a stream of configurations.
+     */
+    Stream<Config> get(final Stream<String> stream, final Function<Collection<String>, Stream<Config>> loader);
+
+    /**
+     * Invalidates configurations by names.
+     *
+     * @param stream a stream of names.
+     */
+    void invalidate(final Stream<String> stream);
+
+    /**
+     * Invalidates configurations by names and ids of the given configurations.
+     *
+     * @param stream a stream of configurations.
+     */
+    void invalidateConfigs(final Stream<Config> stream);
+
+    /**
+     * Invalidates all configurations.
+     */
+    void invalidateAll();
+
+    /**
+     * Returns the number of cached configurations.
+     *
+     * @return a number of configurations.
+     */
+    int size();
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return a number of hits.
+     */
+    long getHits();
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return a number of misses.
+     */
+    long getMisses();
+
+    /**
+     * Returns the memory that is used by cached configurations.
+     *
+     * @return a memory report.
+     */
+    CacheMemory getMemory();
+}
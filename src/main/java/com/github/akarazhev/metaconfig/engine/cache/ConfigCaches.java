@@ -0,0 +1,131 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.Arrays;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CAPACITY;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CAPACITY_VALUE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.SIZE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.SIZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TTL;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TTL_VALUE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE_HEAP;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE_OFF_HEAP;
+
+/**
+ * Provides factory methods to create a config cache.
+ */
+public final class ConfigCaches {
+
+    private ConfigCaches() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the config cache.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "config-cache";
+        // The size key
+        public static final String SIZE = "size";
+        // The size value
+        static final long SIZE_VALUE = 1000;
+        // The ttl key (milliseconds)
+        public static final String TTL = "ttl";
+        // The ttl value
+        static final long TTL_VALUE = 60000;
+        // The type key
+        public static final String TYPE = "type";
+        // The heap type value
+        public static final String TYPE_HEAP = "heap";
+        // The off-heap type value
+        public static final String TYPE_OFF_HEAP = "off-heap";
+        // The capacity key (bytes), it is used by the off-heap cache
+        public static final String CAPACITY = "capacity";
+        // The capacity value
+        static final long CAPACITY_VALUE = 64 * 1024 * 1024;
+    }
+
+    /**
+     * Returns a default config cache.
+     *
+     * @return a config cache.
+     */
+    public static ConfigCache newCache() {
+        return newCache(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(SIZE, SIZE_VALUE).build(),
+                new Property.Builder(TTL, TTL_VALUE).build())).build());
+    }
+
+    /**
+     * Returns a config cache based on the configuration.
+     *
+     * @param config a configuration of a config cache.
+     * @return a config cache.
+     */
+    public static ConfigCache newCache(final Config config) {
+        // Validate the config
+        final Config cacheConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(SIZE).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, SIZE)).
+                validate(c -> c.getProperty(TTL).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, TTL)).
+                validate(c -> c.getProperty(TYPE).
+                                map(p -> TYPE_HEAP.equals(p.getValue()) || TYPE_OFF_HEAP.equals(p.getValue())).
+                                orElse(true),
+                        String.format(WRONG_PARAM_VALUE, TYPE)).
+                validate(c -> c.getProperty(CAPACITY).
+                                map(p -> p.asLong() > 0 && p.asLong() <= Integer.MAX_VALUE).
+                                orElse(true),
+                        String.format(WRONG_PARAM_VALUE, CAPACITY)).
+                get();
+        // Get the size
+        final long size = cacheConfig.getProperty(SIZE).
+                map(Property::asLong).
+                orElse(SIZE_VALUE);
+        // Get the ttl
+        final long ttl = cacheConfig.getProperty(TTL).
+                map(Property::asLong).
+                orElse(TTL_VALUE);
+        // Get the type
+        final String type = cacheConfig.getProperty(TYPE).
+                map(Property::getValue).
+                orElse(TYPE_HEAP);
+        // Create the config cache
+        if (TYPE_OFF_HEAP.equals(type)) {
+            // Get the capacity
+            final long capacity = cacheConfig.getProperty(CAPACITY).
+                    map(Property::asLong).
+                    orElse(CAPACITY_VALUE);
+            return new OffHeapConfigCache((int) Math.min(size, Integer.MAX_VALUE), ttl, (int) capacity);
+        }
+
+        return new HeapConfigCache((int) Math.min(size, Integer.MAX_VALUE), ttl);
+    }
+}
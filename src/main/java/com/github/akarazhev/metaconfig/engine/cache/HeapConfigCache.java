@@ -0,0 +1,215 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The internal implementation of the LRU cache that keeps configurations on the heap.
+ */
+final class HeapConfigCache implements ConfigCache {
+    private final Map<String, CacheEntry> entries;
+    // Guarded by entries, it maps ids of cached configurations to names
+    private final Map<Long, String> ids = new HashMap<>();
+    private final long ttl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Guarded by entries, it is incremented by every invalidation
+    private long generation;
+
+    /**
+     * Constructs a cache with the maximum size and the time to live.
+     *
+     * @param size a maximum number of cached configurations.
+     * @param ttl  a time to live of a cached configuration in milliseconds, 0 means no expiration.
+     */
+    HeapConfigCache(final int size, final long ttl) {
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+                if (size() > size) {
+                    ids.remove(eldest.getValue().config.getId(), eldest.getKey());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Config> get(final Stream<String> stream, final Function<Collection<String>, Stream<Config>> loader) {
+        final List<String> names = stream.distinct().collect(Collectors.toList());
+        if (names.isEmpty()) {
+            return Stream.empty();
+        }
+
+        final Map<String, Config> configs = new HashMap<>(names.size());
+        final List<String> missed = new ArrayList<>();
+        final long now = System.nanoTime();
+        final long loadGeneration;
+        synchronized (entries) {
+            loadGeneration = generation;
+            for (final String name : names) {
+                final CacheEntry entry = entries.get(name);
+                if (entry != null && !entry.isExpired(now)) {
+                    configs.put(name, entry.config);
+                } else {
+                    if (entry != null) {
+                        remove(name);
+                    }
+
+                    missed.add(name);
+                }
+            }
+        }
+
+        hits.add(configs.size());
+        misses.add(missed.size());
+        if (missed.size() > 0) {
+            final List<Config> loaded = loader.apply(missed).collect(Collectors.toList());
+            synchronized (entries) {
+                // Configurations loaded before an invalidation may be stale, so they are not cached
+                final boolean cacheable = loadGeneration == generation;
+                for (final Config config : loaded) {
+                    configs.put(config.getName(), config);
+                    if (cacheable) {
+                        remove(config.getName());
+                        entries.put(config.getName(), new CacheEntry(config, now));
+                        ids.put(config.getId(), config.getName());
+                    }
+                }
+            }
+        }
+
+        return names.stream().map(configs::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate(final Stream<String> stream) {
+        final List<String> names = stream.collect(Collectors.toList());
+        synchronized (entries) {
+            generation++;
+            names.forEach(this::remove);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateConfigs(final Stream<Config> stream) {
+        final List<Config> configs = stream.collect(Collectors.toList());
+        synchronized (entries) {
+            generation++;
+            for (final Config config : configs) {
+                remove(config.getName());
+                // A config that is updated by the id may be renamed
+                final String name = config.getId() > 0 ? ids.get(config.getId()) : null;
+                if (name != null) {
+                    remove(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+            ids.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheMemory getMemory() {
+        synchronized (entries) {
+            final long heapBytes = entries.values().stream().
+                    mapToLong(entry -> CacheMemory.estimate(entry.config)).
+                    sum();
+            return new CacheMemory(entries.size(), heapBytes, 0, 0, 0, 0);
+        }
+    }
+
+    private void remove(final String name) {
+        final CacheEntry entry = entries.remove(name);
+        if (entry != null) {
+            ids.remove(entry.config.getId(), name);
+        }
+    }
+
+    private final class CacheEntry {
+        private final Config config;
+        private final long loaded;
+
+        private CacheEntry(final Config config, final long loaded) {
+            this.config = config;
+            this.loaded = loaded;
+        }
+
+        private boolean isExpired(final long now) {
+            return ttl > 0 && now - loaded > ttl;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.engine.dump.ConfigCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The internal implementation of the LRU cache that keeps configurations encoded in a direct buffer.
+ * Names, types and keys of properties and attributes are interned in the string table on the heap, other strings
+ * are stored inline. When the table is full, configurations are stored with inline strings, so cached ones are kept.
+ * Configurations are decoded on access.
+ */
+final class OffHeapConfigCache implements ConfigCache {
+    // The maximum number of interned strings, new configurations are stored with inline strings above it
+    private static final int MAX_STRINGS = 1 << 18;
+    private final Map<String, CacheEntry> entries;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final long ttl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Guarded by entries, the table and the following fields
+    private final Strings strings = new Strings();
+    // It maps ids of cached configurations to names
+    private final Map<Long, String> ids = new HashMap<>();
+    private long generation;
+    private int position;
+    private int used;
+
+    /**
+     * Constructs a cache with the maximum size, the time to live and the capacity of the direct buffer.
+     *
+     * @param size     a maximum number of cached configurations.
+     * @param ttl      a time to live of a cached configuration in milliseconds, 0 means no expiration.
+     * @param capacity a capacity of the direct buffer in bytes.
+     */
+    OffHeapConfigCache(final int size, final long ttl, final int capacity) {
+        this.size = size;
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Config> get(final Stream<String> stream, final Function<Collection<String>, Stream<Config>> loader) {
+        final List<String> names = stream.distinct().collect(Collectors.toList());
+        if (names.isEmpty()) {
+            return Stream.empty();
+        }
+
+        final Map<String, byte[]> encoded = new HashMap<>(names.size());
+        final List<String> missed = new ArrayList<>();
+        final long now = System.nanoTime();
+        final long loadGeneration;
+        final ConfigCodec.StringTable table;
+        synchronized (entries) {
+            loadGeneration = generation;
+            for (final String name : names) {
+                final CacheEntry entry = entries.get(name);
+                if (entry != null && !entry.isExpired(now)) {
+                    encoded.put(name, read(entry));
+                } else {
+                    if (entry != null) {
+                        remove(name);
+                    }
+
+                    missed.add(name);
+                }
+            }
+
+            table = strings.snapshot();
+        }
+
+        hits.add(encoded.size());
+        misses.add(missed.size());
+        // Configurations are decoded outside of the lock
+        final Map<String, Config> configs = new HashMap<>(names.size());
+        for (final Map.Entry<String, byte[]> entry : encoded.entrySet()) {
+            configs.put(entry.getKey(), decode(entry.getValue(), table));
+        }
+
+        if (missed.size() > 0) {
+            final List<Config> loaded = loader.apply(missed).collect(Collectors.toList());
+            synchronized (entries) {
+                // Configurations loaded before an invalidation may be stale, so they are not cached
+                final boolean cacheable = loadGeneration == generation;
+                for (final Config config : loaded) {
+                    configs.put(config.getName(), config);
+                    if (cacheable) {
+                        put(config, now);
+                    }
+                }
+            }
+        }
+
+        return names.stream().map(configs::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate(final Stream<String> stream) {
+        final List<String> names = stream.collect(Collectors.toList());
+        synchronized (entries) {
+            generation++;
+            names.forEach(this::remove);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateConfigs(final Stream<Config> stream) {
+        final List<Config> configs = stream.collect(Collectors.toList());
+        synchronized (entries) {
+            generation++;
+            for (final Config config : configs) {
+                remove(config.getName());
+                // A config that is updated by the id may be renamed
+                final String name = config.getId() > 0 ? ids.get(config.getId()) : null;
+                if (name != null) {
+                    remove(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheMemory getMemory() {
+        synchronized (entries) {
+            final long heapBytes = entries.values().stream().mapToLong(entry -> entry.heapBytes).sum();
+            return new CacheMemory(entries.size(), heapBytes, used, buffer.capacity(), strings.count,
+                    strings.bytes);
+        }
+    }
+
+    private void put(final Config config, final long now) {
+        remove(config.getName());
+        final byte[] bytes = encode(config, strings.count < MAX_STRINGS ? strings : null);
+        if (bytes.length > buffer.capacity()) {
+            return;
+        }
+        // Evict the eldest entries to free the space and the slot
+        final Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() >= size || used + bytes.length > buffer.capacity())) {
+            final Map.Entry<String, CacheEntry> eldest = iterator.next();
+            used -= eldest.getValue().length;
+            ids.remove(eldest.getValue().id, eldest.getKey());
+            iterator.remove();
+        }
+
+        if (position + bytes.length > buffer.capacity()) {
+            compact();
+        }
+
+        buffer.position(position);
+        buffer.put(bytes);
+        entries.put(config.getName(), new CacheEntry(config.getId(), position, bytes.length,
+                CacheMemory.estimate(config), now));
+        ids.put(config.getId(), config.getName());
+        position += bytes.length;
+        used += bytes.length;
+    }
+
+    private void remove(final String name) {
+        final CacheEntry entry = entries.remove(name);
+        if (entry != null) {
+            used -= entry.length;
+            ids.remove(entry.id, name);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        ids.clear();
+        strings.clear();
+        position = 0;
+        used = 0;
+    }
+
+    private void compact() {
+        // Live entries are moved to the start of the buffer in the order of offsets
+        final CacheEntry[] live = entries.values().toArray(new CacheEntry[0]);
+        Arrays.sort(live, Comparator.comparingInt(entry -> entry.offset));
+        position = 0;
+        for (final CacheEntry entry : live) {
+            if (entry.offset != position) {
+                final byte[] bytes = read(entry);
+                buffer.position(position);
+                buffer.put(bytes);
+                entry.offset = position;
+            }
+
+            position += entry.length;
+        }
+    }
+
+    private byte[] read(final CacheEntry entry) {
+        final byte[] bytes = new byte[entry.length];
+        buffer.position(entry.offset);
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] encode(final Config config, final ConfigCodec.StringTable table) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            // The flag marks configurations which are written with the string table
+            output.writeBoolean(table != null);
+            ConfigCodec.write(output, config, table);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static Config decode(final byte[] bytes, final ConfigCodec.StringTable table) {
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return ConfigCodec.read(input, input.readBoolean() ? table : null);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class CacheEntry {
+        private final long id;
+        private final int length;
+        private final long heapBytes;
+        private final long loaded;
+        private int offset;
+
+        private CacheEntry(final long id, final int offset, final int length, final long heapBytes,
+                           final long loaded) {
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+            this.heapBytes = heapBytes;
+            this.loaded = loaded;
+        }
+
+        private boolean isExpired(final long now) {
+            return ttl > 0 && now - loaded > ttl;
+        }
+    }
+
+    private static final class Strings implements ConfigCodec.StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private String[] values = new String[256];
+        private int count;
+        private long bytes;
+
+        @Override
+        public int intern(final String value) {
+            final Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+
+            values[count] = value;
+            indexes.put(value, count);
+            bytes += CacheMemory.estimate(value);
+            return count++;
+        }
+
+        @Override
+        public String get(final int index) {
+            return index < count ? values[index] : null;
+        }
+
+        private ConfigCodec.StringTable snapshot() {
+            // Strings are only appended, so the array with the count is a consistent view
+            final String[] snapshot = values;
+            final int size = count;
+            return new ConfigCodec.StringTable() {
+                @Override
+                public int intern(final String value) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public String get(final int index) {
+                    return index < size ? snapshot[index] : null;
+                }
+            };
+        }
+
+        private void clear() {
+            indexes.clear();
+            values = new String[256];
+            count = 0;
+            bytes = 0;
+        }
+    }
+}
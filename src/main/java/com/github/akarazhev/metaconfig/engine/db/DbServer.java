@@ -24,6 +24,15 @@ public interface DbServer {
      */
     DbServer start() throws SQLException;
 
+    /**
+     * Checks that a db server accepts connections. Servers which can not check it are treated as running.
+     *
+     * @return true if a db server is running.
+     */
+    default boolean isRunning() {
+        return true;
+    }
+
     /**
      * Stops a db server
      */
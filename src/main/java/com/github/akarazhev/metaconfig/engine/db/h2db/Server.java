@@ -121,6 +121,14 @@ public final class Server implements DbServer {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return dbServer.isRunning(false);
+    }
+
     /**
      * {@inheritDoc}
      */
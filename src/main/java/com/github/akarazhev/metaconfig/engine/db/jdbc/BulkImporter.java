@@ -0,0 +1,717 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.GENERATED_KEYS_ERROR;
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.placeholders;
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.quote;
+
+/**
+ * Writes chunks of configurations with JDBC batches, every chunk is written in a single transaction.
+ * Configurations replace the stored ones with the same names.
+ */
+public final class BulkImporter {
+    private final DataSource dataSource;
+    private final Tables tables;
+
+    /**
+     * Constructs a bulk importer.
+     *
+     * @param dataSource a datasource.
+     * @param tables     tables of configurations.
+     */
+    public BulkImporter(final DataSource dataSource, final Tables tables) {
+        this.dataSource = dataSource;
+        this.tables = tables;
+    }
+
+    /**
+     * Checks that the tables can be written with JDBC batches.
+     *
+     * @return true if the tables have the expected layout.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public boolean isSupported() throws SQLException {
+        try (final Connection connection = dataSource.getConnection()) {
+            return tables.isCompatible(connection);
+        }
+    }
+
+    /**
+     * Writes a chunk of configurations in a single transaction.
+     *
+     * @param configs a chunk of configurations with unique names.
+     * @return a number of written configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public int write(final Collection<Config> configs) throws SQLException {
+        if (configs.isEmpty()) {
+            return 0;
+        }
+
+        try (final Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                delete(connection, "NAME", configs.stream().map(Config::getName).collect(Collectors.toList()));
+                final int[] versions = new int[configs.size()];
+                Arrays.fill(versions, 1);
+                final long[] ids = insertConfigs(connection, configs, versions, System.currentTimeMillis());
+                insertConfigAttributes(connection, configs, ids);
+                insertProperties(connection, configs, ids);
+                connection.commit();
+                return configs.size();
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Updates a chunk of configurations in a single transaction by writing only the difference with the stored
+     * configurations: changed properties and attributes are updated, new ones are inserted and missing ones are
+     * deleted. Stored configurations are locked and compared with the given ones, which must have the stored
+     * versions, otherwise they are rejected as stale. Versions of changed configurations and properties are
+     * incremented, unchanged configurations are not written. New configurations start with the first version.
+     *
+     * @param configs a chunk of configurations with unique names.
+     * @return a result with stored configurations, rejected names and a number of written rows.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public DeltaResult updateDelta(final Collection<Config> configs) throws SQLException {
+        if (configs.isEmpty()) {
+            return new DeltaResult(new ArrayList<>(), new ArrayList<>(), 0);
+        }
+
+        try (final Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final Map<String, Stored> stored =
+                        lock(connection, configs.stream().map(Config::getName).collect(Collectors.toList()));
+                final long updated = System.currentTimeMillis();
+                final Delta delta = new Delta();
+                final List<Config> storedConfigs = new ArrayList<>(configs.size());
+                final List<String> rejected = new ArrayList<>();
+                final List<Config> newConfigs = new ArrayList<>();
+                for (final Config config : configs) {
+                    final Stored storedConfig = stored.get(config.getName());
+                    if (storedConfig == null) {
+                        newConfigs.add(config);
+                    } else if (storedConfig.version != config.getVersion()) {
+                        rejected.add(config.getName());
+                    } else if (diff(config, storedConfig, delta)) {
+                        delta.configs.add(new Object[]{config.getDescription(), storedConfig.version + 1, updated,
+                                storedConfig.id});
+                        storedConfigs.add(new Config.Builder(config).
+                                id(storedConfig.id).
+                                version(storedConfig.version + 1).
+                                updated(updated).
+                                build());
+                    } else {
+                        storedConfigs.add(new Config.Builder(config).
+                                id(storedConfig.id).
+                                updated(storedConfig.updated).
+                                build());
+                    }
+                }
+
+                int rows = delta.apply(connection);
+                if (newConfigs.size() > 0) {
+                    final int[] versions = new int[newConfigs.size()];
+                    Arrays.fill(versions, 1);
+                    final long[] ids = insertConfigs(connection, newConfigs, versions, updated);
+                    rows += newConfigs.size() + insertConfigAttributes(connection, newConfigs, ids) +
+                            insertProperties(connection, newConfigs, ids);
+                    for (int i = 0; i < ids.length; i++) {
+                        storedConfigs.add(new Config.Builder(newConfigs.get(i)).
+                                id(ids[i]).
+                                version(1).
+                                updated(updated).
+                                build());
+                    }
+                }
+
+                connection.commit();
+                return new DeltaResult(storedConfigs, rejected, rows);
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Removes configurations by names in a single transaction.
+     *
+     * @param names names of configurations.
+     * @return a number of removed configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public int remove(final Collection<String> names) throws SQLException {
+        if (names.isEmpty()) {
+            return 0;
+        }
+
+        try (final Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final int removed = delete(connection, "NAME", names);
+                connection.commit();
+                return removed;
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Applies changes of another database in a single transaction. Configurations are written with
+     * their ids, versions and update times, so the tables become a copy of the source tables.
+     *
+     * @param removedIds ids of configurations which are removed or replaced.
+     * @param configs    configurations which are written.
+     * @return a number of written configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public int replicate(final Collection<Long> removedIds, final Collection<Config> configs) throws SQLException {
+        if (removedIds.isEmpty() && configs.isEmpty()) {
+            return 0;
+        }
+
+        try (final Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (removedIds.size() > 0) {
+                    delete(connection, "ID", removedIds);
+                }
+
+                if (configs.size() > 0) {
+                    final long[] ids = copyConfigs(connection, configs);
+                    insertConfigAttributes(connection, configs, ids);
+                    insertProperties(connection, configs, ids);
+                }
+
+                connection.commit();
+                return configs.size();
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private Map<String, Stored> lock(final Connection connection, final Collection<String> names)
+            throws SQLException {
+        // Stored configurations are locked, so they are not changed by others until the commit
+        final Map<String, Stored> configs = new HashMap<>();
+        final Map<Long, Stored> configIds = new HashMap<>();
+        try (final PreparedStatement statement = connection.prepareStatement("SELECT " + quote("ID") + ", " +
+                quote("NAME") + ", " + quote("DESCRIPTION") + ", " + quote("VERSION") + ", " + quote("UPDATED") +
+                " FROM " + quote(tables.getConfigs()) + " WHERE " + quote("NAME") + " IN (" +
+                placeholders(names.size()) + ") FOR UPDATE")) {
+            int index = 1;
+            for (final String name : names) {
+                statement.setString(index++, name);
+            }
+
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    final Stored config = new Stored(resultSet.getLong(1));
+                    config.description = resultSet.getString(3);
+                    config.version = resultSet.getInt(4);
+                    config.updated = resultSet.getLong(5);
+                    configs.merge(resultSet.getString(2), config, (o, n) -> o.version >= n.version ? o : n);
+                }
+            }
+        }
+
+        if (configs.isEmpty()) {
+            return configs;
+        }
+
+        configs.values().forEach(config -> configIds.put(config.id, config));
+        final String configFilter = " IN (" + placeholders(configIds.size()) + ")";
+        final List<Long> ids = new ArrayList<>(configIds.keySet());
+        query(connection, "SELECT " + quote("ID") + ", " + quote("CONFIG_ID") + ", " + quote("KEY") + ", " +
+                quote("VALUE") + " FROM " + quote(tables.getConfigAttributes()) + " WHERE " + quote("CONFIG_ID") +
+                configFilter, ids, resultSet -> put(configIds.get(resultSet.getLong(2)).attributes,
+                resultSet.getString(3), new Attribute(resultSet.getLong(1), resultSet.getString(4)),
+                resultSet.getLong(1)));
+        final Map<Long, Stored> properties = new HashMap<>();
+        final Map<Long, Long> parents = new LinkedHashMap<>();
+        final Map<Long, String> propertyNames = new HashMap<>();
+        query(connection, "SELECT " + quote("ID") + ", " + quote("PROPERTY_ID") + ", " + quote("CONFIG_ID") +
+                ", " + quote("NAME") + ", " + quote("CAPTION") + ", " + quote("DESCRIPTION") + ", " +
+                quote("TYPE") + ", " + quote("VALUE") + ", " + quote("VERSION") + " FROM " +
+                quote(tables.getProperties()) + " WHERE " + quote("CONFIG_ID") + configFilter, ids, resultSet -> {
+            final Stored property = new Stored(resultSet.getLong(1));
+            // Top level properties are linked to configurations with negative ids
+            final long parentId = resultSet.getLong(2);
+            parents.put(property.id, resultSet.wasNull() ? -resultSet.getLong(3) : parentId);
+            property.caption = resultSet.getString(5);
+            property.description = resultSet.getString(6);
+            property.type = resultSet.getString(7);
+            property.value = resultSet.getString(8);
+            property.version = resultSet.getInt(9);
+            properties.put(property.id, property);
+            propertyNames.put(property.id, resultSet.getString(4));
+        });
+        for (final Map.Entry<Long, Long> parent : parents.entrySet()) {
+            final Stored owner = parent.getValue() < 0 ?
+                    configIds.get(-parent.getValue()) :
+                    properties.get(parent.getValue());
+            if (owner != null) {
+                put(owner.properties, propertyNames.get(parent.getKey()), properties.get(parent.getKey()),
+                        parent.getKey());
+            }
+        }
+
+        query(connection, "SELECT " + quote("ID") + ", " + quote("PROPERTY_ID") + ", " + quote("KEY") + ", " +
+                quote("VALUE") + " FROM " + quote(tables.getPropertyAttributes()) + " WHERE " +
+                quote("PROPERTY_ID") + " IN (SELECT " + quote("ID") + " FROM " + quote(tables.getProperties()) +
+                " WHERE " + quote("CONFIG_ID") + configFilter + ")", ids, resultSet -> {
+            final Stored property = properties.get(resultSet.getLong(2));
+            if (property != null) {
+                put(property.attributes, resultSet.getString(3),
+                        new Attribute(resultSet.getLong(1), resultSet.getString(4)), resultSet.getLong(1));
+            }
+        });
+        return configs;
+    }
+
+    private static <T> void put(final Map<String, T> map, final String key, final T value, final long id) {
+        // Duplicates are never matched, so they are deleted
+        if (map.putIfAbsent(key, value) != null) {
+            map.put(key + '\0' + id, value);
+        }
+    }
+
+    private void query(final Connection connection, final String sql, final Collection<?> values,
+                       final RowConsumer consumer) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (final Object value : values) {
+                statement.setObject(index++, value);
+            }
+
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(resultSet);
+                }
+            }
+        }
+    }
+
+    private static boolean diff(final Config config, final Stored stored, final Delta delta) {
+        boolean changed = !Objects.equals(config.getDescription(), stored.description);
+        changed |= diff(config.getAttributes(), stored.id, stored.attributes, delta.configAttributes,
+                delta.configAttributeValues, delta.deletedConfigAttributes);
+        changed |= diff(config.getProperties(), stored.id, 0, stored.properties, delta);
+        return changed;
+    }
+
+    private static boolean diff(final Stream<Property> properties, final long configId, final long parentId,
+                                final Map<String, Stored> stored, final Delta delta) {
+        boolean changed = false;
+        final Map<String, Stored> unmatched = new LinkedHashMap<>(stored);
+        final Iterator<Property> iterator = properties.iterator();
+        while (iterator.hasNext()) {
+            final Property property = iterator.next();
+            final Stored storedProperty = unmatched.remove(property.getName());
+            if (storedProperty == null) {
+                delta.nodes.add(new Node(configId, parentId, property));
+                changed = true;
+                continue;
+            }
+
+            if (!Objects.equals(property.getCaption(), storedProperty.caption) ||
+                    !Objects.equals(property.getDescription(), storedProperty.description) ||
+                    !Objects.equals(property.getType().name(), storedProperty.type) ||
+                    !Objects.equals(property.getValue(), storedProperty.value)) {
+                delta.properties.add(new Object[]{property.getCaption(), property.getDescription(),
+                        property.getType().name(), property.getValue(), storedProperty.version + 1,
+                        storedProperty.id});
+                changed = true;
+            }
+
+            changed |= diff(property.getAttributes(), storedProperty.id, storedProperty.attributes,
+                    delta.propertyAttributes, delta.propertyAttributeValues, delta.deletedPropertyAttributes);
+            changed |= diff(property.getProperties(), configId, storedProperty.id, storedProperty.properties, delta);
+        }
+
+        for (final Stored storedProperty : unmatched.values()) {
+            delete(storedProperty, delta);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private static boolean diff(final Optional<Map<String, String>> attributes, final long ownerId,
+                                final Map<String, Attribute> stored, final List<Object[]> inserted,
+                                final List<Object[]> updated, final List<Object[]> deleted) {
+        boolean changed = false;
+        final Map<String, Attribute> unmatched = new HashMap<>(stored);
+        if (attributes.isPresent()) {
+            for (final Map.Entry<String, String> attribute : attributes.get().entrySet()) {
+                final Attribute storedAttribute = unmatched.remove(attribute.getKey());
+                if (storedAttribute == null) {
+                    inserted.add(new Object[]{ownerId, attribute.getKey(), attribute.getValue()});
+                    changed = true;
+                } else if (!Objects.equals(attribute.getValue(), storedAttribute.value)) {
+                    updated.add(new Object[]{attribute.getValue(), storedAttribute.id});
+                    changed = true;
+                }
+            }
+        }
+
+        for (final Attribute attribute : unmatched.values()) {
+            deleted.add(new Object[]{attribute.id});
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private static void delete(final Stored property, final Delta delta) {
+        // Children are deleted before parents
+        property.properties.values().forEach(child -> delete(child, delta));
+        property.attributes.values().forEach(attribute -> delta.deletedPropertyAttributes.add(
+                new Object[]{attribute.id}));
+        delta.deletedProperties.add(new Object[]{property.id});
+    }
+
+    private int delete(final Connection connection, final String column, final Collection<?> values)
+            throws SQLException {
+        final String configIds = "SELECT " + quote("ID") + " FROM " + quote(tables.getConfigs()) +
+                " WHERE " + quote(column) + " IN (" + placeholders(values.size()) + ")";
+        final String propertyIds = "SELECT " + quote("ID") + " FROM " + quote(tables.getProperties()) +
+                " WHERE " + quote("CONFIG_ID") + " IN (" + configIds + ")";
+        execute(connection, "DELETE FROM " + quote(tables.getPropertyAttributes()) +
+                " WHERE " + quote("PROPERTY_ID") + " IN (" + propertyIds + ")", values);
+        // Parent links are detached, so properties are deleted regardless of their order
+        execute(connection, "UPDATE " + quote(tables.getProperties()) + " SET " + quote("PROPERTY_ID") +
+                " = NULL WHERE " + quote("CONFIG_ID") + " IN (" + configIds + ")", values);
+        execute(connection, "DELETE FROM " + quote(tables.getProperties()) +
+                " WHERE " + quote("CONFIG_ID") + " IN (" + configIds + ")", values);
+        execute(connection, "DELETE FROM " + quote(tables.getConfigAttributes()) +
+                " WHERE " + quote("CONFIG_ID") + " IN (" + configIds + ")", values);
+        return execute(connection, "DELETE FROM " + quote(tables.getConfigs()) +
+                " WHERE " + quote(column) + " IN (" + placeholders(values.size()) + ")", values);
+    }
+
+    private int execute(final Connection connection, final String sql, final Collection<?> values)
+            throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (final Object value : values) {
+                statement.setObject(index++, value);
+            }
+
+            return statement.executeUpdate();
+        }
+    }
+
+    private long[] insertConfigs(final Connection connection, final Collection<Config> configs, final int[] versions,
+                                 final long updated) throws SQLException {
+        final String sql = "INSERT INTO " + quote(tables.getConfigs()) + " (" + quote("NAME") + ", " +
+                quote("DESCRIPTION") + ", " + quote("VERSION") + ", " + quote("UPDATED") + ") VALUES (?, ?, ?, ?)";
+        try (final PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int index = 0;
+            for (final Config config : configs) {
+                statement.setString(1, config.getName());
+                statement.setString(2, config.getDescription());
+                statement.setInt(3, versions[index++]);
+                statement.setLong(4, updated);
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+            return getGeneratedKeys(statement, configs.size());
+        }
+    }
+
+    private long[] copyConfigs(final Connection connection, final Collection<Config> configs) throws SQLException {
+        final String sql = "INSERT INTO " + quote(tables.getConfigs()) + " (" + quote("ID") + ", " + quote("NAME") +
+                ", " + quote("DESCRIPTION") + ", " + quote("VERSION") + ", " + quote("UPDATED") +
+                ") VALUES (?, ?, ?, ?, ?)";
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            final long[] ids = new long[configs.size()];
+            int index = 0;
+            for (final Config config : configs) {
+                ids[index++] = config.getId();
+                statement.setLong(1, config.getId());
+                statement.setString(2, config.getName());
+                statement.setString(3, config.getDescription());
+                statement.setInt(4, config.getVersion());
+                statement.setLong(5, config.getUpdated());
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+            return ids;
+        }
+    }
+
+    private int insertConfigAttributes(final Connection connection, final Collection<Config> configs,
+                                       final long[] ids) throws SQLException {
+        final String sql = "INSERT INTO " + quote(tables.getConfigAttributes()) + " (" + quote("CONFIG_ID") + ", " +
+                quote("KEY") + ", " + quote("VALUE") + ") VALUES (?, ?, ?)";
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 0;
+            for (final Config config : configs) {
+                final long id = ids[index++];
+                if (config.getAttributes().isPresent()) {
+                    addAttributes(statement, id, config.getAttributes().get());
+                }
+            }
+
+            return sum(statement.executeBatch());
+        }
+    }
+
+    private int insertProperties(final Connection connection, final Collection<Config> configs, final long[] ids)
+            throws SQLException {
+        final List<Node> nodes = new ArrayList<>();
+        int index = 0;
+        for (final Config config : configs) {
+            final long configId = ids[index++];
+            config.getProperties().forEach(property -> nodes.add(new Node(configId, 0, property)));
+        }
+
+        return insertNodes(connection, nodes);
+    }
+
+    private int insertNodes(final Connection connection, final List<Node> level) throws SQLException {
+        final String sql = "INSERT INTO " + quote(tables.getProperties()) + " (" + quote("PROPERTY_ID") + ", " +
+                quote("CONFIG_ID") + ", " + quote("NAME") + ", " + quote("CAPTION") + ", " +
+                quote("DESCRIPTION") + ", " + quote("TYPE") + ", " + quote("VALUE") + ", " + quote("VERSION") +
+                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        final String attributesSql = "INSERT INTO " + quote(tables.getPropertyAttributes()) + " (" +
+                quote("PROPERTY_ID") + ", " + quote("KEY") + ", " + quote("VALUE") + ") VALUES (?, ?, ?)";
+        try (final PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+             final PreparedStatement attributes = connection.prepareStatement(attributesSql)) {
+            // Properties are inserted level by level, so ids of parents are known for children
+            int rows = 0;
+            List<Node> nodes = level;
+            while (nodes.size() > 0) {
+                for (final Node node : nodes) {
+                    final Property property = node.property;
+                    if (node.parentId > 0) {
+                        statement.setLong(1, node.parentId);
+                    } else {
+                        statement.setNull(1, Types.BIGINT);
+                    }
+
+                    statement.setLong(2, node.configId);
+                    statement.setString(3, property.getName());
+                    statement.setString(4, property.getCaption());
+                    statement.setString(5, property.getDescription());
+                    statement.setString(6, property.getType().name());
+                    statement.setString(7, property.getValue());
+                    statement.setInt(8, 1);
+                    statement.addBatch();
+                }
+
+                rows += sum(statement.executeBatch());
+                final long[] propertyIds = getGeneratedKeys(statement, nodes.size());
+                final List<Node> children = new ArrayList<>();
+                for (int i = 0; i < propertyIds.length; i++) {
+                    final Node node = nodes.get(i);
+                    final long propertyId = propertyIds[i];
+                    if (node.property.getAttributes().isPresent()) {
+                        addAttributes(attributes, propertyId, node.property.getAttributes().get());
+                    }
+
+                    node.property.getProperties().
+                            forEach(property -> children.add(new Node(node.configId, propertyId, property)));
+                }
+
+                nodes = children;
+            }
+
+            return rows + sum(attributes.executeBatch());
+        }
+    }
+
+    private void addAttributes(final PreparedStatement statement, final long id, final Map<String, String> attributes)
+            throws SQLException {
+        for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+            statement.setLong(1, id);
+            statement.setString(2, attribute.getKey());
+            statement.setString(3, attribute.getValue());
+            statement.addBatch();
+        }
+    }
+
+    private static int sum(final int[] counts) {
+        int sum = 0;
+        for (final int count : counts) {
+            sum += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+
+        return sum;
+    }
+
+    private long[] getGeneratedKeys(final Statement statement, final int count) throws SQLException {
+        final long[] keys = new long[count];
+        int index = 0;
+        try (final ResultSet resultSet = statement.getGeneratedKeys()) {
+            while (resultSet.next() && index < count) {
+                keys[index++] = resultSet.getLong(1);
+            }
+        }
+
+        if (index != count) {
+            throw new SQLException(String.format(GENERATED_KEYS_ERROR, count, index));
+        }
+
+        return keys;
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+
+        void accept(final ResultSet resultSet) throws SQLException;
+    }
+
+    private static final class Stored {
+        private final long id;
+        private final Map<String, Attribute> attributes = new HashMap<>();
+        private final Map<String, Stored> properties = new LinkedHashMap<>();
+        private String caption;
+        private String description;
+        private String type;
+        private String value;
+        private int version;
+        private long updated;
+
+        private Stored(final long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Attribute {
+        private final long id;
+        private final String value;
+
+        private Attribute(final long id, final String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    private final class Delta {
+        private final List<Object[]> deletedPropertyAttributes = new ArrayList<>();
+        private final List<Object[]> deletedProperties = new ArrayList<>();
+        private final List<Object[]> deletedConfigAttributes = new ArrayList<>();
+        private final List<Object[]> properties = new ArrayList<>();
+        private final List<Object[]> propertyAttributeValues = new ArrayList<>();
+        private final List<Object[]> configAttributeValues = new ArrayList<>();
+        private final List<Object[]> propertyAttributes = new ArrayList<>();
+        private final List<Object[]> configAttributes = new ArrayList<>();
+        private final List<Node> nodes = new ArrayList<>();
+        private final List<Object[]> configs = new ArrayList<>();
+
+        private int apply(final Connection connection) throws SQLException {
+            final String propertyAttributesTable = quote(tables.getPropertyAttributes());
+            final String configAttributesTable = quote(tables.getConfigAttributes());
+            int rows = execute(connection, "DELETE FROM " + propertyAttributesTable + " WHERE " + quote("ID") +
+                    " = ?", deletedPropertyAttributes);
+            rows += execute(connection, "DELETE FROM " + quote(tables.getProperties()) + " WHERE " + quote("ID") +
+                    " = ?", deletedProperties);
+            rows += execute(connection, "DELETE FROM " + configAttributesTable + " WHERE " + quote("ID") + " = ?",
+                    deletedConfigAttributes);
+            rows += execute(connection, "UPDATE " + quote(tables.getProperties()) + " SET " + quote("CAPTION") +
+                    " = ?, " + quote("DESCRIPTION") + " = ?, " + quote("TYPE") + " = ?, " + quote("VALUE") +
+                    " = ?, " + quote("VERSION") + " = ? WHERE " + quote("ID") + " = ?", properties);
+            rows += execute(connection, "UPDATE " + propertyAttributesTable + " SET " + quote("VALUE") +
+                    " = ? WHERE " + quote("ID") + " = ?", propertyAttributeValues);
+            rows += execute(connection, "UPDATE " + configAttributesTable + " SET " + quote("VALUE") +
+                    " = ? WHERE " + quote("ID") + " = ?", configAttributeValues);
+            rows += execute(connection, "INSERT INTO " + propertyAttributesTable + " (" + quote("PROPERTY_ID") +
+                    ", " + quote("KEY") + ", " + quote("VALUE") + ") VALUES (?, ?, ?)", propertyAttributes);
+            rows += execute(connection, "INSERT INTO " + configAttributesTable + " (" + quote("CONFIG_ID") +
+                    ", " + quote("KEY") + ", " + quote("VALUE") + ") VALUES (?, ?, ?)", configAttributes);
+            rows += insertNodes(connection, nodes);
+            return rows + execute(connection, "UPDATE " + quote(tables.getConfigs()) + " SET " +
+                    quote("DESCRIPTION") + " = ?, " + quote("VERSION") + " = ?, " + quote("UPDATED") + " = ? WHERE " +
+                    quote("ID") + " = ?", configs);
+        }
+
+        private int execute(final Connection connection, final String sql, final List<Object[]> rows)
+                throws SQLException {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (final Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i]);
+                    }
+
+                    statement.addBatch();
+                }
+
+                return sum(statement.executeBatch());
+            }
+        }
+    }
+
+    private static final class Node {
+        private final long configId;
+        private final long parentId;
+        private final Property property;
+
+        private Node(final long configId, final long parentId, final Property property) {
+            this.configId = configId;
+            this.parentId = parentId;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.quote;
+
+/**
+ * Provides the change log table that is filled by a trigger on the configs table. A change of properties updates
+ * the version of a config, so one row is logged per changed config. Every change gets a sequence number, so clients
+ * of a shared database read only changes after the last seen one.
+ */
+public final class ChangeLog {
+    private final DataSource dataSource;
+    private final Tables tables;
+
+    /**
+     * Constructs a change log.
+     *
+     * @param dataSource a datasource.
+     * @param tables     tables of configurations.
+     */
+    public ChangeLog(final DataSource dataSource, final Tables tables) {
+        this.dataSource = dataSource;
+        this.tables = tables;
+    }
+
+    /**
+     * Creates the change log table and the trigger if they do not exist.
+     *
+     * @throws SQLException when a database encounters a problem.
+     */
+    public void install() throws SQLException {
+        final String changes = tables.getConfigChanges();
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + quote(changes) + " (" +
+                    quote("SEQ") + " IDENTITY NOT NULL PRIMARY KEY, " +
+                    quote("NAME") + " VARCHAR(255) NOT NULL, " +
+                    quote("CREATED") + " BIGINT NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS " + quote(changes + "_CREATED") + " ON " +
+                    quote(changes) + " (" + quote("CREATED") + ")");
+            statement.execute("CREATE TRIGGER IF NOT EXISTS " + quote(changes + ChangeTrigger.SUFFIX) +
+                    " AFTER INSERT, UPDATE, DELETE ON " + quote(tables.getConfigs()) + " FOR EACH ROW CALL " +
+                    quote(ChangeTrigger.class.getName()));
+        }
+    }
+
+    /**
+     * Returns the last sequence number of the change log.
+     *
+     * @return a sequence number or 0 if the log is empty.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public long getLastSequence() throws SQLException {
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(" + quote("SEQ") + "), 0) " +
+                     "FROM " + quote(tables.getConfigChanges()))) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Returns names of changed configs after the sequence number, ordered by sequence numbers.
+     *
+     * @param sequence a sequence number.
+     * @return a map of sequence numbers and config names.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Map<Long, String> read(final long sequence) throws SQLException {
+        final String sql = "SELECT " + quote("SEQ") + ", " + quote("NAME") + " FROM " +
+                quote(tables.getConfigChanges()) + " WHERE " + quote("SEQ") + " > ? ORDER BY " + quote("SEQ");
+        try (final Connection connection = dataSource.getConnection();
+             final PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, sequence);
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final Map<Long, String> changes = new LinkedHashMap<>();
+                while (resultSet.next()) {
+                    changes.put(resultSet.getLong(1), resultSet.getString(2));
+                }
+
+                return changes;
+            }
+        }
+    }
+
+    /**
+     * Removes changes which are created before the time.
+     *
+     * @param created a time in milliseconds.
+     * @return a number of removed changes.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public int purge(final long created) throws SQLException {
+        try (final Connection connection = dataSource.getConnection();
+             final PreparedStatement statement = connection.prepareStatement("DELETE FROM " +
+                     quote(tables.getConfigChanges()) + " WHERE " + quote("CREATED") + " < ?")) {
+            statement.setLong(1, created);
+            return statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_COLUMN;
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.quote;
+
+/**
+ * Writes names of changed configs to the change log table in the transaction of a change.
+ * The name of the trigger consists of the name of the change log table and the suffix.
+ */
+public final class ChangeTrigger implements Trigger {
+    // The suffix of the trigger name
+    static final String SUFFIX = "$TRIGGER";
+    private String sql;
+    private int column;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void init(final Connection connection, final String schemaName, final String triggerName,
+                     final String tableName, final boolean before, final int type) throws SQLException {
+        final String changes = triggerName.substring(0, triggerName.length() - SUFFIX.length());
+        this.column = getColumnIndex(connection, schemaName, tableName, "NAME");
+        this.sql = "INSERT INTO " + quote(schemaName) + "." + quote(changes) + " (" + quote("NAME") + ", " +
+                quote("CREATED") + ") VALUES (?, ?)";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fire(final Connection connection, final Object[] oldRow, final Object[] newRow) throws SQLException {
+        if (oldRow != null) {
+            log(connection, oldRow[column]);
+        }
+
+        if (newRow != null && (oldRow == null || !Objects.equals(oldRow[column], newRow[column]))) {
+            log(connection, newRow[column]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove() {
+        // Nothing to release
+    }
+
+    private void log(final Connection connection, final Object value) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, value);
+            statement.setLong(2, System.currentTimeMillis());
+            statement.executeUpdate();
+        }
+    }
+
+    private static int getColumnIndex(final Connection connection, final String schemaName, final String tableName,
+                                      final String columnName) throws SQLException {
+        try (final ResultSet resultSet = connection.getMetaData().getColumns(null, schemaName, tableName, columnName)) {
+            if (resultSet.next()) {
+                return resultSet.getInt("ORDINAL_POSITION") - 1;
+            }
+        }
+
+        throw new SQLException(String.format(WRONG_COLUMN, tableName, columnName));
+    }
+}
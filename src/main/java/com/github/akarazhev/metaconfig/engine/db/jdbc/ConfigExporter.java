@@ -0,0 +1,574 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.EXPORT_ERROR;
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.placeholders;
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.quote;
+import static org.h2.engine.Constants.TRANSACTION_SNAPSHOT;
+
+/**
+ * Reads all or selected configurations with cursors ordered by config ids, a configuration is materialized only when
+ * the stream reaches it. Cursors read one snapshot in a read-only transaction at the snapshot isolation level,
+ * the connection is held until the stream is exhausted or closed.
+ */
+public final class ConfigExporter {
+    private final DataSource dataSource;
+    private final Tables tables;
+
+    /**
+     * Constructs a config exporter.
+     *
+     * @param dataSource a datasource.
+     * @param tables     tables of configurations.
+     */
+    public ConfigExporter(final DataSource dataSource, final Tables tables) {
+        this.dataSource = dataSource;
+        this.tables = tables;
+    }
+
+    /**
+     * Returns a lazy stream of all configurations, it must be closed to release the connection.
+     *
+     * @param fetchSize a number of rows that are fetched at once.
+     * @return a stream of configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Stream<Config> export(final int fetchSize) throws SQLException {
+        return export(null, Collections.emptyList(), fetchSize);
+    }
+
+    /**
+     * Returns a lazy stream of configurations by names, it must be closed to release the connection.
+     *
+     * @param names     names of configurations.
+     * @param fetchSize a number of rows that are fetched at once.
+     * @return a stream of configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Stream<Config> exportByNames(final Collection<String> names, final int fetchSize) throws SQLException {
+        return names.isEmpty() ? Stream.empty() : export("NAME", names, fetchSize);
+    }
+
+    /**
+     * Returns a lazy stream of configurations by config ids, it must be closed to release the connection.
+     *
+     * @param ids       ids of configurations.
+     * @param fetchSize a number of rows that are fetched at once.
+     * @return a stream of configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Stream<Config> exportByIds(final Collection<Long> ids, final int fetchSize) throws SQLException {
+        return ids.isEmpty() ? Stream.empty() : export("ID", ids, fetchSize);
+    }
+
+    /**
+     * Returns names of all configurations.
+     *
+     * @return a list of names.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public List<String> getNames() throws SQLException {
+        final List<String> names = new ArrayList<>();
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SELECT " + quote("NAME") + " FROM " +
+                     quote(tables.getConfigs()) + " ORDER BY " + quote("NAME"))) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns names of configurations by config ids.
+     *
+     * @param ids ids of configurations.
+     * @return a list of names.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public List<String> getNames(final Collection<Long> ids) throws SQLException {
+        final List<String> names = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return names;
+        }
+
+        try (final Connection connection = dataSource.getConnection();
+             final PreparedStatement statement = connection.prepareStatement("SELECT " + quote("NAME") + " FROM " +
+                     quote(tables.getConfigs()) + " WHERE " + quote("ID") + " IN (" + placeholders(ids.size()) + ")")) {
+            int index = 1;
+            for (final Long id : ids) {
+                statement.setLong(index++, id);
+            }
+
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString(1));
+                }
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns a property of a configuration by its path. The property is looked up with indexes of names and
+     * parent ids, so other properties of the configuration are not read. A leaf property is read with one query.
+     *
+     * @param name  a name of a configuration.
+     * @param paths names of the property and its parents, starting from the top level.
+     * @return a property with its attributes and sub-properties or an empty optional.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Optional<Property> getProperty(final String name, final String... paths) throws SQLException {
+        final String properties = quote(tables.getProperties());
+        final String target = "P" + paths.length + ".";
+        final StringBuilder sql = new StringBuilder("SELECT ").append(columns(target)).
+                append(", EXISTS (SELECT 1 FROM ").append(properties).append(" S WHERE S.").
+                append(quote("PROPERTY_ID")).append(" = ").append(target).append(quote("ID")).append(") FROM ").
+                append(quote(tables.getConfigs())).append(" C");
+        for (int i = 1; i <= paths.length; i++) {
+            // Top level properties are found by the config id, sub-properties by the parent id
+            final String alias = "P" + i + ".";
+            sql.append(" JOIN ").append(properties).append(" P").append(i).append(" ON ").append(i == 1 ?
+                    alias + quote("CONFIG_ID") + " = C." + quote("ID") + " AND " + alias + quote("PROPERTY_ID") +
+                            " IS NULL" :
+                    alias + quote("PROPERTY_ID") + " = P" + (i - 1) + "." + quote("ID")).
+                    append(" AND ").append(alias).append(quote("NAME")).append(" = ?");
+        }
+
+        sql.append(attributes(target)).append(" WHERE C.").append(quote("NAME")).append(" = ? ORDER BY ").
+                append(target).append(quote("ID")).append(", A.").append(quote("ID"));
+        try (final Connection connection = dataSource.getConnection()) {
+            final Map<Long, List<Row>> children = new HashMap<>();
+            final Map<Long, Map<String, String>> attributes = new HashMap<>();
+            final List<Object> values = new ArrayList<>(Arrays.asList((Object[]) paths));
+            values.add(name);
+            final List<Long> parents = new ArrayList<>();
+            long parentId = -1;
+            try (final PreparedStatement statement = connection.prepareStatement(sql.toString());
+                 final ResultSet resultSet = query(statement, values)) {
+                while (resultSet.next()) {
+                    parentId = resultSet.getLong(9);
+                    if (read(resultSet, children, attributes) && resultSet.getBoolean(10)) {
+                        parents.add(resultSet.getLong(1));
+                    }
+                }
+            }
+            // Sub-properties are read level by level
+            List<Long> level = parents;
+            while (level.size() > 0) {
+                final List<Long> ids = new ArrayList<>();
+                try (final PreparedStatement statement = connection.prepareStatement("SELECT " + columns("P.") +
+                        " FROM " + properties + " P" + attributes("P.") + " WHERE P." + quote("PROPERTY_ID") +
+                        " IN (" + placeholders(level.size()) + ") ORDER BY P." + quote("ID") + ", A." + quote("ID"));
+                     final ResultSet resultSet = query(statement, level)) {
+                    while (resultSet.next()) {
+                        if (read(resultSet, children, attributes)) {
+                            ids.add(resultSet.getLong(1));
+                        }
+                    }
+                }
+
+                level = ids;
+            }
+
+            final List<Property> built = build(parentId, children, attributes);
+            return built.isEmpty() ? Optional.empty() : Optional.of(built.get(0));
+        }
+    }
+
+    private String columns(final String alias) {
+        return alias + quote("ID") + ", " + alias + quote("NAME") + ", " + alias + quote("CAPTION") + ", " + alias +
+                quote("DESCRIPTION") + ", " + alias + quote("TYPE") + ", " + alias + quote("VALUE") + ", A." +
+                quote("KEY") + ", A." + quote("VALUE") + ", " + alias + quote("PROPERTY_ID");
+    }
+
+    private String attributes(final String alias) {
+        return " LEFT JOIN " + quote(tables.getPropertyAttributes()) + " A ON A." + quote("PROPERTY_ID") + " = " +
+                alias + quote("ID");
+    }
+
+    private static ResultSet query(final PreparedStatement statement, final Collection<?> values)
+            throws SQLException {
+        int index = 1;
+        for (final Object value : values) {
+            statement.setObject(index++, value);
+        }
+
+        return statement.executeQuery();
+    }
+
+    private static boolean read(final ResultSet resultSet, final Map<Long, List<Row>> children,
+                                final Map<Long, Map<String, String>> attributes) throws SQLException {
+        // A property has a row per attribute
+        final long id = resultSet.getLong(1);
+        final String key = resultSet.getString(7);
+        if (key != null) {
+            attributes.computeIfAbsent(id, k -> new LinkedHashMap<>()).put(key, resultSet.getString(8));
+        }
+
+        final List<Row> rows = children.computeIfAbsent(resultSet.getLong(9), k -> new ArrayList<>());
+        if (rows.size() > 0 && rows.get(rows.size() - 1).id == id) {
+            return false;
+        }
+
+        rows.add(new Row(id, resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                resultSet.getString(5), resultSet.getString(6)));
+        return true;
+    }
+
+    private static List<Property> build(final long parentId, final Map<Long, List<Row>> children,
+                                        final Map<Long, Map<String, String>> attributes) {
+        final List<Row> rows = children.get(parentId);
+        if (rows == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Property> built = new ArrayList<>(rows.size());
+        for (final Row row : rows) {
+            final Property.Builder builder = new Property.Builder(row.name, row.type, row.value).
+                    attributes(attributes.getOrDefault(row.id, Collections.emptyMap()));
+            if (row.caption != null) {
+                builder.caption(row.caption);
+            }
+
+            if (row.description != null) {
+                builder.description(row.description);
+            }
+
+            final List<Property> properties = build(row.id, children, attributes);
+            if (properties.size() > 0) {
+                builder.properties(new String[0], properties);
+            }
+
+            built.add(builder.build());
+        }
+
+        return built;
+    }
+
+    private Stream<Config> export(final String column, final Collection<?> values, final int fetchSize)
+            throws SQLException {
+        final Cursors cursors = new Cursors(dataSource.getConnection(), column, values);
+        try {
+            cursors.open(fetchSize);
+        } catch (final SQLException | RuntimeException e) {
+            cursors.close();
+            throw e;
+        }
+
+        return StreamSupport.stream(cursors, false).onClose(cursors::close);
+    }
+
+    /**
+     * Returns versions of all configurations by config ids.
+     *
+     * @return a map of versions.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Map<Long, Integer> getVersions() throws SQLException {
+        final Map<Long, Integer> versions = new HashMap<>();
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SELECT " + quote("ID") + ", " + quote("VERSION") +
+                     " FROM " + quote(tables.getConfigs()))) {
+            while (resultSet.next()) {
+                versions.put(resultSet.getLong(1), resultSet.getInt(2));
+            }
+        }
+
+        return versions;
+    }
+
+    /**
+     * Returns versions of configurations by names.
+     *
+     * @param names names of configurations.
+     * @return a map of versions of stored configurations.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public Map<String, Integer> getVersions(final Collection<String> names) throws SQLException {
+        final Map<String, Integer> versions = new HashMap<>();
+        if (names.isEmpty()) {
+            return versions;
+        }
+
+        try (final Connection connection = dataSource.getConnection();
+             final PreparedStatement statement = connection.prepareStatement("SELECT " + quote("NAME") + ", " +
+                     quote("VERSION") + " FROM " + quote(tables.getConfigs()) + " WHERE " + quote("NAME") + " IN (" +
+                     placeholders(names.size()) + ")")) {
+            int index = 1;
+            for (final String name : names) {
+                statement.setString(index++, name);
+            }
+
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    versions.put(resultSet.getString(1), resultSet.getInt(2));
+                }
+            }
+        }
+
+        return versions;
+    }
+
+    private final class Cursors extends Spliterators.AbstractSpliterator<Config> {
+        private final Connection connection;
+        private final String column;
+        private final Collection<?> values;
+        private final List<Statement> statements = new ArrayList<>(4);
+        private Cursor configs;
+        private Cursor configAttributes;
+        private Cursor properties;
+        private Cursor propertyAttributes;
+        private boolean autoCommit;
+        private int isolation;
+        private boolean transaction;
+        private boolean closed;
+
+        private Cursors(final Connection connection, final String column, final Collection<?> values) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.connection = connection;
+            this.column = column;
+            this.values = values;
+        }
+
+        private void open(final int fetchSize) throws SQLException {
+            // Results are streamed instead of being buffered by the database
+            try (final Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+            // Cursors read one snapshot, so configs are not mixed with properties of other versions
+            autoCommit = connection.getAutoCommit();
+            isolation = connection.getTransactionIsolation();
+            transaction = true;
+            connection.setTransactionIsolation(TRANSACTION_SNAPSHOT);
+            connection.setAutoCommit(false);
+            configs = query("SELECT " + quote("ID") + ", " + quote("NAME") + ", " + quote("DESCRIPTION") + ", " +
+                    quote("VERSION") + ", " + quote("UPDATED") + " FROM " + quote(tables.getConfigs()) +
+                    filter() + " ORDER BY " + quote("ID"), fetchSize);
+            configAttributes = query("SELECT " + quote("CONFIG_ID") + ", " + quote("KEY") + ", " + quote("VALUE") +
+                    " FROM " + quote(tables.getConfigAttributes()) + filter("") + " ORDER BY " +
+                    quote("CONFIG_ID"), fetchSize);
+            properties = query("SELECT " + quote("CONFIG_ID") + ", " + quote("ID") + ", " + quote("PROPERTY_ID") +
+                    ", " + quote("NAME") + ", " + quote("CAPTION") + ", " + quote("DESCRIPTION") + ", " +
+                    quote("TYPE") + ", " + quote("VALUE") + " FROM " + quote(tables.getProperties()) +
+                    filter("") + " ORDER BY " + quote("CONFIG_ID") + ", " + quote("ID"), fetchSize);
+            propertyAttributes = query("SELECT P." + quote("CONFIG_ID") + ", A." + quote("PROPERTY_ID") + ", A." +
+                    quote("KEY") + ", A." + quote("VALUE") + " FROM " + quote(tables.getPropertyAttributes()) +
+                    " A JOIN " + quote(tables.getProperties()) + " P ON A." + quote("PROPERTY_ID") + " = P." +
+                    quote("ID") + filter("P.") + " ORDER BY P." + quote("CONFIG_ID"), fetchSize);
+        }
+
+        private String filter() {
+            return column == null ? "" : " WHERE " + quote(column) + " IN (" + placeholders(values.size()) + ")";
+        }
+
+        private String filter(final String alias) {
+            // Child rows are filtered by ids of the selected configs
+            return column == null ? "" : " WHERE " + alias + quote("CONFIG_ID") + " IN (SELECT " + quote("ID") +
+                    " FROM " + quote(tables.getConfigs()) + filter() + ")";
+        }
+
+        private Cursor query(final String sql, final int fetchSize) throws SQLException {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statements.add(statement);
+            statement.setFetchSize(fetchSize);
+            if (column != null) {
+                int index = 1;
+                for (final Object value : values) {
+                    statement.setObject(index++, value);
+                }
+            }
+
+            return new Cursor(statement.executeQuery());
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Config> action) {
+            if (closed) {
+                return false;
+            }
+
+            try {
+                if (configs.hasRow()) {
+                    action.accept(read());
+                    return true;
+                }
+            } catch (final SQLException e) {
+                close();
+                throw new RuntimeException(EXPORT_ERROR, e);
+            }
+            // Resources are released as soon as the stream is exhausted
+            close();
+            return false;
+        }
+
+        private Config read() throws SQLException {
+            final ResultSet resultSet = configs.resultSet;
+            final long id = resultSet.getLong(1);
+            final String name = resultSet.getString(2);
+            final String description = resultSet.getString(3);
+            final int version = resultSet.getInt(4);
+            final long updated = resultSet.getLong(5);
+            configs.next();
+            // Read attributes of the config
+            final Map<String, String> attributes = new LinkedHashMap<>();
+            configAttributes.skipTo(id);
+            while (configAttributes.isAt(id)) {
+                attributes.put(configAttributes.resultSet.getString(2), configAttributes.resultSet.getString(3));
+                configAttributes.next();
+            }
+            // Read attributes of properties of the config
+            final Map<Long, Map<String, String>> propertyAttributeMap = new HashMap<>();
+            propertyAttributes.skipTo(id);
+            while (propertyAttributes.isAt(id)) {
+                propertyAttributeMap.computeIfAbsent(propertyAttributes.resultSet.getLong(2),
+                        k -> new LinkedHashMap<>()).
+                        put(propertyAttributes.resultSet.getString(3), propertyAttributes.resultSet.getString(4));
+                propertyAttributes.next();
+            }
+            // Read properties of the config and link them by parent ids
+            final Map<Long, List<Row>> children = new HashMap<>();
+            properties.skipTo(id);
+            while (properties.isAt(id)) {
+                final ResultSet row = properties.resultSet;
+                final long propertyId = row.getLong(2);
+                final long parentId = row.getLong(3);
+                children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(new Row(propertyId, row.getString(4),
+                        row.getString(5), row.getString(6), row.getString(7), row.getString(8)));
+                properties.next();
+            }
+
+            final Config.Builder builder = new Config.Builder(name, build(0, children, propertyAttributeMap)).
+                    id(id).
+                    version(version).
+                    updated(updated).
+                    attributes(attributes);
+            if (description != null) {
+                builder.description(description);
+            }
+
+            return builder.build();
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            for (final Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (final SQLException e) {
+                    // Ignore, other resources must be released
+                }
+            }
+
+            try {
+                if (transaction) {
+                    // Nothing is written, so the transaction is rolled back
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                    connection.setTransactionIsolation(isolation);
+                }
+
+                try (final Statement statement = connection.createStatement()) {
+                    statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            } catch (final SQLException e) {
+                // Ignore, the connection must be released
+            } finally {
+                try {
+                    connection.close();
+                } catch (final SQLException e) {
+                    // Ignore, the connection is invalidated by the pool
+                }
+            }
+        }
+    }
+
+    private static final class Cursor {
+        private final ResultSet resultSet;
+        private boolean hasRow;
+
+        private Cursor(final ResultSet resultSet) throws SQLException {
+            this.resultSet = resultSet;
+            this.hasRow = resultSet.next();
+        }
+
+        private boolean hasRow() {
+            return hasRow;
+        }
+
+        private boolean isAt(final long configId) throws SQLException {
+            return hasRow && resultSet.getLong(1) == configId;
+        }
+
+        private void skipTo(final long configId) throws SQLException {
+            // Rows of removed configs are skipped
+            while (hasRow && resultSet.getLong(1) < configId) {
+                next();
+            }
+        }
+
+        private void next() throws SQLException {
+            hasRow = resultSet.next();
+        }
+    }
+
+    private static final class Row {
+        private final long id;
+        private final String name;
+        private final String caption;
+        private final String description;
+        private final String type;
+        private final String value;
+
+        private Row(final long id, final String name, final String caption, final String description,
+                    final String type, final String value) {
+            this.id = id;
+            this.name = name;
+            this.caption = caption;
+            this.description = description;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable result of a delta update.
+ */
+public final class DeltaResult {
+    private final List<Config> configs;
+    private final List<String> rejected;
+    private final int rows;
+
+    DeltaResult(final List<Config> configs, final List<String> rejected, final int rows) {
+        this.configs = Collections.unmodifiableList(configs);
+        this.rejected = Collections.unmodifiableList(rejected);
+        this.rows = rows;
+    }
+
+    /**
+     * Combines results of delta updates of several databases.
+     *
+     * @param results results of delta updates.
+     * @return a combined result.
+     */
+    public static DeltaResult combine(final Collection<DeltaResult> results) {
+        final List<Config> configs = new ArrayList<>();
+        final List<String> rejected = new ArrayList<>();
+        int rows = 0;
+        for (final DeltaResult result : results) {
+            configs.addAll(result.configs);
+            rejected.addAll(result.rejected);
+            rows += result.rows;
+        }
+
+        return new DeltaResult(configs, rejected, rows);
+    }
+
+    /**
+     * Returns configurations which are stored, versions of changed configurations are incremented.
+     *
+     * @return a list of configurations.
+     */
+    public List<Config> getConfigs() {
+        return configs;
+    }
+
+    /**
+     * Returns names of configurations which are rejected, because their versions are not the stored ones.
+     *
+     * @return a list of names.
+     */
+    public List<String> getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the number of rows which are inserted, updated or deleted.
+     *
+     * @return a number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "DeltaResult{" +
+                "configs=" + configs.size() +
+                ", rejected=" + rejected +
+                ", rows=" + rows +
+                '}';
+    }
+}
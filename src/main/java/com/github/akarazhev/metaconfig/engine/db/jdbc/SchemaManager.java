@@ -0,0 +1,192 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SCHEMA_TUNED;
+import static com.github.akarazhev.metaconfig.engine.db.jdbc.Tables.quote;
+
+/**
+ * Creates missing indexes on the columns which configurations are filtered and joined on, and updates
+ * the statistics of the query optimizer. The schema of the tables can be copied to another database.
+ */
+public final class SchemaManager {
+    private final static Logger LOGGER = Logger.getLogger(SchemaManager.class.getSimpleName());
+    private static final List<String> SCRIPT_PREFIXES = Arrays.asList("CREATE SEQUENCE ", "CREATE MEMORY TABLE ",
+            "CREATE CACHED TABLE ", "CREATE INDEX ", "CREATE UNIQUE INDEX ", "CREATE PRIMARY KEY ", "ALTER TABLE ");
+    private final DataSource dataSource;
+    private final Tables tables;
+
+    /**
+     * Constructs a schema manager.
+     *
+     * @param dataSource a datasource.
+     * @param tables     tables of configurations.
+     */
+    public SchemaManager(final DataSource dataSource, final Tables tables) {
+        this.dataSource = dataSource;
+        this.tables = tables;
+    }
+
+    /**
+     * Creates missing indexes and analyzes the tables.
+     *
+     * @return a list of applied statements.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public List<String> tune() throws SQLException {
+        final List<String> applied = new ArrayList<>();
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement()) {
+            for (final Index index : getIndexes()) {
+                if (!isIndexed(connection, index)) {
+                    final String sql = "CREATE INDEX IF NOT EXISTS " + quote(index.getName()) + " ON " +
+                            quote(index.table) + " (" + join(index.columns) + ")";
+                    statement.execute(sql);
+                    applied.add(sql);
+                }
+            }
+            // Statistics let the optimizer choose the indexes
+            for (final String table : Arrays.asList(tables.getConfigs(), tables.getConfigAttributes(),
+                    tables.getProperties(), tables.getPropertyAttributes())) {
+                final String sql = "ANALYZE TABLE " + quote(table);
+                statement.execute(sql);
+                applied.add(sql);
+            }
+        }
+
+        LOGGER.log(Level.INFO, String.format(SCHEMA_TUNED, String.join("; ", applied)));
+        return Collections.unmodifiableList(applied);
+    }
+
+    /**
+     * Returns statements which create the tables with their sequences, constraints and indexes, but without
+     * data and triggers.
+     *
+     * @return a list of statements.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public List<String> script() throws SQLException {
+        final List<String> script = new ArrayList<>();
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SCRIPT NODATA NOSETTINGS TABLE " +
+                     quote(tables.getConfigs()) + ", " + quote(tables.getConfigAttributes()) + ", " +
+                     quote(tables.getProperties()) + ", " + quote(tables.getPropertyAttributes()))) {
+            while (resultSet.next()) {
+                final String sql = resultSet.getString(1);
+                if (SCRIPT_PREFIXES.stream().anyMatch(sql::startsWith)) {
+                    script.add(sql);
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(script);
+    }
+
+    /**
+     * Creates the tables with the script of another database, if they do not exist.
+     *
+     * @param script a list of statements.
+     * @return true if the tables are created.
+     * @throws SQLException when a database encounters a problem.
+     * @see #script()
+     */
+    public boolean create(final List<String> script) throws SQLException {
+        try (final Connection connection = dataSource.getConnection()) {
+            if (tables.isCompatible(connection)) {
+                return false;
+            }
+
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (final Statement statement = connection.createStatement()) {
+                for (final String sql : script) {
+                    statement.execute(sql);
+                }
+
+                connection.commit();
+                return true;
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private List<Index> getIndexes() {
+        return Arrays.asList(
+                new Index(tables.getConfigs(), "NAME"),
+                new Index(tables.getConfigAttributes(), "CONFIG_ID"),
+                new Index(tables.getProperties(), "CONFIG_ID", "NAME"),
+                // Sub-properties are looked up by paths
+                new Index(tables.getProperties(), "PROPERTY_ID", "NAME"),
+                new Index(tables.getPropertyAttributes(), "PROPERTY_ID"));
+    }
+
+    private boolean isIndexed(final Connection connection, final Index index) throws SQLException {
+        // An index covers the lookup if its leading columns are the columns of the lookup
+        final Map<String, List<String>> indexes = new HashMap<>();
+        try (final PreparedStatement statement = connection.prepareStatement("SELECT INDEX_NAME, COLUMN_NAME " +
+                "FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? " +
+                "ORDER BY INDEX_NAME, ORDINAL_POSITION")) {
+            statement.setString(1, index.table);
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    indexes.computeIfAbsent(resultSet.getString(1), k -> new ArrayList<>()).
+                            add(resultSet.getString(2));
+                }
+            }
+        }
+
+        return indexes.values().stream().anyMatch(columns -> columns.size() >= index.columns.size() &&
+                columns.subList(0, index.columns.size()).equals(index.columns));
+    }
+
+    private static String join(final List<String> columns) {
+        final StringBuilder builder = new StringBuilder();
+        for (final String column : columns) {
+            builder.append(builder.length() > 0 ? ", " : "").append(quote(column));
+        }
+
+        return builder.toString();
+    }
+
+    private static final class Index {
+        private final String table;
+        private final List<String> columns;
+
+        private Index(final String table, final String... columns) {
+            this.table = table;
+            this.columns = Arrays.asList(columns);
+        }
+
+        private String getName() {
+            return table + "_" + String.join("_", columns) + "_IDX";
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.akarazhev.metaconfig.Constants.Mapping.CONFIGS_TABLE;
+import static com.github.akarazhev.metaconfig.Constants.Mapping.CONFIG_ATTRIBUTES_TABLE;
+import static com.github.akarazhev.metaconfig.Constants.Mapping.PROPERTIES_TABLE;
+import static com.github.akarazhev.metaconfig.Constants.Mapping.PROPERTY_ATTRIBUTES_TABLE;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Mapping.CONFIG_CHANGES_TABLE;
+
+/**
+ * Provides names and the layout of the tables that keep configurations.
+ */
+public final class Tables {
+    // The columns of the configs table
+    static final String[] CONFIGS_COLUMNS = new String[]{"ID", "NAME", "DESCRIPTION", "VERSION", "UPDATED"};
+    // The columns of the config attributes table
+    static final String[] CONFIG_ATTRIBUTES_COLUMNS = new String[]{"ID", "CONFIG_ID", "KEY", "VALUE"};
+    // The columns of the properties table
+    static final String[] PROPERTIES_COLUMNS =
+            new String[]{"ID", "PROPERTY_ID", "CONFIG_ID", "NAME", "CAPTION", "DESCRIPTION", "TYPE", "VALUE", "VERSION"};
+    // The columns of the property attributes table
+    static final String[] PROPERTY_ATTRIBUTES_COLUMNS = new String[]{"ID", "PROPERTY_ID", "KEY", "VALUE"};
+    private final String configs;
+    private final String configAttributes;
+    private final String properties;
+    private final String propertyAttributes;
+    private final String configChanges;
+
+    /**
+     * Constructs tables based on the data mapping.
+     *
+     * @param mapping a table mapping.
+     */
+    public Tables(final Map<String, String> mapping) {
+        final Map<String, String> tables = mapping != null ? mapping : Collections.emptyMap();
+        this.configs = tables.getOrDefault(CONFIGS_TABLE, "CONFIGS");
+        this.configAttributes = tables.getOrDefault(CONFIG_ATTRIBUTES_TABLE, "CONFIG_ATTRIBUTES");
+        this.properties = tables.getOrDefault(PROPERTIES_TABLE, "PROPERTIES");
+        this.propertyAttributes = tables.getOrDefault(PROPERTY_ATTRIBUTES_TABLE, "PROPERTY_ATTRIBUTES");
+        this.configChanges = tables.getOrDefault(CONFIG_CHANGES_TABLE, "CONFIG_CHANGES");
+    }
+
+    /**
+     * Returns the name of the configs table.
+     *
+     * @return a table name.
+     */
+    public String getConfigs() {
+        return configs;
+    }
+
+    /**
+     * Returns the name of the config attributes table.
+     *
+     * @return a table name.
+     */
+    public String getConfigAttributes() {
+        return configAttributes;
+    }
+
+    /**
+     * Returns the name of the properties table.
+     *
+     * @return a table name.
+     */
+    public String getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the name of the property attributes table.
+     *
+     * @return a table name.
+     */
+    public String getPropertyAttributes() {
+        return propertyAttributes;
+    }
+
+    /**
+     * Returns the name of the config changes table.
+     *
+     * @return a table name.
+     */
+    public String getConfigChanges() {
+        return configChanges;
+    }
+
+    /**
+     * Checks that the tables have the layout which is read and written directly with JDBC.
+     *
+     * @param connection a connection.
+     * @return true if the tables have the expected columns.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public boolean isCompatible(final Connection connection) throws SQLException {
+        return hasColumns(connection, configs, CONFIGS_COLUMNS) &&
+                hasColumns(connection, configAttributes, CONFIG_ATTRIBUTES_COLUMNS) &&
+                hasColumns(connection, properties, PROPERTIES_COLUMNS) &&
+                hasColumns(connection, propertyAttributes, PROPERTY_ATTRIBUTES_COLUMNS);
+    }
+
+    /**
+     * Returns the quoted identifier.
+     *
+     * @param identifier an identifier.
+     * @return a quoted identifier.
+     */
+    static String quote(final String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Returns the list of parameter placeholders.
+     *
+     * @param count a number of parameters.
+     * @return a list of placeholders.
+     */
+    static String placeholders(final int count) {
+        final StringBuilder builder = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            builder.append(i > 0 ? ", ?" : "?");
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean hasColumns(final Connection connection, final String table, final String[] columns)
+            throws SQLException {
+        final Set<String> found = new HashSet<>();
+        try (final PreparedStatement statement = connection.prepareStatement(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ?")) {
+            statement.setString(1, table);
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    found.add(resultSet.getString(1));
+                }
+            }
+        }
+
+        return found.containsAll(Arrays.asList(columns));
+    }
+}
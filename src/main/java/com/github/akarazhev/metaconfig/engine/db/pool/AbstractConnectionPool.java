@@ -0,0 +1,117 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import com.github.akarazhev.metaconfig.engine.metrics.Histogram;
+import com.github.akarazhev.metaconfig.engine.metrics.OperationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The internal base implementation of a connection pool that records acquire metrics.
+ */
+abstract class AbstractConnectionPool implements ConnectionPool {
+    private final DataSource dataSource = new PoolDataSource(this::getConnection);
+    private final Histogram acquireLatency = new Histogram();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final long acquireTimeout;
+
+    /**
+     * Constructs a connection pool with the acquire timeout.
+     *
+     * @param acquireTimeout a maximum time in milliseconds to wait for a free connection.
+     */
+    AbstractConnectionPool(final long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final PoolMetrics getMetrics() {
+        return new PoolMetrics(getActive(), getIdle(), getWaiting(), acquisitions.sum(), timeouts.sum(),
+                acquireLatency.snapshot(), statementCacheHits.sum(), statementCacheMisses.sum());
+    }
+
+    /**
+     * Returns the acquire timeout.
+     *
+     * @return a timeout in milliseconds.
+     */
+    final long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * Returns a statement cache of a pooled connection, hits and misses are recorded in metrics of the pool.
+     *
+     * @param connection a pooled connection.
+     * @param size       a maximum number of cached statements.
+     * @return a statement cache or null if the size is 0.
+     */
+    final StatementCache newStatementCache(final Connection connection, final int size) {
+        return size > 0 ? new StatementCache(connection, size, statementCacheHits, statementCacheMisses) : null;
+    }
+
+    /**
+     * Acquires a connection handle which returns the connection to the pool on close.
+     *
+     * @param deadline a deadline in nanoseconds of {@link System#nanoTime()}.
+     * @return a connection handle.
+     * @throws SQLTransientConnectionException when a connection is not acquired before the deadline.
+     * @throws SQLException                    when a connection pool encounters a problem.
+     */
+    abstract Connection acquire(final long deadline) throws SQLException;
+
+    /**
+     * Returns the number of opened connections that are not handed out.
+     *
+     * @return a number of connections.
+     */
+    abstract int getIdle();
+
+    private Connection getConnection() throws SQLException {
+        final long started = System.nanoTime();
+        try {
+            final Connection connection = acquire(started + TimeUnit.MILLISECONDS.toNanos(acquireTimeout));
+            acquisitions.increment();
+            final long latency = System.nanoTime() - started;
+            acquireLatency.record(latency);
+            // The acquire time is a part of the instrumented operation
+            final OperationContext context = OperationContext.current();
+            if (context != null) {
+                context.addAcquireTime(latency);
+            }
+
+            return connection;
+        } catch (final SQLTransientConnectionException e) {
+            timeouts.increment();
+            throw e;
+        }
+    }
+}
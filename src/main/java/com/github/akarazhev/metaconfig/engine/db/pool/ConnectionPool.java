@@ -14,7 +14,7 @@ import javax.sql.DataSource;
 import java.io.Closeable;
 
 /**
- * Provides a method to get a datasource.
+ * Provides methods to get a datasource, the capacity, the load and metrics.
  */
 public interface ConnectionPool extends Closeable {
     /**
@@ -24,4 +24,32 @@ public interface ConnectionPool extends Closeable {
      * @see DataSource for more information.
      */
     DataSource getDataSource();
+
+    /**
+     * Returns a snapshot of metrics.
+     *
+     * @return pool metrics.
+     */
+    PoolMetrics getMetrics();
+
+    /**
+     * Returns the number of connections that are handed out, it is cheaper than metrics.
+     *
+     * @return a number of connections.
+     */
+    int getActive();
+
+    /**
+     * Returns the number of threads that wait for a connection, it is cheaper than metrics.
+     *
+     * @return a number of threads.
+     */
+    int getWaiting();
+
+    /**
+     * Returns the maximum number of connections.
+     *
+     * @return a number of connections.
+     */
+    int getMaxConnections();
 }
@@ -13,22 +13,45 @@ package com.github.akarazhev.metaconfig.engine.db.pool;
 import com.github.akarazhev.metaconfig.api.Config;
 import com.github.akarazhev.metaconfig.api.Property;
 import com.github.akarazhev.metaconfig.extension.Validator;
-import org.h2.jdbcx.JdbcConnectionPool;
 
-import javax.sql.DataSource;
 import java.util.Arrays;
 
 import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
 import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
 import static com.github.akarazhev.metaconfig.Constants.Messages.PARAM_NOT_PRESENTED;
 import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.ACQUIRE_TIMEOUT;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.ACQUIRE_TIMEOUT_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.ANALYZE_AUTO;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CACHE_SIZE;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.LOCK_TIMEOUT;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_COMPACT_TIME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_CONNECTIONS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_CONNECTIONS_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_MEMORY_ROWS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_WAITERS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_WAITERS_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MIN_IDLE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MIN_IDLE_VALUE;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.QUERY_CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.RETENTION_TIME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.STATEMENT_CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.STATEMENT_CACHE_SIZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE_H2;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE_STRIPED;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL_VALUE;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
 import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.VALIDATE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.VALIDATE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.WRITE_DELAY;
 
 /**
  * Provides factory methods to create a connection pool.
@@ -50,6 +73,12 @@ public final class ConnectionPools {
 
         // The configuration name
         public static final String CONFIG_NAME = "connection-pool";
+        // The type key
+        public static final String TYPE = "type";
+        // The type h2 value
+        public static final String TYPE_H2 = "h2";
+        // The type striped value
+        public static final String TYPE_STRIPED = "striped";
         // The url key
         public static final String URL = "url";
         // The url value
@@ -62,6 +91,58 @@ public final class ConnectionPools {
         public static final String PASSWORD = "password";
         // The password value
         static final String PASSWORD_VALUE = "sa";
+        // The max connections key
+        public static final String MAX_CONNECTIONS = "max-connections";
+        // The max connections value
+        static final long MAX_CONNECTIONS_VALUE = 10;
+        // The acquire timeout key (milliseconds)
+        public static final String ACQUIRE_TIMEOUT = "acquire-timeout";
+        // The acquire timeout value
+        static final long ACQUIRE_TIMEOUT_VALUE = 30000;
+        // The min idle key
+        public static final String MIN_IDLE = "min-idle";
+        // The min idle value
+        static final long MIN_IDLE_VALUE = 0;
+        // The validate key
+        public static final String VALIDATE = "validate";
+        // The validate value
+        static final boolean VALIDATE_VALUE = false;
+        // The max waiters key, it is used by the striped pool
+        public static final String MAX_WAITERS = "max-waiters";
+        // The max waiters value
+        static final long MAX_WAITERS_VALUE = 1024;
+        // The statement cache size key, it is used by the striped pool
+        public static final String STATEMENT_CACHE_SIZE = "statement-cache-size";
+        // The statement cache size value
+        static final long STATEMENT_CACHE_SIZE_VALUE = 32;
+        // The storage profile key
+        public static final String PROFILE = "profile";
+        // The default profile value
+        public static final String PROFILE_DEFAULT = "default";
+        // The read-heavy profile value
+        public static final String PROFILE_READ_HEAVY = "read-heavy";
+        // The write-heavy profile value
+        public static final String PROFILE_WRITE_HEAVY = "write-heavy";
+        // The cache size key (kilobytes)
+        public static final String CACHE_SIZE = "cache-size";
+        // The write delay key (milliseconds)
+        public static final String WRITE_DELAY = "write-delay";
+        // The compress key
+        public static final String COMPRESS = "compress";
+        // The lock timeout key (milliseconds)
+        public static final String LOCK_TIMEOUT = "lock-timeout";
+        // The query cache size key
+        public static final String QUERY_CACHE_SIZE = "query-cache-size";
+        // The lazy query execution key
+        public static final String LAZY_QUERY_EXECUTION = "lazy-query-execution";
+        // The max memory rows key
+        public static final String MAX_MEMORY_ROWS = "max-memory-rows";
+        // The max compact time key (milliseconds)
+        public static final String MAX_COMPACT_TIME = "max-compact-time";
+        // The retention time key (milliseconds)
+        public static final String RETENTION_TIME = "retention-time";
+        // The analyze auto key
+        public static final String ANALYZE_AUTO = "analyze-auto";
     }
 
     /**
@@ -88,11 +169,47 @@ public final class ConnectionPools {
                 validate(c -> c.getProperty(URL).isPresent(), String.format(PARAM_NOT_PRESENTED, URL)).
                 validate(c -> c.getProperty(USER).isPresent(), String.format(PARAM_NOT_PRESENTED,  USER)).
                 validate(c -> c.getProperty(PASSWORD).isPresent(), String.format(PARAM_NOT_PRESENTED, PASSWORD)).
+                validate(c -> c.getProperty(MAX_CONNECTIONS).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, MAX_CONNECTIONS)).
+                validate(c -> c.getProperty(ACQUIRE_TIMEOUT).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, ACQUIRE_TIMEOUT)).
+                validate(c -> c.getProperty(MIN_IDLE).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, MIN_IDLE)).
+                validate(c -> c.getProperty(MAX_WAITERS).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, MAX_WAITERS)).
+                validate(c -> c.getProperty(STATEMENT_CACHE_SIZE).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, STATEMENT_CACHE_SIZE)).
+                validate(c -> c.getProperty(TYPE).
+                                map(p -> TYPE_H2.equals(p.getValue()) || TYPE_STRIPED.equals(p.getValue())).
+                                orElse(true),
+                        String.format(WRONG_PARAM_VALUE, TYPE)).
+                validate(c -> c.getProperty(PROFILE).map(p -> StorageSettings.isProfile(p.getValue())).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, PROFILE)).
+                validate(c -> c.getProperty(CACHE_SIZE).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, CACHE_SIZE)).
+                validate(c -> c.getProperty(WRITE_DELAY).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, WRITE_DELAY)).
+                validate(c -> c.getProperty(LOCK_TIMEOUT).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, LOCK_TIMEOUT)).
+                validate(c -> c.getProperty(QUERY_CACHE_SIZE).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, QUERY_CACHE_SIZE)).
+                validate(c -> c.getProperty(MAX_MEMORY_ROWS).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, MAX_MEMORY_ROWS)).
+                validate(c -> c.getProperty(MAX_COMPACT_TIME).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, MAX_COMPACT_TIME)).
+                validate(c -> c.getProperty(RETENTION_TIME).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, RETENTION_TIME)).
+                validate(c -> c.getProperty(ANALYZE_AUTO).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, ANALYZE_AUTO)).
                 get();
-        // Get the url
-        final String url = poolConfig.getProperty(URL).
+        // Get the type
+        final String type = poolConfig.getProperty(TYPE).
                 map(Property::getValue).
-                orElse(URL_VALUE);
+                orElse(TYPE_H2);
+        // Get the url with storage settings
+        final String url = StorageSettings.apply(poolConfig.getProperty(URL).
+                map(Property::getValue).
+                orElse(URL_VALUE), poolConfig);
         // Get the user
         final String user = poolConfig.getProperty(USER).
                 map(Property::getValue).
@@ -101,25 +218,37 @@ public final class ConnectionPools {
         final String password = poolConfig.getProperty(PASSWORD).
                 map(Property::getValue).
                 orElse(PASSWORD_VALUE);
+        // Get the max connections
+        final long maxConnections = poolConfig.getProperty(MAX_CONNECTIONS).
+                map(Property::asLong).
+                orElse(MAX_CONNECTIONS_VALUE);
+        // Get the acquire timeout
+        final long acquireTimeout = poolConfig.getProperty(ACQUIRE_TIMEOUT).
+                map(Property::asLong).
+                orElse(ACQUIRE_TIMEOUT_VALUE);
+        // Get the min idle
+        final long minIdle = poolConfig.getProperty(MIN_IDLE).
+                map(Property::asLong).
+                orElse(MIN_IDLE_VALUE);
+        // Get the validate
+        final boolean validate = poolConfig.getProperty(VALIDATE).
+                map(Property::asBool).
+                orElse(VALIDATE_VALUE);
+        // Get the max waiters
+        final long maxWaiters = poolConfig.getProperty(MAX_WAITERS).
+                map(Property::asLong).
+                orElse(MAX_WAITERS_VALUE);
+        // Get the statement cache size
+        final long statementCacheSize = poolConfig.getProperty(STATEMENT_CACHE_SIZE).
+                map(Property::asLong).
+                orElse(STATEMENT_CACHE_SIZE_VALUE);
         // Create the connection pool
-        return new ConnectionPool() {
-            private final JdbcConnectionPool connectionPool = JdbcConnectionPool.create(url, user, password);
-
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public void close() {
-                connectionPool.dispose();
-            }
-
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public DataSource getDataSource() {
-                return connectionPool;
-            }
-        };
+        final int max = (int) Math.min(maxConnections, Integer.MAX_VALUE);
+        final int idle = (int) Math.min(minIdle, Integer.MAX_VALUE);
+        return TYPE_STRIPED.equals(type) ?
+                new StripedConnectionPool(url, user, password, max, acquireTimeout, idle, validate,
+                        (int) Math.min(maxWaiters, Integer.MAX_VALUE),
+                        (int) Math.min(statementCacheSize, Integer.MAX_VALUE)) :
+                new H2ConnectionPool(url, user, password, max, acquireTimeout, idle, validate);
     }
 }
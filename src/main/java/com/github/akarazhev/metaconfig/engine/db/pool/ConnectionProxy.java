@@ -0,0 +1,164 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.CONNECTION_CLOSED;
+
+/**
+ * The internal implementation of the connection handle that returns a pooled connection on close.
+ * Prepared statements are taken from the statement cache of the pooled connection, if it is present.
+ * Statements are instrumented within operations of the instrumentation.
+ */
+final class ConnectionProxy implements InvocationHandler {
+    private final Connection connection;
+    private final Releaser releaser;
+    private final StatementCache statementCache;
+    private final List<Statement> statements = new ArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Provides a method to return a pooled connection.
+     */
+    @FunctionalInterface
+    interface Releaser {
+        /**
+         * Returns a pooled connection.
+         *
+         * @param connection a pooled connection.
+         * @throws SQLException when a connection can not be returned.
+         */
+        void release(final Connection connection) throws SQLException;
+    }
+
+    private ConnectionProxy(final Connection connection, final Releaser releaser,
+                            final StatementCache statementCache) {
+        this.connection = connection;
+        this.releaser = releaser;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Wraps a pooled connection into a handle which calls the releaser only once on close.
+     *
+     * @param connection a pooled connection.
+     * @param releaser   a releaser of a pooled connection.
+     * @return a connection handle.
+     */
+    static Connection wrap(final Connection connection, final Releaser releaser) {
+        return wrap(connection, releaser, null);
+    }
+
+    /**
+     * Wraps a pooled connection into a handle which calls the releaser only once on close and reuses
+     * prepared statements of the statement cache.
+     *
+     * @param connection     a pooled connection.
+     * @param releaser       a releaser of a pooled connection.
+     * @param statementCache a statement cache of a pooled connection or null.
+     * @return a connection handle.
+     */
+    static Connection wrap(final Connection connection, final Releaser releaser,
+                           final StatementCache statementCache) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class[]{Connection.class}, new ConnectionProxy(connection, releaser, statementCache));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (closed.compareAndSet(false, true)) {
+                    closeStatements();
+                    releaser.release(connection);
+                }
+
+                return null;
+            case "prepareStatement":
+                if (statementCache != null && (args.length == 1 || args.length == 2 && args[1] instanceof Integer)) {
+                    if (closed.get()) {
+                        throw new SQLException(CONNECTION_CLOSED);
+                    }
+
+                    final PreparedStatement statement = statementCache.prepare((Connection) proxy, (String) args[0],
+                            args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS);
+                    synchronized (statements) {
+                        statements.removeIf(ConnectionProxy::isReleased);
+                        statements.add(statement);
+                    }
+
+                    return InstrumentedProxy.wrap(statement);
+                }
+
+                return InstrumentedProxy.wrap(invokeConnection(method, args));
+            case "createStatement":
+            case "prepareCall":
+                return InstrumentedProxy.wrap(invokeConnection(method, args));
+            case "isClosed":
+                return closed.get() || connection.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Pooled " + connection;
+            default:
+                return invokeConnection(method, args);
+        }
+    }
+
+    private Object invokeConnection(final Method method, final Object[] args) throws Throwable {
+        if (closed.get()) {
+            throw new SQLException(CONNECTION_CLOSED);
+        }
+
+        try {
+            return method.invoke(connection, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isReleased(final Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (final SQLException e) {
+            return true;
+        }
+    }
+
+    private void closeStatements() throws SQLException {
+        // Statements which are not closed by the caller are returned to the cache with the connection
+        final List<Statement> opened;
+        synchronized (statements) {
+            opened = new ArrayList<>(statements);
+            statements.clear();
+        }
+
+        for (final Statement statement : opened) {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import org.h2.jdbc.JdbcConnection;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.ACQUIRE_TIMEOUT_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.CONNECTION_INVALID;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.POOL_WARM_UP_ERROR;
+
+/**
+ * The internal implementation of the connection pool based on the h2db connection pool.
+ */
+final class H2ConnectionPool extends AbstractConnectionPool {
+    private final static Logger LOGGER = Logger.getLogger(H2ConnectionPool.class.getSimpleName());
+    private final JdbcConnectionPool connectionPool;
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final boolean validate;
+    // The h2db pool keeps closed connections up to the peak of active ones
+    private final AtomicInteger opened = new AtomicInteger();
+
+    /**
+     * Constructs a connection pool.
+     *
+     * @param url            a database url.
+     * @param user           a database user.
+     * @param password       a database password.
+     * @param maxConnections a maximum number of connections.
+     * @param acquireTimeout a maximum time in milliseconds to wait for a free connection.
+     * @param minIdle        a number of connections that are opened on start.
+     * @param validate       a flag to validate connections before they are handed out.
+     */
+    H2ConnectionPool(final String url, final String user, final String password, final int maxConnections,
+                     final long acquireTimeout, final int minIdle, final boolean validate) {
+        super(acquireTimeout);
+        this.maxConnections = maxConnections;
+        this.validate = validate;
+        this.permits = new Semaphore(maxConnections);
+        this.connectionPool = JdbcConnectionPool.create(url, user, password);
+        this.connectionPool.setMaxConnections(maxConnections);
+        // The h2db pool waits in seconds, the permits time out before it
+        this.connectionPool.setLoginTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(acquireTimeout) + 1));
+        warmUp(Math.min(minIdle, maxConnections));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Connection acquire(final long deadline) throws SQLException {
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(String.format(ACQUIRE_TIMEOUT_ERROR, getAcquireTimeout()));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(e);
+        }
+
+        try {
+            final Connection pooledConnection = getValidConnection();
+            opened.accumulateAndGet(connectionPool.getActiveConnections(), Math::max);
+            return ConnectionProxy.wrap(pooledConnection, connection -> {
+                try {
+                    connection.close();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (final SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getActive() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getIdle() {
+        return Math.max(0, opened.get() - getActive());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private Connection getValidConnection() throws SQLException {
+        if (!validate) {
+            return connectionPool.getConnection();
+        }
+        SQLException exception = null;
+        for (int i = 0; i <= maxConnections; i++) {
+            try {
+                final Connection connection = connectionPool.getConnection();
+                if (connection.isValid(1)) {
+                    return connection;
+                }
+
+                evict(connection);
+            } catch (final SQLException e) {
+                exception = e;
+            }
+        }
+
+        throw exception != null ? exception : new SQLTransientConnectionException(CONNECTION_INVALID);
+    }
+
+    private void evict(final Connection connection) throws SQLException {
+        // The physical session is closed, so the h2db pool drops the connection when it is handed out next time
+        try {
+            connection.unwrap(JdbcConnection.class).getSession().close();
+        } catch (final SQLException | RuntimeException e) {
+            LOGGER.log(Level.FINE, CONNECTION_INVALID, e);
+        } finally {
+            opened.updateAndGet(count -> Math.max(0, count - 1));
+            connection.close();
+        }
+    }
+
+    private void warmUp(final int minIdle) {
+        final List<Connection> connections = new ArrayList<>(minIdle);
+        try {
+            for (int i = 0; i < minIdle; i++) {
+                connections.add(connectionPool.getConnection());
+            }
+        } catch (final SQLException e) {
+            LOGGER.log(Level.WARNING, POOL_WARM_UP_ERROR, e);
+        } finally {
+            opened.accumulateAndGet(connections.size(), Math::max);
+            // Closed connections are kept idle by the h2db pool
+            for (final Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (final SQLException e) {
+                    LOGGER.log(Level.WARNING, POOL_WARM_UP_ERROR, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import com.github.akarazhev.metaconfig.engine.metrics.OperationContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * The internal implementation of the statement and result set handle that adds execution and fetch times,
+ * read rows and the estimated size of read values to the operation context of the current thread.
+ */
+final class InstrumentedProxy implements InvocationHandler {
+    private final Object target;
+
+    private InstrumentedProxy(final Object target) {
+        this.target = target;
+    }
+
+    /**
+     * Wraps a statement or a result set if the current thread executes an instrumented operation.
+     *
+     * @param target a statement, a result set or another object.
+     * @return a handle or the target.
+     */
+    static Object wrap(final Object target) {
+        if (OperationContext.current() == null) {
+            return target;
+        }
+
+        final Class<?> type = target instanceof CallableStatement ? CallableStatement.class :
+                target instanceof PreparedStatement ? PreparedStatement.class :
+                        target instanceof Statement ? Statement.class :
+                                target instanceof ResultSet ? ResultSet.class : null;
+        return type != null ?
+                Proxy.newProxyInstance(InstrumentedProxy.class.getClassLoader(), new Class[]{type},
+                        new InstrumentedProxy(target)) :
+                target;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+
+        final OperationContext context = OperationContext.current();
+        if (context == null) {
+            return wrap(invokeTarget(method, args));
+        }
+
+        if (name.startsWith("execute") || "next".equals(name)) {
+            final long started = System.nanoTime();
+            final Object result = invokeTarget(method, args);
+            context.addQueryTime(System.nanoTime() - started);
+            if (Boolean.TRUE.equals(result) && "next".equals(name)) {
+                context.addRows(1);
+            }
+
+            return wrap(result);
+        }
+
+        final Object result = invokeTarget(method, args);
+        if (result instanceof String) {
+            context.addBytes(2L * ((String) result).length());
+        } else if (result instanceof Number) {
+            context.addBytes(Long.BYTES);
+        }
+
+        return wrap(result);
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
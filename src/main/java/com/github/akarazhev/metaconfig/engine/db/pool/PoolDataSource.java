@@ -0,0 +1,128 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.NOT_WRAPPER;
+
+/**
+ * The internal implementation of the datasource that hands out connections of a connection pool.
+ */
+final class PoolDataSource implements DataSource {
+    private final ConnectionSupplier supplier;
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * Provides a method to acquire a connection.
+     */
+    @FunctionalInterface
+    interface ConnectionSupplier {
+        /**
+         * Acquires a connection.
+         *
+         * @return a connection.
+         * @throws SQLException when a connection can not be acquired.
+         */
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Constructs a datasource based on the supplier of connections.
+     *
+     * @param supplier a supplier of connections.
+     */
+    PoolDataSource(final ConnectionSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return supplier.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLogWriter(final PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLoginTimeout(final int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (isWrapperFor(iface)) {
+            return iface.cast(this);
+        }
+
+        throw new SQLException(String.format(NOT_WRAPPER, iface.getName()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) {
+        return iface != null && iface.isInstance(this);
+    }
+}
@@ -0,0 +1,139 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import com.github.akarazhev.metaconfig.engine.metrics.Histogram;
+
+/**
+ * The immutable snapshot of connection pool metrics.
+ */
+public final class PoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long acquisitions;
+    private final long timeouts;
+    private final Histogram.Snapshot acquireLatency;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    PoolMetrics(final int active, final int idle, final int waiting, final long acquisitions, final long timeouts,
+                final Histogram.Snapshot acquireLatency, final long statementCacheHits,
+                final long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.acquireLatency = acquireLatency;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /**
+     * Returns the number of connections that are handed out.
+     *
+     * @return a number of connections.
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * Returns the number of opened connections that are not handed out.
+     *
+     * @return a number of connections.
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * Returns the estimated number of threads that wait for a connection.
+     *
+     * @return a number of threads.
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Returns the total number of acquired connections.
+     *
+     * @return a number of acquisitions.
+     */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * Returns the total number of acquisitions that are timed out.
+     *
+     * @return a number of timeouts.
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the histogram of durations to acquire a connection.
+     *
+     * @return a histogram snapshot.
+     */
+    public Histogram.Snapshot getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    /**
+     * Returns the total number of prepared statements that are reused from statement caches.
+     *
+     * @return a number of hits.
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * Returns the total number of prepared statements that are not found in statement caches.
+     *
+     * @return a number of misses.
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * Returns the ratio of reused prepared statements.
+     *
+     * @return a hit rate from 0 to 1.
+     */
+    public double getStatementCacheHitRate() {
+        final long total = statementCacheHits + statementCacheMisses;
+        return total > 0 ? (double) statementCacheHits / total : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", waiting=" + waiting +
+                ", acquisitions=" + acquisitions +
+                ", timeouts=" + timeouts +
+                ", acquireLatencyP99=" + acquireLatency.getPercentile(99) +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses +
+                '}';
+    }
+}
@@ -0,0 +1,197 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.STATEMENT_CLOSED;
+
+/**
+ * The internal LRU cache of prepared statements of a pooled connection, statements are keyed by sql.
+ * A statement is taken out of the cache while it is used and returned to it on close, so a statement is never
+ * shared. The least recently used statements are closed when the cache is full.
+ */
+final class StatementCache {
+    private final Connection connection;
+    private final int size;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    // The access order is the LRU order
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed;
+
+    /**
+     * Constructs a statement cache.
+     *
+     * @param connection a pooled connection.
+     * @param size       a maximum number of cached statements.
+     * @param hits       a counter of reused statements.
+     * @param misses     a counter of prepared statements.
+     */
+    StatementCache(final Connection connection, final int size, final LongAdder hits, final LongAdder misses) {
+        this.connection = connection;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Returns a cached or a new prepared statement, it is returned to the cache on close.
+     *
+     * @param handle            a connection handle which the statement belongs to.
+     * @param sql               an sql statement.
+     * @param autoGeneratedKeys a flag of generated keys.
+     * @return a prepared statement.
+     * @throws SQLException when a statement can not be prepared.
+     */
+    PreparedStatement prepare(final Connection handle, final String sql, final int autoGeneratedKeys)
+            throws SQLException {
+        final String key = autoGeneratedKeys + ":" + sql;
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = statements.remove(key);
+        }
+
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = autoGeneratedKeys == Statement.NO_GENERATED_KEYS ?
+                    connection.prepareStatement(sql) :
+                    connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                new Class[]{PreparedStatement.class}, new CachedStatement(handle, key, statement));
+    }
+
+    /**
+     * Closes all cached statements, statements which are used are closed when they are returned.
+     */
+    void close() {
+        final List<PreparedStatement> evicted;
+        synchronized (this) {
+            closed = true;
+            evicted = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+
+        evicted.forEach(StatementCache::closeQuietly);
+    }
+
+    private void release(final String key, final PreparedStatement statement, final int fetchSize) {
+        try {
+            // The state of the previous use is not visible to the next one
+            final ResultSet resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            // The fetch size must not exceed max rows
+            statement.setMaxRows(0);
+            statement.setFetchSize(fetchSize);
+            statement.setQueryTimeout(0);
+        } catch (final SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+
+        final List<PreparedStatement> evicted = new ArrayList<>(1);
+        synchronized (this) {
+            if (closed || statements.containsKey(key)) {
+                evicted.add(statement);
+            } else {
+                statements.put(key, statement);
+                final Iterator<PreparedStatement> iterator = statements.values().iterator();
+                while (statements.size() > size && iterator.hasNext()) {
+                    evicted.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+        }
+
+        evicted.forEach(StatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (final SQLException e) {
+            // Ignore, the statement is released with the connection
+        }
+    }
+
+    private final class CachedStatement implements InvocationHandler {
+        private final Connection handle;
+        private final String key;
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private CachedStatement(final Connection handle, final String key, final PreparedStatement statement)
+                throws SQLException {
+            this.handle = handle;
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        release(key, statement, fetchSize);
+                    }
+
+                    return null;
+                case "isClosed":
+                    return released.get() || statement.isClosed();
+                case "getConnection":
+                    return handle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached " + statement;
+                default:
+                    if (released.get()) {
+                        throw new SQLException(STATEMENT_CLOSED);
+                    }
+
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (final InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.ANALYZE_AUTO;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.COMPRESS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.LAZY_QUERY_EXECUTION;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.LOCK_TIMEOUT;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_COMPACT_TIME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_MEMORY_ROWS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE_DEFAULT;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE_READ_HEAVY;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE_WRITE_HEAVY;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.QUERY_CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.RETENTION_TIME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.WRITE_DELAY;
+
+/**
+ * Assembles storage settings of the connection pool config into the url. Settings of a profile are applied first,
+ * explicit settings override them. Settings which are already in the url are not changed. The database server
+ * opens a database with settings of the url, so they are also applied in the tcp mode.
+ */
+final class StorageSettings {
+    // Keys of the config and the url
+    private static final Map<String, String> URL_KEYS = new LinkedHashMap<>();
+    // Settings of profiles
+    private static final Map<String, Map<String, String>> PROFILES = new HashMap<>();
+
+    static {
+        URL_KEYS.put(CACHE_SIZE, "CACHE_SIZE");
+        URL_KEYS.put(WRITE_DELAY, "WRITE_DELAY");
+        URL_KEYS.put(COMPRESS, "COMPRESS");
+        URL_KEYS.put(LOCK_TIMEOUT, "LOCK_TIMEOUT");
+        URL_KEYS.put(QUERY_CACHE_SIZE, "QUERY_CACHE_SIZE");
+        URL_KEYS.put(LAZY_QUERY_EXECUTION, "LAZY_QUERY_EXECUTION");
+        URL_KEYS.put(MAX_MEMORY_ROWS, "MAX_MEMORY_ROWS");
+        URL_KEYS.put(MAX_COMPACT_TIME, "MAX_COMPACT_TIME");
+        URL_KEYS.put(RETENTION_TIME, "RETENTION_TIME");
+        URL_KEYS.put(ANALYZE_AUTO, "ANALYZE_AUTO");
+        // Reads are served from a large page cache, statements are parsed once
+        final Map<String, String> readHeavy = new HashMap<>();
+        readHeavy.put(CACHE_SIZE, "65536");
+        readHeavy.put(QUERY_CACHE_SIZE, "64");
+        readHeavy.put(LOCK_TIMEOUT, "1000");
+        // Writes are flushed less often, space is reused sooner and statistics are not updated on every write
+        final Map<String, String> writeHeavy = new HashMap<>();
+        writeHeavy.put(CACHE_SIZE, "32768");
+        writeHeavy.put(WRITE_DELAY, "2000");
+        writeHeavy.put(LOCK_TIMEOUT, "10000");
+        writeHeavy.put(RETENTION_TIME, "1000");
+        writeHeavy.put(MAX_COMPACT_TIME, "1000");
+        writeHeavy.put(ANALYZE_AUTO, "0");
+        PROFILES.put(PROFILE_DEFAULT, Collections.emptyMap());
+        PROFILES.put(PROFILE_READ_HEAVY, readHeavy);
+        PROFILES.put(PROFILE_WRITE_HEAVY, writeHeavy);
+    }
+
+    private StorageSettings() {
+        throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+    }
+
+    /**
+     * Checks that the profile is supported.
+     *
+     * @param profile a profile.
+     * @return true if the profile is supported.
+     */
+    static boolean isProfile(final String profile) {
+        return PROFILES.containsKey(profile);
+    }
+
+    /**
+     * Returns the url with storage settings of the config.
+     *
+     * @param url    an url.
+     * @param config a configuration of a connection pool.
+     * @return an url with settings.
+     */
+    static String apply(final String url, final Config config) {
+        final Map<String, String> settings = new HashMap<>(PROFILES.getOrDefault(config.getProperty(PROFILE).
+                map(Property::getValue).
+                orElse(PROFILE_DEFAULT), Collections.emptyMap()));
+        URL_KEYS.keySet().forEach(key -> config.getProperty(key).
+                ifPresent(property -> settings.put(key, property.getType() == Property.Type.BOOL ?
+                        String.valueOf(property.asBool()).toUpperCase(Locale.ROOT) :
+                        property.getValue())));
+        final StringBuilder builder = new StringBuilder(url);
+        final String upperUrl = url.toUpperCase(Locale.ROOT);
+        for (final Map.Entry<String, String> key : URL_KEYS.entrySet()) {
+            final String value = settings.get(key.getKey());
+            if (value != null && !upperUrl.contains(";" + key.getValue() + "=")) {
+                builder.append(';').append(key.getValue()).append('=').append(value);
+            }
+        }
+
+        return builder.toString();
+    }
+}
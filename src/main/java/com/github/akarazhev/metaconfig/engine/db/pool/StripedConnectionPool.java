@@ -0,0 +1,332 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.ACQUIRE_TIMEOUT_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.CONNECTION_CLOSE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.POOL_CLOSED;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.POOL_WARM_UP_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WAIT_QUEUE_FULL;
+
+/**
+ * The internal implementation of the connection pool that does not serialize checkouts on a single monitor.
+ * A thread first tries the connection it used last time, then claims a free slot starting from its own stripe,
+ * and only waits on the monitor when the pool is exhausted. The number of waiting threads is bounded.
+ */
+final class StripedConnectionPool extends AbstractConnectionPool {
+    private final static Logger LOGGER = Logger.getLogger(StripedConnectionPool.class.getSimpleName());
+    private final JdbcDataSource source = new JdbcDataSource();
+    private final ThreadLocal<Slot> lastSlot = new ThreadLocal<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Object monitor = new Object();
+    private final int maxConnections;
+    private final int maxWaiters;
+    private final int statementCacheSize;
+    private final boolean validate;
+    // Copy on write, it is replaced under the lock of the monitor
+    private volatile Slot[] slots = new Slot[0];
+    private volatile boolean closed;
+
+    /**
+     * Constructs a connection pool.
+     *
+     * @param url                a database url.
+     * @param user               a database user.
+     * @param password           a database password.
+     * @param maxConnections     a maximum number of connections.
+     * @param acquireTimeout     a maximum time in milliseconds to wait for a free connection.
+     * @param minIdle            a number of connections that are opened on start.
+     * @param validate           a flag to validate connections before they are handed out.
+     * @param maxWaiters         a maximum number of threads that wait for a free connection.
+     * @param statementCacheSize a maximum number of cached prepared statements of a connection.
+     */
+    StripedConnectionPool(final String url, final String user, final String password, final int maxConnections,
+                          final long acquireTimeout, final int minIdle, final boolean validate,
+                          final int maxWaiters, final int statementCacheSize) {
+        super(acquireTimeout);
+        this.maxConnections = maxConnections;
+        this.maxWaiters = maxWaiters;
+        this.statementCacheSize = statementCacheSize;
+        this.validate = validate;
+        this.source.setURL(url);
+        this.source.setUser(user);
+        this.source.setPassword(password);
+        warmUp(Math.min(minIdle, maxConnections));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (final Slot slot : slots) {
+            if (slot.state.compareAndSet(Slot.FREE, Slot.REMOVED)) {
+                remove(slot);
+            }
+        }
+
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Connection acquire(final long deadline) throws SQLException {
+        while (true) {
+            final Slot slot = claim(deadline);
+            if (!validate || slot.connection.isValid(1)) {
+                return ConnectionProxy.wrap(slot.connection, connection -> release(slot), slot.statementCache);
+            }
+
+            slot.state.set(Slot.REMOVED);
+            remove(slot);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getActive() {
+        return count(Slot.USED);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getIdle() {
+        return count(Slot.FREE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWaiting() {
+        return waiters.get();
+    }
+
+    private Slot claim(final long deadline) throws SQLException {
+        checkClosed();
+        // The thread-affine fast path
+        Slot slot = lastSlot.get();
+        if (slot != null && slot.state.compareAndSet(Slot.FREE, Slot.USED)) {
+            return slot;
+        }
+
+        slot = claimFree();
+        if (slot == null) {
+            slot = open();
+        }
+
+        if (slot != null) {
+            return slot;
+        }
+        // The slow path, the pool is exhausted
+        if (waiters.incrementAndGet() > maxWaiters) {
+            waiters.decrementAndGet();
+            throw new SQLTransientConnectionException(String.format(WAIT_QUEUE_FULL, maxWaiters));
+        }
+
+        try {
+            synchronized (monitor) {
+                while (true) {
+                    checkClosed();
+                    slot = claimFree();
+                    if (slot == null) {
+                        slot = open();
+                    }
+
+                    if (slot != null) {
+                        return slot;
+                    }
+
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTransientConnectionException(String.format(ACQUIRE_TIMEOUT_ERROR,
+                                getAcquireTimeout()));
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private Slot claimFree() {
+        final Slot[] current = slots;
+        final int length = current.length;
+        if (length > 0) {
+            final int stripe = (int) (Thread.currentThread().getId() % length);
+            for (int i = 0; i < length; i++) {
+                final Slot slot = current[(stripe + i) % length];
+                if (slot.state.compareAndSet(Slot.FREE, Slot.USED)) {
+                    return slot;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private Slot open() throws SQLException {
+        int current;
+        do {
+            current = size.get();
+            if (current >= maxConnections) {
+                return null;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        try {
+            final Connection connection = source.getConnection();
+            final Slot slot = new Slot(connection, newStatementCache(connection, statementCacheSize));
+            synchronized (monitor) {
+                final Slot[] updated = Arrays.copyOf(slots, slots.length + 1);
+                updated[updated.length - 1] = slot;
+                slots = updated;
+            }
+
+            return slot;
+        } catch (final SQLException | RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(final Slot slot) {
+        try {
+            if (slot.connection.isClosed()) {
+                // The connection is closed by the database, e.g. on shutdown
+                slot.state.set(Slot.REMOVED);
+            } else if (!slot.connection.getAutoCommit()) {
+                slot.connection.rollback();
+                slot.connection.setAutoCommit(true);
+            }
+        } catch (final SQLException e) {
+            LOGGER.log(Level.WARNING, CONNECTION_CLOSE_ERROR, e);
+            slot.state.set(Slot.REMOVED);
+        }
+
+        if (closed || !slot.state.compareAndSet(Slot.USED, Slot.FREE)) {
+            slot.state.set(Slot.REMOVED);
+            remove(slot);
+        } else {
+            lastSlot.set(slot);
+        }
+
+        if (waiters.get() > 0) {
+            synchronized (monitor) {
+                monitor.notify();
+            }
+        }
+    }
+
+    private void remove(final Slot slot) {
+        synchronized (monitor) {
+            final Slot[] current = slots;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == slot) {
+                    final Slot[] updated = new Slot[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    slots = updated;
+                    size.decrementAndGet();
+                    break;
+                }
+            }
+        }
+
+        if (slot.statementCache != null) {
+            slot.statementCache.close();
+        }
+
+        try {
+            slot.connection.close();
+        } catch (final SQLException e) {
+            LOGGER.log(Level.WARNING, CONNECTION_CLOSE_ERROR, e);
+        }
+    }
+
+    private int count(final int state) {
+        int count = 0;
+        for (final Slot slot : slots) {
+            if (slot.state.get() == state) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private void checkClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException(POOL_CLOSED);
+        }
+    }
+
+    private void warmUp(final int minIdle) {
+        try {
+            for (int i = 0; i < minIdle; i++) {
+                final Slot slot = open();
+                if (slot != null) {
+                    slot.state.set(Slot.FREE);
+                }
+            }
+        } catch (final SQLException e) {
+            LOGGER.log(Level.WARNING, POOL_WARM_UP_ERROR, e);
+        }
+    }
+
+    private static final class Slot {
+        private static final int REMOVED = -1;
+        private static final int FREE = 0;
+        private static final int USED = 1;
+        private final AtomicInteger state = new AtomicInteger(USED);
+        private final Connection connection;
+        private final StatementCache statementCache;
+
+        private Slot(final Connection connection, final StatementCache statementCache) {
+            this.connection = connection;
+            this.statementCache = statementCache;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.slowlog;
+
+/**
+ * The immutable record of a statement which has been executed longer than the threshold.
+ */
+public final class SlowQuery {
+    private final long timestamp;
+    private final String sql;
+    private final int parameters;
+    private final long duration;
+    private final String plan;
+
+    SlowQuery(final long timestamp, final String sql, final int parameters, final long duration, final String plan) {
+        this.timestamp = timestamp;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.duration = duration;
+        this.plan = plan;
+    }
+
+    /**
+     * Returns the time when the statement has been completed.
+     *
+     * @return a time in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the sql of the statement.
+     *
+     * @return a sql.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the number of parameters of the statement.
+     *
+     * @return a number of parameters.
+     */
+    public int getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the duration of the execution.
+     *
+     * @return a duration in nanoseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the plan of the statement.
+     *
+     * @return a plan or null if it is not captured.
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "SlowQuery{" +
+                "timestamp=" + timestamp +
+                ", sql='" + sql + '\'' +
+                ", parameters=" + parameters +
+                ", duration=" + duration +
+                ", plan='" + plan + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,137 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.slowlog;
+
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SLOW_QUERY;
+
+/**
+ * Records statements which are executed longer than the threshold to a ring buffer, the oldest records are
+ * overwritten. Plans of statements are optionally captured with {@code EXPLAIN ANALYZE} for queries
+ * and {@code EXPLAIN} for other statements.
+ */
+public final class SlowQueryLog {
+    private final static Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getSimpleName());
+    private final long threshold;
+    private final boolean explain;
+    private final AtomicReferenceArray<SlowQuery> queries;
+    private final AtomicLong count = new AtomicLong();
+
+    SlowQueryLog(final long threshold, final int size, final boolean explain) {
+        this.threshold = threshold;
+        this.explain = explain;
+        this.queries = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Returns a connection pool which data source records slow statements to the log.
+     *
+     * @param connectionPool a connection pool.
+     * @return a connection pool.
+     */
+    public ConnectionPool wrap(final ConnectionPool connectionPool) {
+        return new LoggedConnectionPool(connectionPool, SlowQueryProxy.wrap(connectionPool.getDataSource(), this));
+    }
+
+    /**
+     * Returns recorded slow statements from the oldest to the latest one.
+     *
+     * @return a list of slow statements.
+     */
+    public List<SlowQuery> getQueries() {
+        final long last = count.get();
+        final List<SlowQuery> slowQueries = new ArrayList<>();
+        for (long i = Math.max(0, last - queries.length()); i < last; i++) {
+            final SlowQuery slowQuery = queries.get((int) (i % queries.length()));
+            if (slowQuery != null) {
+                slowQueries.add(slowQuery);
+            }
+        }
+
+        return Collections.unmodifiableList(slowQueries);
+    }
+
+    /**
+     * Returns the number of all recorded slow statements including overwritten ones.
+     *
+     * @return a number of slow statements.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    long getThreshold() {
+        return threshold;
+    }
+
+    boolean isExplain() {
+        return explain;
+    }
+
+    void record(final SlowQuery slowQuery) {
+        queries.set((int) (count.getAndIncrement() % queries.length()), slowQuery);
+        LOGGER.log(Level.WARNING, String.format(SLOW_QUERY,
+                TimeUnit.NANOSECONDS.toMillis(slowQuery.getDuration()), slowQuery.getSql()));
+    }
+
+    private static final class LoggedConnectionPool implements ConnectionPool {
+        private final ConnectionPool connectionPool;
+        private final DataSource dataSource;
+
+        private LoggedConnectionPool(final ConnectionPool connectionPool, final DataSource dataSource) {
+            this.connectionPool = connectionPool;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        @Override
+        public PoolMetrics getMetrics() {
+            return connectionPool.getMetrics();
+        }
+
+        @Override
+        public int getActive() {
+            return connectionPool.getActive();
+        }
+
+        @Override
+        public int getWaiting() {
+            return connectionPool.getWaiting();
+        }
+
+        @Override
+        public int getMaxConnections() {
+            return connectionPool.getMaxConnections();
+        }
+
+        @Override
+        public void close() throws IOException {
+            connectionPool.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.slowlog;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.EXPLAIN;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.EXPLAIN_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.SIZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.THRESHOLD;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.THRESHOLD_VALUE;
+
+/**
+ * Provides factory methods to create a slow query log.
+ */
+public final class SlowQueryLogs {
+
+    private SlowQueryLogs() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the slow query log.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "slow-query-log";
+        // The threshold key (milliseconds)
+        public static final String THRESHOLD = "threshold";
+        // The threshold value
+        static final long THRESHOLD_VALUE = 100;
+        // The size key of the ring buffer
+        public static final String SIZE = "size";
+        // The size value
+        static final int SIZE_VALUE = 100;
+        // The explain key
+        public static final String EXPLAIN = "explain";
+        // The explain value
+        static final boolean EXPLAIN_VALUE = false;
+    }
+
+    /**
+     * Returns a default slow query log.
+     *
+     * @return a slow query log.
+     */
+    public static SlowQueryLog newLog() {
+        return newLog(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(THRESHOLD, THRESHOLD_VALUE).build(),
+                new Property.Builder(SIZE, SIZE_VALUE).build(),
+                new Property.Builder(EXPLAIN, EXPLAIN_VALUE).build())).build());
+    }
+
+    /**
+     * Returns a slow query log based on the configuration.
+     *
+     * @param config a configuration of a slow query log.
+     * @return a slow query log.
+     */
+    public static SlowQueryLog newLog(final Config config) {
+        // Validate the config
+        final Config logConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(THRESHOLD).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, THRESHOLD)).
+                validate(c -> c.getProperty(SIZE).
+                                map(p -> p.asLong() > 0 && p.asLong() <= Integer.MAX_VALUE).
+                                orElse(true),
+                        String.format(WRONG_PARAM_VALUE, SIZE)).
+                get();
+        // Get the threshold
+        final long threshold = logConfig.getProperty(THRESHOLD).
+                map(Property::asLong).
+                orElse(THRESHOLD_VALUE);
+        // Get the size
+        final int size = logConfig.getProperty(SIZE).
+                map(p -> (int) p.asLong()).
+                orElse(SIZE_VALUE);
+        // Get the explain
+        final boolean explain = logConfig.getProperty(EXPLAIN).
+                map(Property::asBool).
+                orElse(EXPLAIN_VALUE);
+        // Create the slow query log
+        return new SlowQueryLog(TimeUnit.MILLISECONDS.toNanos(threshold), size, explain);
+    }
+}
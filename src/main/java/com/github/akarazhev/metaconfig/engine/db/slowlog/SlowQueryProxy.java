@@ -0,0 +1,204 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.slowlog;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SLOW_QUERY_PLAN_ERROR;
+
+/**
+ * The internal implementation of the data source, connection and statement handle that measures executions
+ * of statements and records slow ones to the slow query log.
+ */
+final class SlowQueryProxy implements InvocationHandler {
+    private final static Logger LOGGER = Logger.getLogger(SlowQueryProxy.class.getSimpleName());
+    private static final Collection<String> EXPLAINED = Arrays.asList("SELECT", "INSERT", "UPDATE", "DELETE", "MERGE");
+    private final SlowQueryLog slowQueryLog;
+    private final Object target;
+    private final Connection connection;
+    private final String sql;
+    private final Map<Integer, Parameter> parameters = new HashMap<>();
+    private final List<String> batch = new ArrayList<>();
+
+    private SlowQueryProxy(final SlowQueryLog slowQueryLog, final Object target, final Connection connection,
+                           final String sql) {
+        this.slowQueryLog = slowQueryLog;
+        this.target = target;
+        this.connection = connection;
+        this.sql = sql;
+    }
+
+    /**
+     * Wraps a data source, so connections and statements of it are measured.
+     *
+     * @param dataSource   a data source.
+     * @param slowQueryLog a slow query log.
+     * @return a handle of the data source.
+     */
+    static DataSource wrap(final DataSource dataSource, final SlowQueryLog slowQueryLog) {
+        return newProxy(DataSource.class, new SlowQueryProxy(slowQueryLog, dataSource, null, null));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+
+        if (target instanceof DataSource) {
+            final Object result = invokeTarget(method, args);
+            return result instanceof Connection ?
+                    newProxy(Connection.class, new SlowQueryProxy(slowQueryLog, result, (Connection) result, null)) :
+                    result;
+        } else if (target instanceof Connection) {
+            final Object result = invokeTarget(method, args);
+            if (result instanceof Statement) {
+                final Class<? extends Statement> type = result instanceof CallableStatement ? CallableStatement.class :
+                        result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                final String statementSql = type != Statement.class ? (String) args[0] : null;
+                return newProxy(type, new SlowQueryProxy(slowQueryLog, result, connection, statementSql));
+            }
+
+            return result;
+        }
+
+        return invokeStatement(method, args);
+    }
+
+    private Object invokeStatement(final Method method, final Object[] args) throws Throwable {
+        final String name = method.getName();
+        if (name.startsWith("execute")) {
+            final String executedSql = sql != null ? sql :
+                    args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] :
+                            String.join("; ", batch);
+            final long started = System.nanoTime();
+            boolean executed = false;
+            try {
+                final Object result = invokeTarget(method, args);
+                executed = true;
+                return result;
+            } finally {
+                final long duration = System.nanoTime() - started;
+                if (duration >= slowQueryLog.getThreshold()) {
+                    final boolean single = sql != null || batch.size() == 0;
+                    slowQueryLog.record(new SlowQuery(System.currentTimeMillis(), executedSql, getParameterCount(),
+                            duration, executed && single && slowQueryLog.isExplain() ? explain(executedSql) : null));
+                }
+
+                if ("executeBatch".equals(name) && sql == null) {
+                    batch.clear();
+                }
+            }
+        }
+
+        if (slowQueryLog.isExplain() && sql != null && name.startsWith("set") &&
+                args != null && args.length > 1 && args[0] instanceof Integer) {
+            // Parameters are replayed on the statement of the plan
+            parameters.put((Integer) args[0], new Parameter(method, args));
+        } else if ("clearParameters".equals(name)) {
+            parameters.clear();
+        } else if ("addBatch".equals(name) && sql == null) {
+            batch.add((String) args[0]);
+        } else if ("clearBatch".equals(name)) {
+            batch.clear();
+        }
+
+        return invokeTarget(method, args);
+    }
+
+    private int getParameterCount() {
+        if (sql != null) {
+            try {
+                return ((PreparedStatement) target).getParameterMetaData().getParameterCount();
+            } catch (final SQLException e) {
+                // Ignore, the number of parameters is unknown
+            }
+        }
+
+        return 0;
+    }
+
+    private String explain(final String executedSql) {
+        final String command = executedSql.trim().split("\\s+", 2)[0].toUpperCase();
+        if (!EXPLAINED.contains(command)) {
+            return null;
+        }
+        // Only queries are executed again to analyze them
+        final String prefix = "SELECT".equals(command) ? "EXPLAIN ANALYZE " : "EXPLAIN ";
+        try (final PreparedStatement statement = connection.prepareStatement(prefix + executedSql)) {
+            for (final Parameter parameter : parameters.values()) {
+                parameter.method.invoke(statement, parameter.args);
+            }
+
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    if (plan.length() > 0) {
+                        plan.append('\n');
+                    }
+
+                    plan.append(resultSet.getString(1));
+                }
+
+                return plan.toString();
+            }
+        } catch (final SQLException | ReflectiveOperationException e) {
+            LOGGER.log(Level.WARNING, String.format(SLOW_QUERY_PLAN_ERROR, executedSql), e);
+            return null;
+        }
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T newProxy(final Class<T> type, final SlowQueryProxy handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryProxy.class.getClassLoader(), new Class[]{type}, handler));
+    }
+
+    private static final class Parameter {
+        private final Method method;
+        private final Object[] args;
+
+        private Parameter(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+}
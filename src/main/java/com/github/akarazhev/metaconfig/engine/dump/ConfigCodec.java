@@ -0,0 +1,284 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.dump;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_DUMP_FORMAT;
+
+/**
+ * Encodes configurations in a compact binary format: numbers are written as var-ints and strings
+ * as var-int lengths with UTF-8 bytes. With a string table, names, types and keys of properties and attributes
+ * are written as var-int indexes of the table, values, captions and descriptions are written inline.
+ */
+public final class ConfigCodec {
+
+    private ConfigCodec() {
+        throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+    }
+
+    /**
+     * The table of interned strings which are repeated across configurations.
+     */
+    public interface StringTable {
+
+        /**
+         * Returns the index of a string, a new string is added to the table.
+         *
+         * @param value a string.
+         * @return an index of the string.
+         */
+        int intern(final String value);
+
+        /**
+         * Returns a string by the index.
+         *
+         * @param index an index of a string.
+         * @return a string or null if the table does not have the index.
+         */
+        String get(final int index);
+    }
+
+    /**
+     * Writes a configuration.
+     *
+     * @param output an output.
+     * @param config a configuration.
+     * @throws IOException when an output encounters a problem.
+     */
+    public static void write(final DataOutput output, final Config config) throws IOException {
+        write(output, config, null);
+    }
+
+    /**
+     * Writes a configuration, repeated strings are interned in the string table.
+     *
+     * @param output an output.
+     * @param config a configuration.
+     * @param table  a string table or null to write all strings inline.
+     * @throws IOException when an output encounters a problem.
+     */
+    public static void write(final DataOutput output, final Config config, final StringTable table)
+            throws IOException {
+        writeLong(output, config.getId());
+        writeString(output, config.getName());
+        writeString(output, config.getDescription());
+        writeLong(output, config.getVersion());
+        writeLong(output, config.getUpdated());
+        writeAttributes(output, config.getAttributes().orElse(Collections.emptyMap()), table);
+        final Property[] properties = config.getProperties().toArray(Property[]::new);
+        writeLong(output, properties.length);
+        for (final Property property : properties) {
+            writeProperty(output, property, table);
+        }
+    }
+
+    /**
+     * Reads a configuration.
+     *
+     * @param input an input.
+     * @return a configuration.
+     * @throws IOException when an input encounters a problem.
+     */
+    public static Config read(final DataInput input) throws IOException {
+        return read(input, null);
+    }
+
+    /**
+     * Reads a configuration which is written with the string table.
+     *
+     * @param input an input.
+     * @param table a string table or null if all strings are written inline.
+     * @return a configuration.
+     * @throws IOException when an input encounters a problem.
+     */
+    public static Config read(final DataInput input, final StringTable table) throws IOException {
+        final long id = readLong(input);
+        final String name = readString(input);
+        final String description = readString(input);
+        final int version = (int) readLong(input);
+        final long updated = readLong(input);
+        final Map<String, String> attributes = readAttributes(input, table);
+        final List<Property> properties = readProperties(input, table);
+        final Config.Builder builder = new Config.Builder(requireNonNull(name), properties).
+                id(id).
+                version(version).
+                updated(updated).
+                attributes(attributes);
+        if (description != null) {
+            builder.description(description);
+        }
+
+        return builder.build();
+    }
+
+    private static void writeProperty(final DataOutput output, final Property property, final StringTable table)
+            throws IOException {
+        writeString(output, property.getName(), table);
+        writeString(output, property.getCaption());
+        writeString(output, property.getDescription());
+        writeString(output, property.getType().name(), table);
+        writeString(output, property.getValue());
+        writeAttributes(output, property.getAttributes().orElse(Collections.emptyMap()), table);
+        final Property[] properties = property.getProperties().toArray(Property[]::new);
+        writeLong(output, properties.length);
+        for (final Property child : properties) {
+            writeProperty(output, child, table);
+        }
+    }
+
+    private static Property readProperty(final DataInput input, final StringTable table) throws IOException {
+        final String name = readString(input, table);
+        final String caption = readString(input);
+        final String description = readString(input);
+        final String type = readString(input, table);
+        final String value = readString(input);
+        final Property.Builder builder = new Property.Builder(requireNonNull(name), requireNonNull(type),
+                requireNonNull(value)).
+                attributes(readAttributes(input, table));
+        if (caption != null) {
+            builder.caption(caption);
+        }
+
+        if (description != null) {
+            builder.description(description);
+        }
+
+        final List<Property> properties = readProperties(input, table);
+        if (properties.size() > 0) {
+            builder.properties(new String[0], properties);
+        }
+
+        return builder.build();
+    }
+
+    private static List<Property> readProperties(final DataInput input, final StringTable table)
+            throws IOException {
+        final int size = readSize(input);
+        final List<Property> properties = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            properties.add(readProperty(input, table));
+        }
+
+        return properties;
+    }
+
+    private static void writeAttributes(final DataOutput output, final Map<String, String> attributes,
+                                        final StringTable table) throws IOException {
+        writeLong(output, attributes.size());
+        for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+            writeString(output, attribute.getKey(), table);
+            writeString(output, attribute.getValue());
+        }
+    }
+
+    private static Map<String, String> readAttributes(final DataInput input, final StringTable table)
+            throws IOException {
+        final int size = readSize(input);
+        final Map<String, String> attributes = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            attributes.put(requireNonNull(readString(input, table)), readString(input));
+        }
+
+        return attributes;
+    }
+
+    private static void writeString(final DataOutput output, final String value, final StringTable table)
+            throws IOException {
+        if (table == null) {
+            writeString(output, value);
+        } else {
+            writeLong(output, value == null ? 0 : table.intern(value) + 1L);
+        }
+    }
+
+    private static String readString(final DataInput input, final StringTable table) throws IOException {
+        if (table == null) {
+            return readString(input);
+        }
+
+        final int index = readSize(input);
+        return index == 0 ? null : requireNonNull(table.get(index - 1));
+    }
+
+    private static void writeString(final DataOutput output, final String value) throws IOException {
+        if (value == null) {
+            writeLong(output, 0);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLong(output, bytes.length + 1L);
+            output.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInput input) throws IOException {
+        final int length = readSize(input);
+        if (length == 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length - 1];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(final DataOutput output, final long value) throws IOException {
+        long bits = value;
+        while ((bits & ~0x7FL) != 0) {
+            output.writeByte((int) ((bits & 0x7F) | 0x80));
+            bits >>>= 7;
+        }
+
+        output.writeByte((int) bits);
+    }
+
+    private static long readLong(final DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException(WRONG_DUMP_FORMAT);
+    }
+
+    private static int readSize(final DataInput input) throws IOException {
+        final long size = readLong(input);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException(WRONG_DUMP_FORMAT);
+        }
+
+        return (int) size;
+    }
+
+    private static <T> T requireNonNull(final T value) throws IOException {
+        if (value == null) {
+            throw new IOException(WRONG_DUMP_FORMAT);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.dump;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_DUMP_FORMAT;
+
+/**
+ * Writes and reads dumps of configurations. A dump is a compressed sequence of encoded configurations,
+ * so it is written and read with constant heap.
+ */
+public final class ConfigDumps {
+    // The first bytes of a dump
+    private static final int MAGIC = 0x4D434644;
+    // The version of the format
+    private static final int VERSION = 1;
+    // The marker of the next config
+    private static final int NEXT = 1;
+    // The marker of the end of a dump
+    private static final int END = 0;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ConfigDumps() {
+        throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+    }
+
+    /**
+     * Writes configurations to a dump.
+     *
+     * @param stream a stream of configurations.
+     * @param path   a path of a dump.
+     * @return a number of written configurations.
+     * @throws IOException when a dump can not be written.
+     */
+    public static long write(final Stream<Config> stream, final Path path) throws IOException {
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(path), BUFFER_SIZE), BUFFER_SIZE))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            long count = 0;
+            final Iterator<Config> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                output.writeByte(NEXT);
+                ConfigCodec.write(output, iterator.next());
+                count++;
+            }
+
+            output.writeByte(END);
+            return count;
+        }
+    }
+
+    /**
+     * Returns a lazy stream of configurations of a dump, it must be closed to release the file.
+     *
+     * @param path a path of a dump.
+     * @return a stream of configurations.
+     * @throws IOException when a dump can not be read.
+     */
+    public static Stream<Config> read(final Path path) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE), BUFFER_SIZE));
+        try {
+            if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+                throw new IOException(WRONG_DUMP_FORMAT);
+            }
+        } catch (final IOException e) {
+            input.close();
+            throw e;
+        }
+
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Config>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean ended;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super Config> action) {
+                if (ended) {
+                    return false;
+                }
+
+                try {
+                    final int marker = input.readByte();
+                    if (marker == NEXT) {
+                        action.accept(ConfigCodec.read(input));
+                        return true;
+                    } else if (marker == END) {
+                        ended = true;
+                        return false;
+                    }
+
+                    throw new IOException(WRONG_DUMP_FORMAT);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, false).onClose(() -> {
+            try {
+                input.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,90 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.maintenance;
+
+/**
+ * The immutable snapshot of maintenance metrics.
+ */
+public final class MaintenanceMetrics {
+    private final long runs;
+    private final long skips;
+    private final long fileSizeBefore;
+    private final long fileSizeAfter;
+    private final long duration;
+
+    MaintenanceMetrics(final long runs, final long skips, final long fileSizeBefore, final long fileSizeAfter,
+                       final long duration) {
+        this.runs = runs;
+        this.skips = skips;
+        this.fileSizeBefore = fileSizeBefore;
+        this.fileSizeAfter = fileSizeAfter;
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the number of completed maintenance runs.
+     *
+     * @return a number of runs.
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Returns the number of maintenance runs that are skipped because of the load.
+     *
+     * @return a number of skips.
+     */
+    public long getSkips() {
+        return skips;
+    }
+
+    /**
+     * Returns the size of the database file before the last maintenance run.
+     *
+     * @return a size in bytes.
+     */
+    public long getFileSizeBefore() {
+        return fileSizeBefore;
+    }
+
+    /**
+     * Returns the size of the database file after the last maintenance run.
+     *
+     * @return a size in bytes.
+     */
+    public long getFileSizeAfter() {
+        return fileSizeAfter;
+    }
+
+    /**
+     * Returns the duration of the last maintenance run.
+     *
+     * @return a duration in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "MaintenanceMetrics{" +
+                "runs=" + runs +
+                ", skips=" + skips +
+                ", fileSizeBefore=" + fileSizeBefore +
+                ", fileSizeAfter=" + fileSizeAfter +
+                ", duration=" + duration +
+                '}';
+    }
+}
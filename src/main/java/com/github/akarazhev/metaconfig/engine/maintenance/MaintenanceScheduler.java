@@ -0,0 +1,187 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.maintenance;
+
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import org.h2.engine.Session;
+import org.h2.engine.SessionInterface;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.db.MVTableEngine;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.MAINTENANCE_COMPLETED;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.MAINTENANCE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.MAINTENANCE_SKIPPED;
+
+/**
+ * Periodically compacts the database file and updates statistics of tables when the connection pool is not loaded.
+ * The file is compacted online only in the embedded mode, the database of the tcp server can be compacted
+ * by the shutdown compaction on close.
+ */
+public final class MaintenanceScheduler implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(MaintenanceScheduler.class.getSimpleName());
+    private final ConnectionPool connectionPool;
+    private final long interval;
+    private final long compactTime;
+    private final boolean analyze;
+    private final int maxActive;
+    private final boolean shutdownCompact;
+    private ScheduledExecutorService executor;
+    private long runs;
+    private long skips;
+    private long fileSizeBefore;
+    private long fileSizeAfter;
+    private long duration;
+
+    MaintenanceScheduler(final ConnectionPool connectionPool, final long interval, final long compactTime,
+                         final boolean analyze, final int maxActive, final boolean shutdownCompact) {
+        this.connectionPool = connectionPool;
+        this.interval = interval;
+        this.compactTime = compactTime;
+        this.analyze = analyze;
+        this.maxActive = maxActive;
+        this.shutdownCompact = shutdownCompact;
+    }
+
+    /**
+     * Starts periodic maintenance.
+     *
+     * @return a maintenance scheduler.
+     */
+    public synchronized MaintenanceScheduler start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "maintenance-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::runSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        return this;
+    }
+
+    /**
+     * Compacts the database file and updates statistics of tables, if the connection pool is not loaded.
+     *
+     * @return true if maintenance is completed, false if it is skipped.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public synchronized boolean run() throws SQLException {
+        final int active = connectionPool.getActive();
+        if (active > maxActive || connectionPool.getWaiting() > 0) {
+            skips++;
+            LOGGER.log(Level.FINE, String.format(MAINTENANCE_SKIPPED, active));
+            return false;
+        }
+
+        final long started = System.currentTimeMillis();
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            final long before = getFileSize(connection);
+            if (compactTime > 0) {
+                compact(connection);
+            }
+
+            if (analyze) {
+                try (final Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE");
+                }
+            }
+
+            fileSizeBefore = before;
+            fileSizeAfter = getFileSize(connection);
+        }
+
+        duration = System.currentTimeMillis() - started;
+        runs++;
+        LOGGER.log(Level.INFO, String.format(MAINTENANCE_COMPLETED, fileSizeBefore, fileSizeAfter, duration));
+        return true;
+    }
+
+    /**
+     * Returns a snapshot of the maintenance metrics.
+     *
+     * @return maintenance metrics.
+     */
+    public synchronized MaintenanceMetrics getMetrics() {
+        return new MaintenanceMetrics(runs, skips, fileSizeBefore, fileSizeAfter, duration);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            if (shutdownCompact) {
+                // The database is closed and fully compacted, connections of the pool are not valid any more
+                try (final Connection connection = connectionPool.getDataSource().getConnection();
+                     final Statement statement = connection.createStatement()) {
+                    statement.execute("SHUTDOWN COMPACT");
+                } catch (final SQLException e) {
+                    LOGGER.log(Level.WARNING, MAINTENANCE_ERROR, e);
+                }
+            }
+        }
+    }
+
+    private void compact(final Connection connection) throws SQLException {
+        final SessionInterface session = connection.unwrap(JdbcConnection.class).getSession();
+        if (session instanceof Session) {
+            final MVTableEngine.Store store = ((Session) session).getDatabase().getStore();
+            if (store != null && store.getMvStore().getFileStore() != null) {
+                final MVStore mvStore = store.getMvStore();
+                // Pending changes are stored, only chunks older than the configured retention time are moved
+                mvStore.commit();
+                mvStore.compactFile(compactTime);
+            }
+        }
+    }
+
+    private long getFileSize(final Connection connection) throws SQLException {
+        long pageCount = 0;
+        long pageSize = 0;
+        try (final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SELECT NAME, VALUE FROM INFORMATION_SCHEMA.SETTINGS " +
+                     "WHERE NAME IN ('info.PAGE_COUNT', 'info.PAGE_SIZE')")) {
+            while (resultSet.next()) {
+                if ("info.PAGE_COUNT".equals(resultSet.getString(1))) {
+                    pageCount = Long.parseLong(resultSet.getString(2));
+                } else {
+                    pageSize = Long.parseLong(resultSet.getString(2));
+                }
+            }
+        }
+
+        return pageCount * pageSize;
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, MAINTENANCE_ERROR, e);
+        }
+    }
+}
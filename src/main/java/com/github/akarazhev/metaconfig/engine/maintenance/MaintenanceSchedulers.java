@@ -0,0 +1,118 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.maintenance;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.ANALYZE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.ANALYZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.COMPACT_TIME;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.COMPACT_TIME_VALUE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.INTERVAL;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.INTERVAL_VALUE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.MAX_ACTIVE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.MAX_ACTIVE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.SHUTDOWN_COMPACT;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.SHUTDOWN_COMPACT_VALUE;
+
+/**
+ * Provides factory methods to create a maintenance scheduler.
+ */
+public final class MaintenanceSchedulers {
+
+    private MaintenanceSchedulers() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the maintenance scheduler.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "maintenance";
+        // The interval key (milliseconds)
+        public static final String INTERVAL = "interval";
+        // The interval value
+        static final long INTERVAL_VALUE = 3600000;
+        // The compact time key (milliseconds, 0 disables the compaction)
+        public static final String COMPACT_TIME = "compact-time";
+        // The compact time value
+        static final long COMPACT_TIME_VALUE = 1000;
+        // The analyze key
+        public static final String ANALYZE = "analyze";
+        // The analyze value
+        static final boolean ANALYZE_VALUE = true;
+        // The max active connections key, maintenance is skipped above it
+        public static final String MAX_ACTIVE = "max-active";
+        // The max active connections value
+        static final long MAX_ACTIVE_VALUE = 0;
+        // The shutdown compact key
+        public static final String SHUTDOWN_COMPACT = "shutdown-compact";
+        // The shutdown compact value
+        static final boolean SHUTDOWN_COMPACT_VALUE = false;
+    }
+
+    /**
+     * Returns a maintenance scheduler based on the configuration.
+     *
+     * @param config         a configuration of a maintenance scheduler.
+     * @param connectionPool a connection pool.
+     * @return a maintenance scheduler.
+     */
+    public static MaintenanceScheduler newScheduler(final Config config, final ConnectionPool connectionPool) {
+        // Validate the config
+        final Config schedulerConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(INTERVAL).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, INTERVAL)).
+                validate(c -> c.getProperty(COMPACT_TIME).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, COMPACT_TIME)).
+                validate(c -> c.getProperty(MAX_ACTIVE).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, MAX_ACTIVE)).
+                get();
+        // Get the interval
+        final long interval = schedulerConfig.getProperty(INTERVAL).
+                map(Property::asLong).
+                orElse(INTERVAL_VALUE);
+        // Get the compact time
+        final long compactTime = schedulerConfig.getProperty(COMPACT_TIME).
+                map(Property::asLong).
+                orElse(COMPACT_TIME_VALUE);
+        // Get the analyze
+        final boolean analyze = schedulerConfig.getProperty(ANALYZE).
+                map(Property::asBool).
+                orElse(ANALYZE_VALUE);
+        // Get the max active connections
+        final long maxActive = schedulerConfig.getProperty(MAX_ACTIVE).
+                map(Property::asLong).
+                orElse(MAX_ACTIVE_VALUE);
+        // Get the shutdown compact
+        final boolean shutdownCompact = schedulerConfig.getProperty(SHUTDOWN_COMPACT).
+                map(Property::asBool).
+                orElse(SHUTDOWN_COMPACT_VALUE);
+        // Create the maintenance scheduler
+        return new MaintenanceScheduler(Validator.of(connectionPool).get(), interval, compactTime, analyze,
+                (int) Math.min(maxActive, Integer.MAX_VALUE), shutdownCompact);
+    }
+}
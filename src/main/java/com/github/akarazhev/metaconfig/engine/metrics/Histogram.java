@@ -0,0 +1,145 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free histogram of durations in nanoseconds with power of two buckets.
+ */
+public final class Histogram {
+    private static final int BUCKETS = 64;
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos a duration in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts[bucket(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns a snapshot of the histogram.
+     *
+     * @return a snapshot.
+     */
+    public Snapshot snapshot() {
+        final long[] values = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            values[i] = counts[i].sum();
+        }
+
+        return new Snapshot(values, sum.sum(), max.get());
+    }
+
+    private static int bucket(final long nanos) {
+        // The bucket i contains values in the range [2^(i-1), 2^i)
+        return nanos == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * The immutable snapshot of the histogram.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(final long[] counts, final long sum, final long max) {
+            long count = 0;
+            for (final long value : counts) {
+                count += value;
+            }
+
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the number of recorded durations.
+         *
+         * @return a number of durations.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean duration.
+         *
+         * @return a duration in nanoseconds.
+         */
+        public long getMean() {
+            return count > 0 ? sum / count : 0;
+        }
+
+        /**
+         * Returns the maximum duration.
+         *
+         * @return a duration in nanoseconds.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the upper bound of the duration at the percentile.
+         *
+         * @param percentile a percentile in the range [0, 100].
+         * @return a duration in nanoseconds.
+         */
+        public long getPercentile(final double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            final long rank = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(max, i == 0 ? 0 : (1L << i) - 1);
+                }
+            }
+
+            return max;
+        }
+
+        /**
+         * Returns counts of buckets, the bucket i contains durations in the range [2^(i-1), 2^i) nanoseconds.
+         *
+         * @return counts of buckets.
+         */
+        public long[] getBuckets() {
+            return counts.clone();
+        }
+    }
+}
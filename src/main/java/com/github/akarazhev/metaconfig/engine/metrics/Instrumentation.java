@@ -0,0 +1,286 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.MBEAN_REGISTRATION_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.METRICS_LISTENER_ERROR;
+
+/**
+ * Records counts, errors, latencies and read rows of operations. Metrics of every operation are registered
+ * as an MBean with the name: {@code com.github.akarazhev.metaconfig:type=Operation,name=<name>,operation=<op>}.
+ */
+public final class Instrumentation implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(Instrumentation.class.getSimpleName());
+    private static final String DOMAIN = "com.github.akarazhev.metaconfig";
+    private final String name;
+    private final boolean jmx;
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+    Instrumentation(final String name, final boolean jmx) {
+        this.name = name;
+        this.jmx = jmx;
+    }
+
+    /**
+     * Executes and records an operation.
+     *
+     * @param operation a name of an operation.
+     * @param call      a call of an operation.
+     * @param <T>       a type of a result.
+     * @return a result of the call.
+     */
+    public <T> T measure(final String operation, final Supplier<T> call) {
+        final OperationStats stats = operations.computeIfAbsent(operation, this::newStats);
+        final OperationContext context = OperationContext.open();
+        final long started = System.nanoTime();
+        Throwable error = null;
+        try {
+            return call.get();
+        } catch (final RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            final long latency = System.nanoTime() - started;
+            context.close();
+            record(operation, stats, context, latency, error);
+        }
+    }
+
+    /**
+     * Executes an operation that returns a lazy stream and records it when the stream is closed,
+     * so rows which are fetched while the stream is consumed are added to the operation.
+     *
+     * @param operation a name of an operation.
+     * @param call      a call of an operation.
+     * @param <T>       a type of elements.
+     * @return a stream that must be closed.
+     */
+    public <T> Stream<T> measureStream(final String operation, final Supplier<Stream<T>> call) {
+        final OperationStats stats = operations.computeIfAbsent(operation, this::newStats);
+        final OperationContext context = OperationContext.open();
+        final long started = System.nanoTime();
+        final Stream<T> stream;
+        try {
+            stream = call.get();
+        } catch (final RuntimeException | Error e) {
+            context.close();
+            record(operation, stats, context, System.nanoTime() - started, e);
+            throw e;
+        }
+
+        context.close();
+        final Spliterator<T> spliterator = stream.spliterator();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final AtomicBoolean recorded = new AtomicBoolean();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(spliterator.estimateSize(),
+                spliterator.characteristics()) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                // Rows are fetched by the consumer thread within the context of the operation
+                final OperationContext previous = OperationContext.attach(context);
+                try {
+                    return spliterator.tryAdvance(action);
+                } catch (final RuntimeException | Error e) {
+                    error.compareAndSet(null, e);
+                    throw e;
+                } finally {
+                    OperationContext.restore(previous);
+                }
+            }
+        }, false).onClose(() -> {
+            try {
+                stream.close();
+            } finally {
+                if (recorded.compareAndSet(false, true)) {
+                    record(operation, stats, context, System.nanoTime() - started, error.get());
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a listener of samples of operations.
+     *
+     * @param listener a metrics listener.
+     */
+    public void addListener(final MetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns snapshots of metrics of recorded operations.
+     *
+     * @return metrics by names of operations.
+     */
+    public Map<String, OperationMetrics> getMetrics() {
+        final Map<String, OperationMetrics> metrics = new TreeMap<>();
+        operations.forEach((operation, stats) -> metrics.put(operation, stats.snapshot()));
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (final ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (final JMException e) {
+                // Ignore, the MBean is unregistered by another instance with the same name
+            }
+        }
+
+        registered.clear();
+    }
+
+    private void record(final String operation, final OperationStats stats, final OperationContext context,
+                        final long latency, final Throwable error) {
+        final OperationSample sample = new OperationSample(operation, latency, context.getAcquireTime(),
+                context.getQueryTime(), context.getRows(), context.getBytes(), error);
+        stats.record(sample);
+        for (final MetricsListener listener : listeners) {
+            try {
+                listener.onOperation(sample);
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.WARNING, METRICS_LISTENER_ERROR, e);
+            }
+        }
+    }
+
+    private OperationStats newStats(final String operation) {
+        final OperationStats stats = new OperationStats();
+        if (jmx) {
+            // MBeans are registered with the first call of an operation
+            try {
+                final ObjectName objectName = new ObjectName(DOMAIN + ":type=Operation,name=" + ObjectName.quote(name) +
+                        ",operation=" + ObjectName.quote(operation));
+                ManagementFactory.getPlatformMBeanServer().
+                        registerMBean(new StandardMBean(stats, OperationMXBean.class, true), objectName);
+                registered.add(objectName);
+            } catch (final JMException e) {
+                LOGGER.log(Level.WARNING, String.format(MBEAN_REGISTRATION_ERROR, operation), e);
+            }
+        }
+
+        return stats;
+    }
+
+    private static final class OperationStats implements OperationMXBean {
+        private final Histogram latency = new Histogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder acquireTime = new LongAdder();
+        private final LongAdder queryTime = new LongAdder();
+        private final LongAdder mappingTime = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private void record(final OperationSample sample) {
+            latency.record(sample.getLatency());
+            if (sample.getError() != null) {
+                errors.increment();
+            }
+
+            acquireTime.add(sample.getAcquireTime());
+            queryTime.add(sample.getQueryTime());
+            mappingTime.add(sample.getMappingTime());
+            rows.add(sample.getRows());
+            bytes.add(sample.getBytes());
+        }
+
+        private OperationMetrics snapshot() {
+            return new OperationMetrics(errors.sum(), latency.snapshot(), acquireTime.sum(), queryTime.sum(),
+                    mappingTime.sum(), rows.sum(), bytes.sum());
+        }
+
+        @Override
+        public long getCount() {
+            return latency.snapshot().getCount();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getMeanLatency() {
+            return latency.snapshot().getMean();
+        }
+
+        @Override
+        public long getMedianLatency() {
+            return latency.snapshot().getPercentile(50);
+        }
+
+        @Override
+        public long getP99Latency() {
+            return latency.snapshot().getPercentile(99);
+        }
+
+        @Override
+        public long getMaxLatency() {
+            return latency.snapshot().getMax();
+        }
+
+        @Override
+        public long getAcquireTime() {
+            return acquireTime.sum();
+        }
+
+        @Override
+        public long getQueryTime() {
+            return queryTime.sum();
+        }
+
+        @Override
+        public long getMappingTime() {
+            return mappingTime.sum();
+        }
+
+        @Override
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public long getBytes() {
+            return bytes.sum();
+        }
+    }
+}
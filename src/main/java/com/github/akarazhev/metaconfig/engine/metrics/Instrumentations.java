@@ -0,0 +1,94 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.Arrays;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.JMX;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.JMX_VALUE;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.NAME;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.NAME_VALUE;
+
+/**
+ * Provides factory methods to create an instrumentation.
+ */
+public final class Instrumentations {
+
+    private Instrumentations() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the instrumentation.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "instrumentation";
+        // The name key of MBeans
+        public static final String NAME = "name";
+        // The name value
+        static final String NAME_VALUE = "metacfg4j";
+        // The jmx key
+        public static final String JMX = "jmx";
+        // The jmx value
+        static final boolean JMX_VALUE = true;
+    }
+
+    /**
+     * Returns a default instrumentation.
+     *
+     * @return an instrumentation.
+     */
+    public static Instrumentation newInstrumentation() {
+        return newInstrumentation(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(NAME, NAME_VALUE).build(),
+                new Property.Builder(JMX, JMX_VALUE).build())).build());
+    }
+
+    /**
+     * Returns an instrumentation based on the configuration.
+     *
+     * @param config a configuration of an instrumentation.
+     * @return an instrumentation.
+     */
+    public static Instrumentation newInstrumentation(final Config config) {
+        // Validate the config
+        final Config instrumentationConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(NAME).map(p -> !p.getValue().isEmpty()).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, NAME)).
+                get();
+        // Get the name
+        final String name = instrumentationConfig.getProperty(NAME).
+                map(Property::getValue).
+                orElse(NAME_VALUE);
+        // Get the jmx
+        final boolean jmx = instrumentationConfig.getProperty(JMX).
+                map(Property::asBool).
+                orElse(JMX_VALUE);
+        // Create the instrumentation
+        return new Instrumentation(name, jmx);
+    }
+}
@@ -0,0 +1,25 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+/**
+ * Provides a method to receive samples of instrumented operations.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+    /**
+     * Receives a sample of a completed operation, it is called in the thread of the operation,
+     * so it must not block.
+     *
+     * @param sample a sample of an operation.
+     */
+    void onOperation(final OperationSample sample);
+}
@@ -0,0 +1,129 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The context of an instrumented operation of the current thread. Connection pools and statements add times
+ * and read rows to the context, so the latency of an operation is split into acquire, query and mapping time.
+ * Parts of an operation that are executed by other threads attach the context, so it is shared between threads.
+ */
+public final class OperationContext {
+    private static final ThreadLocal<OperationContext> CURRENT = new ThreadLocal<>();
+    private final OperationContext previous;
+    private final LongAdder acquireTime = new LongAdder();
+    private final LongAdder queryTime = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    private OperationContext(final OperationContext previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Returns the context of the current thread.
+     *
+     * @return a context or null if the thread does not execute an instrumented operation.
+     */
+    public static OperationContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the context current for a part of an operation that is executed by another thread,
+     * the returned context must be restored when the part is completed.
+     *
+     * @param context a context or null if the part is not instrumented.
+     * @return a previous context of the current thread.
+     */
+    public static OperationContext attach(final OperationContext context) {
+        final OperationContext previous = CURRENT.get();
+        restore(context);
+        return previous;
+    }
+
+    /**
+     * Restores the context of the current thread that is returned by the attach method.
+     *
+     * @param context a previous context or null.
+     */
+    public static void restore(final OperationContext context) {
+        if (context != null) {
+            CURRENT.set(context);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Adds the time to acquire a connection.
+     *
+     * @param nanos a duration in nanoseconds.
+     */
+    public void addAcquireTime(final long nanos) {
+        acquireTime.add(nanos);
+    }
+
+    /**
+     * Adds the time to execute a statement or to fetch a row.
+     *
+     * @param nanos a duration in nanoseconds.
+     */
+    public void addQueryTime(final long nanos) {
+        queryTime.add(nanos);
+    }
+
+    /**
+     * Adds read rows.
+     *
+     * @param count a number of rows.
+     */
+    public void addRows(final long count) {
+        rows.add(count);
+    }
+
+    /**
+     * Adds the estimated size of read values.
+     *
+     * @param count a number of bytes.
+     */
+    public void addBytes(final long count) {
+        bytes.add(count);
+    }
+
+    static OperationContext open() {
+        final OperationContext context = new OperationContext(CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    void close() {
+        // Nested operations restore the context of the outer one
+        restore(previous);
+    }
+
+    long getAcquireTime() {
+        return acquireTime.sum();
+    }
+
+    long getQueryTime() {
+        return queryTime.sum();
+    }
+
+    long getRows() {
+        return rows.sum();
+    }
+
+    long getBytes() {
+        return bytes.sum();
+    }
+}
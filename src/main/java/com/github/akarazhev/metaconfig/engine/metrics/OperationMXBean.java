@@ -0,0 +1,93 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+/**
+ * The management interface of metrics of an instrumented operation. Durations are in nanoseconds.
+ */
+public interface OperationMXBean {
+    /**
+     * Returns the number of completed operations.
+     *
+     * @return a number of operations.
+     */
+    long getCount();
+
+    /**
+     * Returns the number of failed operations.
+     *
+     * @return a number of operations.
+     */
+    long getErrors();
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getMeanLatency();
+
+    /**
+     * Returns the upper bound of the median latency.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getMedianLatency();
+
+    /**
+     * Returns the upper bound of the latency at the 99th percentile.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getP99Latency();
+
+    /**
+     * Returns the maximum latency.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getMaxLatency();
+
+    /**
+     * Returns the total time to acquire connections.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getAcquireTime();
+
+    /**
+     * Returns the total time to execute statements and to fetch rows.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getQueryTime();
+
+    /**
+     * Returns the total time which is spent outside of the pool and statements.
+     *
+     * @return a duration in nanoseconds.
+     */
+    long getMappingTime();
+
+    /**
+     * Returns the total number of read rows.
+     *
+     * @return a number of rows.
+     */
+    long getRows();
+
+    /**
+     * Returns the total estimated size of read values.
+     *
+     * @return a number of bytes.
+     */
+    long getBytes();
+}
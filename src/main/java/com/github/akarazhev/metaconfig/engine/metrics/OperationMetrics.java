@@ -0,0 +1,149 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+/**
+ * The immutable snapshot of metrics of an instrumented operation.
+ */
+public final class OperationMetrics implements OperationMXBean {
+    private final long errors;
+    private final Histogram.Snapshot latency;
+    private final long acquireTime;
+    private final long queryTime;
+    private final long mappingTime;
+    private final long rows;
+    private final long bytes;
+
+    OperationMetrics(final long errors, final Histogram.Snapshot latency, final long acquireTime,
+                     final long queryTime, final long mappingTime, final long rows, final long bytes) {
+        this.errors = errors;
+        this.latency = latency;
+        this.acquireTime = acquireTime;
+        this.queryTime = queryTime;
+        this.mappingTime = mappingTime;
+        this.rows = rows;
+        this.bytes = bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the histogram of latencies.
+     *
+     * @return a histogram snapshot.
+     */
+    public Histogram.Snapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMeanLatency() {
+        return latency.getMean();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMedianLatency() {
+        return latency.getPercentile(50);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getP99Latency() {
+        return latency.getPercentile(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMaxLatency() {
+        return latency.getMax();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAcquireTime() {
+        return acquireTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getQueryTime() {
+        return queryTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMappingTime() {
+        return mappingTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "OperationMetrics{" +
+                "count=" + getCount() +
+                ", errors=" + errors +
+                ", latencyP99=" + getP99Latency() +
+                ", acquireTime=" + acquireTime +
+                ", queryTime=" + queryTime +
+                ", mappingTime=" + mappingTime +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                '}';
+    }
+}
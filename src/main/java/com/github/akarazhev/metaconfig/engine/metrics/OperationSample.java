@@ -0,0 +1,123 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+/**
+ * The immutable sample of a completed operation.
+ */
+public final class OperationSample {
+    private final String operation;
+    private final long latency;
+    private final long acquireTime;
+    private final long queryTime;
+    private final long rows;
+    private final long bytes;
+    private final Throwable error;
+
+    OperationSample(final String operation, final long latency, final long acquireTime, final long queryTime,
+                    final long rows, final long bytes, final Throwable error) {
+        this.operation = operation;
+        this.latency = latency;
+        this.acquireTime = acquireTime;
+        this.queryTime = queryTime;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.error = error;
+    }
+
+    /**
+     * Returns the name of the operation.
+     *
+     * @return a name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the duration of the operation.
+     *
+     * @return a duration in nanoseconds.
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the time to acquire connections.
+     *
+     * @return a duration in nanoseconds.
+     */
+    public long getAcquireTime() {
+        return acquireTime;
+    }
+
+    /**
+     * Returns the time to execute statements and to fetch rows.
+     *
+     * @return a duration in nanoseconds.
+     */
+    public long getQueryTime() {
+        return queryTime;
+    }
+
+    /**
+     * Returns the time which is spent outside of the pool and statements, e.g. to map rows to configurations.
+     *
+     * @return a duration in nanoseconds.
+     */
+    public long getMappingTime() {
+        return Math.max(0, latency - acquireTime - queryTime);
+    }
+
+    /**
+     * Returns the number of read rows.
+     *
+     * @return a number of rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the estimated size of read values.
+     *
+     * @return a number of bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the error of the operation.
+     *
+     * @return an error or null if the operation is completed successfully.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "OperationSample{" +
+                "operation='" + operation + '\'' +
+                ", latency=" + latency +
+                ", acquireTime=" + acquireTime +
+                ", queryTime=" + queryTime +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                ", error=" + error +
+                '}';
+    }
+}
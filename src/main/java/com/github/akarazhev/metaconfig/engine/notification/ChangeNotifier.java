@@ -0,0 +1,141 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.notification;
+
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ChangeLog;
+
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.CHANGE_POLL_ERROR;
+
+/**
+ * Polls the change log and delivers names of changed configs to the consumer. Changes are read by sequence
+ * numbers, so a poll reads only new rows. Sequence numbers of uncommitted transactions leave gaps,
+ * the gaps are re-read until they are filled or the gap timeout is expired.
+ */
+public final class ChangeNotifier implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(ChangeNotifier.class.getSimpleName());
+    private final ChangeLog changeLog;
+    private final long pollInterval;
+    private final long retention;
+    private final long gapTimeout;
+    private final Consumer<Collection<String>> consumer;
+    private final TreeSet<Long> delivered = new TreeSet<>();
+    private ScheduledExecutorService executor;
+    private long sequence;
+    private long gapTime;
+    private long purgeTime;
+
+    ChangeNotifier(final ChangeLog changeLog, final long pollInterval, final long retention, final long gapTimeout,
+                   final Consumer<Collection<String>> consumer) {
+        this.changeLog = changeLog;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Installs the change log and starts polling from the last change.
+     *
+     * @return a change notifier.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public synchronized ChangeNotifier start() throws SQLException {
+        if (executor == null) {
+            changeLog.install();
+            sequence = changeLog.getLastSequence();
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "change-notifier");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::pollSafely, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        }
+
+        return this;
+    }
+
+    /**
+     * Reads new changes and delivers names of changed configs to the consumer.
+     *
+     * @return a number of delivered names.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public synchronized int poll() throws SQLException {
+        final Set<String> names = new LinkedHashSet<>();
+        for (final Map.Entry<Long, String> change : changeLog.read(sequence).entrySet()) {
+            if (delivered.add(change.getKey()) && change.getValue() != null) {
+                names.add(change.getValue());
+            }
+        }
+        // Move the sequence through the delivered changes
+        advance();
+        if (delivered.isEmpty()) {
+            gapTime = 0;
+        } else if (gapTime == 0) {
+            gapTime = System.currentTimeMillis();
+        } else if (System.currentTimeMillis() - gapTime > gapTimeout) {
+            // The gap is left by a rolled back transaction
+            sequence = delivered.first() - 1;
+            advance();
+            gapTime = delivered.isEmpty() ? 0 : System.currentTimeMillis();
+        }
+
+        if (retention > 0 && System.currentTimeMillis() - purgeTime > Math.min(retention, 60000)) {
+            purgeTime = System.currentTimeMillis();
+            changeLog.purge(purgeTime - retention);
+        }
+
+        if (names.size() > 0) {
+            consumer.accept(names);
+        }
+
+        return names.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void advance() {
+        while (delivered.remove(sequence + 1)) {
+            sequence++;
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, CHANGE_POLL_ERROR, e);
+        }
+    }
+}
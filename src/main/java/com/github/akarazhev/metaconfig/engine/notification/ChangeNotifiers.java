@@ -0,0 +1,103 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.notification;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ChangeLog;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.GAP_TIMEOUT;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.GAP_TIMEOUT_VALUE;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.POLL_INTERVAL;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.POLL_INTERVAL_VALUE;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.RETENTION;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.RETENTION_VALUE;
+
+/**
+ * Provides factory methods to create a change notifier.
+ */
+public final class ChangeNotifiers {
+
+    private ChangeNotifiers() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the change notifier.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "change-notifier";
+        // The poll interval key (milliseconds)
+        public static final String POLL_INTERVAL = "poll-interval";
+        // The poll interval value
+        static final long POLL_INTERVAL_VALUE = 1000;
+        // The retention key of changes (milliseconds, 0 keeps changes)
+        public static final String RETENTION = "retention";
+        // The retention value
+        static final long RETENTION_VALUE = 3600000;
+        // The gap timeout key (milliseconds)
+        public static final String GAP_TIMEOUT = "gap-timeout";
+        // The gap timeout value
+        static final long GAP_TIMEOUT_VALUE = 60000;
+    }
+
+    /**
+     * Returns a change notifier based on the configuration.
+     *
+     * @param config    a configuration of a change notifier.
+     * @param changeLog a change log.
+     * @param consumer  a consumer of names of changed configs.
+     * @return a change notifier.
+     */
+    public static ChangeNotifier newNotifier(final Config config, final ChangeLog changeLog,
+                                             final Consumer<Collection<String>> consumer) {
+        // Validate the config
+        final Config notifierConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(POLL_INTERVAL).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, POLL_INTERVAL)).
+                validate(c -> c.getProperty(RETENTION).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, RETENTION)).
+                validate(c -> c.getProperty(GAP_TIMEOUT).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, GAP_TIMEOUT)).
+                get();
+        // Get the poll interval
+        final long pollInterval = notifierConfig.getProperty(POLL_INTERVAL).
+                map(Property::asLong).
+                orElse(POLL_INTERVAL_VALUE);
+        // Get the retention
+        final long retention = notifierConfig.getProperty(RETENTION).
+                map(Property::asLong).
+                orElse(RETENTION_VALUE);
+        // Get the gap timeout
+        final long gapTimeout = notifierConfig.getProperty(GAP_TIMEOUT).
+                map(Property::asLong).
+                orElse(GAP_TIMEOUT_VALUE);
+        // Create the change notifier
+        return new ChangeNotifier(Validator.of(changeLog).get(), pollInterval, retention, gapTimeout,
+                Validator.of(consumer).get());
+    }
+}
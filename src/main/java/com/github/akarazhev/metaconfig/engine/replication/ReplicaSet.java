@@ -0,0 +1,310 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.replication;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.BulkImporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ConfigExporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.SchemaManager;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.REPLICA_READ_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.REPLICA_SYNCHRONIZED;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.REPLICA_SYNC_ERROR;
+
+/**
+ * Routes reads of configurations to the least loaded read replica. Replicas are periodically synchronized
+ * with the primary database: versions of configurations are compared, changed configurations are copied
+ * with their ids and versions, removed ones are deleted. Reads are eventually consistent within the sync interval.
+ */
+public final class ReplicaSet implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(ReplicaSet.class.getSimpleName());
+    private static final int CHUNK_SIZE = 1000;
+    private static final int FETCH_SIZE = 100;
+    private final DataSource primary;
+    private final ConfigExporter primaryExporter;
+    private final Tables tables;
+    private final List<Replica> replicas;
+    private final long syncInterval;
+    private final Consumer<Collection<String>> listener;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+    private long syncs;
+
+    ReplicaSet(final DataSource primary, final Tables tables, final List<ConnectionPool> connectionPools,
+               final long syncInterval, final Consumer<Collection<String>> listener) {
+        this.primary = primary;
+        this.primaryExporter = new ConfigExporter(primary, tables);
+        this.tables = tables;
+        this.replicas = connectionPools.stream().map(pool -> new Replica(pool, tables)).collect(Collectors.toList());
+        this.syncInterval = syncInterval;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates missing tables on replicas, synchronizes them and starts periodic synchronization.
+     *
+     * @return a replica set.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public synchronized ReplicaSet start() throws SQLException {
+        if (executor == null) {
+            final List<String> script = new SchemaManager(primary, tables).script();
+            for (final Replica replica : replicas) {
+                new SchemaManager(replica.dataSource, tables).create(script);
+            }
+
+            sync();
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "replica-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::syncSafely, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+
+        return this;
+    }
+
+    /**
+     * Requests synchronization of replicas without waiting for the sync interval, e.g. after a write.
+     * Requests are merged until the pending synchronization is started.
+     */
+    public void requestSync() {
+        if (pending.compareAndSet(false, true)) {
+            synchronized (this) {
+                // A request before the start is synchronized with the first sync
+                if (executor != null) {
+                    executor.execute(this::syncSafely);
+                }
+            }
+        }
+    }
+
+    /**
+     * Synchronizes all replicas with the primary database.
+     *
+     * @return a number of configurations which are copied to replicas.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public synchronized int sync() throws SQLException {
+        // Requests after this point are synchronized by the next sync
+        pending.set(false);
+        int copied = 0;
+        final Map<Long, Integer> versions = primaryExporter.getVersions();
+        for (final Replica replica : replicas) {
+            copied += sync(replica, versions);
+        }
+
+        syncs++;
+        return copied;
+    }
+
+    private int sync(final Replica replica, final Map<Long, Integer> versions) throws SQLException {
+        final Map<Long, Integer> replicaVersions = replica.exporter.getVersions();
+        // Configs that are changed or removed on the primary database are replaced
+        final List<Long> removedIds = replicaVersions.entrySet().stream().
+                filter(e -> !Objects.equals(versions.get(e.getKey()), e.getValue())).
+                map(Map.Entry::getKey).
+                collect(Collectors.toList());
+        final List<Long> copiedIds = versions.entrySet().stream().
+                filter(e -> !Objects.equals(replicaVersions.get(e.getKey()), e.getValue())).
+                map(Map.Entry::getKey).
+                collect(Collectors.toList());
+        if (removedIds.isEmpty() && copiedIds.isEmpty()) {
+            return 0;
+        }
+
+        final Set<String> changed = new HashSet<>(replica.exporter.getNames(removedIds));
+        int copied = 0;
+        for (int i = 0; i < Math.max(copiedIds.size(), 1); i += CHUNK_SIZE) {
+            final List<Config> configs;
+            try (final Stream<Config> stream = primaryExporter.exportByIds(copiedIds.subList(i,
+                    Math.min(i + CHUNK_SIZE, copiedIds.size())), FETCH_SIZE)) {
+                configs = stream.collect(Collectors.toList());
+            }
+            // Removed configs are deleted with the first chunk
+            copied += replica.importer.replicate(i == 0 ? removedIds : new ArrayList<>(), configs);
+            configs.forEach(config -> changed.add(config.getName()));
+        }
+
+        LOGGER.log(Level.FINE, String.format(REPLICA_SYNCHRONIZED, removedIds.size(), copied));
+        listener.accept(changed);
+        return copied;
+    }
+
+    /**
+     * Returns names of all configurations from the least loaded replica.
+     *
+     * @return a stream of names.
+     */
+    public Stream<String> getNames() {
+        try {
+            return select().exporter.getNames().stream();
+        } catch (final SQLException e) {
+            throw new RuntimeException(REPLICA_READ_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns all configurations from the least loaded replica.
+     *
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get() {
+        try (final Stream<Config> stream = select().exporter.export(FETCH_SIZE)) {
+            return stream.collect(Collectors.toList()).stream();
+        } catch (final SQLException e) {
+            throw new RuntimeException(REPLICA_READ_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns configurations by names from the least loaded replica.
+     *
+     * @param names names of configurations.
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get(final Collection<String> names) {
+        try (final Stream<Config> stream = select().exporter.exportByNames(names, FETCH_SIZE)) {
+            return stream.collect(Collectors.toList()).stream();
+        } catch (final SQLException e) {
+            throw new RuntimeException(REPLICA_READ_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns a property of a configuration from the least loaded replica.
+     *
+     * @param name  a name of a configuration.
+     * @param paths names of the property and its parents.
+     * @return a property or an empty optional.
+     */
+    public Optional<Property> getProperty(final String name, final String... paths) {
+        try {
+            return select().exporter.getProperty(name, paths);
+        } catch (final SQLException e) {
+            throw new RuntimeException(REPLICA_READ_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns snapshots of the connection pool metrics of replicas.
+     *
+     * @return a list of pool metrics.
+     */
+    public List<PoolMetrics> getMetrics() {
+        return replicas.stream().map(replica -> replica.connectionPool.getMetrics()).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the number of completed synchronizations.
+     *
+     * @return a number of synchronizations.
+     */
+    public synchronized long getSyncs() {
+        return syncs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        // All pools are closed, even if some of them fail
+        IOException exception = null;
+        for (final Replica replica : replicas) {
+            try {
+                replica.connectionPool.close();
+            } catch (final IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private Replica select() {
+        // Replicas are scanned from a rotating position, so equally loaded replicas share reads
+        final int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        Replica selected = null;
+        int selectedLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            final Replica replica = replicas.get((start + i) % replicas.size());
+            final int load = replica.connectionPool.getActive() + replica.connectionPool.getWaiting();
+            if (load < selectedLoad) {
+                selected = replica;
+                selectedLoad = load;
+            }
+        }
+
+        return selected;
+    }
+
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, REPLICA_SYNC_ERROR, e);
+        }
+    }
+
+    private static final class Replica {
+        private final ConnectionPool connectionPool;
+        private final DataSource dataSource;
+        private final ConfigExporter exporter;
+        private final BulkImporter importer;
+
+        private Replica(final ConnectionPool connectionPool, final Tables tables) {
+            this.connectionPool = connectionPool;
+            this.dataSource = connectionPool.getDataSource();
+            this.exporter = new ConfigExporter(dataSource, tables);
+            this.importer = new BulkImporter(dataSource, tables);
+        }
+    }
+}
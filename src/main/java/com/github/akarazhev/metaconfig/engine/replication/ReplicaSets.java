@@ -0,0 +1,110 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.replication;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.replication.ReplicaSets.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.replication.ReplicaSets.Settings.SYNC_INTERVAL;
+import static com.github.akarazhev.metaconfig.engine.replication.ReplicaSets.Settings.SYNC_INTERVAL_VALUE;
+
+/**
+ * Provides factory methods to create a replica set.
+ */
+public final class ReplicaSets {
+
+    private ReplicaSets() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the replica set.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "replication";
+        // The sync interval key (milliseconds)
+        public static final String SYNC_INTERVAL = "sync-interval";
+        // The sync interval value
+        static final long SYNC_INTERVAL_VALUE = 1000;
+    }
+
+    /**
+     * Returns a default replica set.
+     *
+     * @param primary         a datasource of the primary database.
+     * @param tables          tables of configurations.
+     * @param connectionPools connection pools of replicas.
+     * @param listener        a consumer of names of configurations which are changed on replicas.
+     * @return a replica set.
+     */
+    public static ReplicaSet newReplicaSet(final DataSource primary, final Tables tables,
+                                           final List<ConnectionPool> connectionPools,
+                                           final Consumer<Collection<String>> listener) {
+        return create(primary, tables, connectionPools, SYNC_INTERVAL_VALUE, listener);
+    }
+
+    /**
+     * Returns a replica set based on the configuration.
+     *
+     * @param config          a configuration of a replica set.
+     * @param primary         a datasource of the primary database.
+     * @param tables          tables of configurations.
+     * @param connectionPools connection pools of replicas.
+     * @param listener        a consumer of names of configurations which are changed on replicas.
+     * @return a replica set.
+     */
+    public static ReplicaSet newReplicaSet(final Config config, final DataSource primary, final Tables tables,
+                                           final List<ConnectionPool> connectionPools,
+                                           final Consumer<Collection<String>> listener) {
+        // Validate the config
+        final Config replicationConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(SYNC_INTERVAL).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, SYNC_INTERVAL)).
+                get();
+        // Get the sync interval
+        final long syncInterval = replicationConfig.getProperty(SYNC_INTERVAL).
+                map(Property::asLong).
+                orElse(SYNC_INTERVAL_VALUE);
+        // Create the replica set
+        return create(primary, tables, connectionPools, syncInterval, listener);
+    }
+
+    private static ReplicaSet create(final DataSource primary, final Tables tables,
+                                     final List<ConnectionPool> connectionPools, final long syncInterval,
+                                     final Consumer<Collection<String>> listener) {
+        final List<ConnectionPool> pools = Validator.of(connectionPools).
+                validate(p -> p.size() > 0, String.format(WRONG_PARAM_VALUE, "connectionPools")).
+                get();
+        return new ReplicaSet(Validator.of(primary).get(), Validator.of(tables).get(), new ArrayList<>(pools),
+                syncInterval, Validator.of(listener).get());
+    }
+}
@@ -0,0 +1,76 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps names of configurations to shards with consistent hashing. Every shard has a number of virtual nodes
+ * on the ring, so names are evenly distributed and a new shard takes over only a part of names of other shards.
+ */
+public final class ShardRing {
+    private final TreeMap<Integer, Integer> ring = new TreeMap<>();
+    private final int shards;
+
+    /**
+     * Constructs a ring of shards.
+     *
+     * @param shards       a number of shards.
+     * @param virtualNodes a number of virtual nodes of a shard.
+     */
+    public ShardRing(final int shards, final int virtualNodes) {
+        this.shards = shards;
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                // Collisions are resolved in favor of the lower shard, so added shards do not take over its nodes
+                ring.putIfAbsent(hash("shard-" + shard + "-" + node), shard);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return a number of shards.
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the shard of a configuration.
+     *
+     * @param name a name of a configuration.
+     * @return an index of a shard.
+     */
+    public int getShard(final String name) {
+        final Map.Entry<Integer, Integer> entry = ring.ceilingEntry(hash(name));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static int hash(final String value) {
+        // FNV-1a with the final mix of MurmurHash3, the hash is stable across JVMs
+        int hash = 0x811c9dc5;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x01000193;
+        }
+
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
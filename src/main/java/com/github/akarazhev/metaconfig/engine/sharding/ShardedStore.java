@@ -0,0 +1,350 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.sharding;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.BulkImporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ConfigExporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.DeltaResult;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.SchemaManager;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.PoolMetrics;
+import com.github.akarazhev.metaconfig.engine.metrics.OperationContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.EXPORT_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SHARD_READ_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SHARD_STALE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SHARD_WRITE_ERROR;
+
+/**
+ * Partitions configurations across several databases by consistent hashing of names. Operations are grouped
+ * by shards and shards are accessed in parallel. The first shard is the primary database, tables of other
+ * shards are created with its schema.
+ */
+public final class ShardedStore implements Closeable {
+    private static final int FETCH_SIZE = 100;
+    private final ShardRing ring;
+    private final Tables tables;
+    private final List<Shard> shards;
+    private final ExecutorService executor;
+
+    ShardedStore(final List<ConnectionPool> connectionPools, final Tables tables, final int virtualNodes) {
+        this.ring = new ShardRing(connectionPools.size(), virtualNodes);
+        this.tables = tables;
+        this.shards = connectionPools.stream().map(pool -> new Shard(pool, tables)).collect(Collectors.toList());
+        final AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(connectionPools.size(), runnable -> {
+            final Thread thread = new Thread(runnable, "shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates missing tables on shards with the schema of the primary database.
+     *
+     * @return a sharded store.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public ShardedStore start() throws SQLException {
+        final List<String> script = new SchemaManager(shards.get(0).connectionPool.getDataSource(), tables).script();
+        for (final Shard shard : shards.subList(1, shards.size())) {
+            new SchemaManager(shard.connectionPool.getDataSource(), tables).create(script);
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the shard of a configuration.
+     *
+     * @param name a name of a configuration.
+     * @return an index of a shard.
+     */
+    public int getShard(final String name) {
+        return ring.getShard(name);
+    }
+
+    /**
+     * Updates configurations on their shards, ids of stored configurations are kept, versions of changed ones
+     * are incremented and unchanged ones keep their versions. Configurations must have the stored versions,
+     * they are compared on all shards before any shard is written, so stale configurations are rejected without
+     * writes. Every shard is updated in its own transaction, so a configuration which is changed by another client
+     * after the comparison is rejected when other shards may be already written.
+     *
+     * @param configs configurations with unique names.
+     * @return updated configurations.
+     * @throws IllegalStateException when configurations have stale versions.
+     */
+    public List<Config> update(final Collection<Config> configs) {
+        final Map<Integer, List<Config>> groups = group(configs, Config::getName);
+        final List<String> stale = execute(groups, ShardedStore::getStale, SHARD_READ_ERROR).stream().
+                flatMap(List::stream).
+                collect(Collectors.toList());
+        if (stale.isEmpty()) {
+            final DeltaResult result = DeltaResult.combine(execute(groups,
+                    (shard, chunk) -> shard.importer.updateDelta(chunk), SHARD_WRITE_ERROR));
+            if (result.getRejected().isEmpty()) {
+                return result.getConfigs();
+            }
+
+            stale.addAll(result.getRejected());
+        }
+
+        throw new IllegalStateException(String.format(SHARD_STALE_ERROR, stale));
+    }
+
+    /**
+     * Updates configurations on their shards by writing only changed properties and attributes.
+     *
+     * @param configs configurations with unique names.
+     * @return a combined result of shards.
+     */
+    public DeltaResult updateDelta(final Collection<Config> configs) {
+        return DeltaResult.combine(execute(group(configs, Config::getName),
+                (shard, chunk) -> shard.importer.updateDelta(chunk), SHARD_WRITE_ERROR));
+    }
+
+    /**
+     * Writes configurations on their shards with the bulk import.
+     *
+     * @param configs configurations with unique names.
+     * @return a number of written configurations.
+     */
+    public int write(final Collection<Config> configs) {
+        return execute(group(configs, Config::getName), (shard, chunk) -> shard.importer.write(chunk),
+                SHARD_WRITE_ERROR).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Removes configurations from their shards.
+     *
+     * @param names names of configurations.
+     * @return a number of removed configurations.
+     */
+    public int remove(final Collection<String> names) {
+        return execute(group(names, Function.identity()), (shard, chunk) -> shard.importer.remove(chunk),
+                SHARD_WRITE_ERROR).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Returns names of all configurations of all shards.
+     *
+     * @return a sorted stream of names.
+     */
+    public Stream<String> getNames() {
+        return execute(all(), (shard, chunk) -> shard.exporter.getNames(), SHARD_READ_ERROR).stream().
+                flatMap(List::stream).
+                sorted();
+    }
+
+    /**
+     * Returns all configurations of all shards.
+     *
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get() {
+        return execute(all(), (shard, chunk) -> collect(shard.exporter.export(FETCH_SIZE)), SHARD_READ_ERROR).
+                stream().
+                flatMap(List::stream);
+    }
+
+    /**
+     * Returns configurations by names, names are grouped by shards and shards are queried in parallel.
+     *
+     * @param names names of configurations.
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get(final Collection<String> names) {
+        return execute(group(names, Function.identity()),
+                (shard, chunk) -> collect(shard.exporter.exportByNames(chunk, FETCH_SIZE)), SHARD_READ_ERROR).
+                stream().
+                flatMap(List::stream);
+    }
+
+    /**
+     * Returns a property of a configuration from its shard.
+     *
+     * @param name  a name of a configuration.
+     * @param paths names of the property and its parents.
+     * @return a property or an empty optional.
+     */
+    public Optional<Property> getProperty(final String name, final String... paths) {
+        try {
+            return shards.get(ring.getShard(name)).exporter.getProperty(name, paths);
+        } catch (final SQLException e) {
+            throw new RuntimeException(SHARD_READ_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of all configurations of all shards, shards are read one by one.
+     * It must be closed to release the connection.
+     *
+     * @param fetchSize a number of rows that are fetched at once.
+     * @return a stream of configurations.
+     */
+    public Stream<Config> export(final int fetchSize) {
+        return shards.stream().flatMap(shard -> {
+            try {
+                return shard.exporter.export(fetchSize);
+            } catch (final SQLException e) {
+                throw new RuntimeException(EXPORT_ERROR, e);
+            }
+        });
+    }
+
+    /**
+     * Returns snapshots of the connection pool metrics of shards.
+     *
+     * @return a list of pool metrics.
+     */
+    public List<PoolMetrics> getMetrics() {
+        return shards.stream().map(shard -> shard.connectionPool.getMetrics()).collect(Collectors.toList());
+    }
+
+    /**
+     * Stops the executor and closes connection pools of shards except the primary one, it is closed by its owner.
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        // All pools are closed, even if some of them fail
+        IOException exception = null;
+        for (final Shard shard : shards.subList(1, shards.size())) {
+            try {
+                shard.connectionPool.close();
+            } catch (final IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private <T> Map<Integer, List<T>> group(final Collection<T> values, final Function<T, String> name) {
+        final Map<Integer, List<T>> groups = new TreeMap<>();
+        for (final T value : values) {
+            groups.computeIfAbsent(ring.getShard(name.apply(value)), k -> new ArrayList<>()).add(value);
+        }
+
+        return groups;
+    }
+
+    private <T> Map<Integer, List<T>> all() {
+        final Map<Integer, List<T>> groups = new TreeMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            groups.put(i, Collections.emptyList());
+        }
+
+        return groups;
+    }
+
+    private <T, R> List<R> execute(final Map<Integer, List<T>> groups, final ShardTask<T, R> task,
+                                   final String message) {
+        // Shards are accessed within the context of the calling operation
+        final OperationContext context = OperationContext.current();
+        final List<Callable<R>> calls = new ArrayList<>(groups.size());
+        for (final Map.Entry<Integer, List<T>> group : groups.entrySet()) {
+            calls.add(() -> {
+                final OperationContext previous = OperationContext.attach(context);
+                try {
+                    return task.execute(shards.get(group.getKey()), group.getValue());
+                } finally {
+                    OperationContext.restore(previous);
+                }
+            });
+        }
+
+        try {
+            final List<R> results = new ArrayList<>(calls.size());
+            if (calls.size() == 1) {
+                // A single shard is accessed in the calling thread
+                results.add(calls.get(0).call());
+            } else {
+                for (final Future<R> future : executor.invokeAll(calls)) {
+                    results.add(future.get());
+                }
+            }
+
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(message, e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(message, e.getCause());
+        } catch (final Exception e) {
+            throw new RuntimeException(message, e);
+        }
+    }
+
+    private static List<String> getStale(final Shard shard, final List<Config> configs) throws SQLException {
+        final Map<String, Integer> versions =
+                shard.exporter.getVersions(configs.stream().map(Config::getName).collect(Collectors.toList()));
+        return configs.stream().
+                filter(config -> versions.containsKey(config.getName()) &&
+                        versions.get(config.getName()) != config.getVersion()).
+                map(Config::getName).
+                collect(Collectors.toList());
+    }
+
+    private static <T> List<T> collect(final Stream<T> stream) {
+        try (final Stream<T> values = stream) {
+            return values.collect(Collectors.toList());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ShardTask<T, R> {
+
+        R execute(final Shard shard, final List<T> chunk) throws SQLException;
+    }
+
+    private static final class Shard {
+        private final ConnectionPool connectionPool;
+        private final ConfigExporter exporter;
+        private final BulkImporter importer;
+
+        private Shard(final ConnectionPool connectionPool, final Tables tables) {
+            this.connectionPool = connectionPool;
+            this.exporter = new ConfigExporter(connectionPool.getDataSource(), tables);
+            this.importer = new BulkImporter(connectionPool.getDataSource(), tables);
+        }
+    }
+}
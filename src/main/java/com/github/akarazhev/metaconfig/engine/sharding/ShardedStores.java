@@ -0,0 +1,99 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.sharding;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.sharding.ShardedStores.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.sharding.ShardedStores.Settings.VIRTUAL_NODES;
+import static com.github.akarazhev.metaconfig.engine.sharding.ShardedStores.Settings.VIRTUAL_NODES_VALUE;
+
+/**
+ * Provides factory methods to create a sharded store.
+ */
+public final class ShardedStores {
+
+    private ShardedStores() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the sharded store.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "sharding";
+        // The virtual nodes key, a number of points of a shard on the hash ring
+        public static final String VIRTUAL_NODES = "virtual-nodes";
+        // The virtual nodes value
+        static final int VIRTUAL_NODES_VALUE = 160;
+    }
+
+    /**
+     * Returns a default sharded store.
+     *
+     * @param connectionPools connection pools of shards, the first one is the primary database.
+     * @param tables          tables of configurations.
+     * @return a sharded store.
+     */
+    public static ShardedStore newStore(final List<ConnectionPool> connectionPools, final Tables tables) {
+        return create(connectionPools, tables, VIRTUAL_NODES_VALUE);
+    }
+
+    /**
+     * Returns a sharded store based on the configuration.
+     *
+     * @param config          a configuration of a sharded store.
+     * @param connectionPools connection pools of shards, the first one is the primary database.
+     * @param tables          tables of configurations.
+     * @return a sharded store.
+     */
+    public static ShardedStore newStore(final Config config, final List<ConnectionPool> connectionPools,
+                                        final Tables tables) {
+        // Validate the config
+        final Config shardingConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(VIRTUAL_NODES).
+                                map(p -> p.asLong() > 0 && p.asLong() <= Integer.MAX_VALUE).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, VIRTUAL_NODES)).
+                get();
+        // Get the virtual nodes
+        final long virtualNodes = shardingConfig.getProperty(VIRTUAL_NODES).
+                map(Property::asLong).
+                orElse((long) VIRTUAL_NODES_VALUE);
+        // Create the sharded store
+        return create(connectionPools, tables, (int) virtualNodes);
+    }
+
+    private static ShardedStore create(final List<ConnectionPool> connectionPools, final Tables tables,
+                                       final int virtualNodes) {
+        final List<ConnectionPool> pools = Validator.of(connectionPools).
+                validate(p -> p.size() > 0, String.format(WRONG_PARAM_VALUE, "connectionPools")).
+                get();
+        return new ShardedStore(new ArrayList<>(pools), Validator.of(tables).get(), virtualNodes);
+    }
+}
@@ -0,0 +1,312 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.snapshot;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.engine.dump.ConfigCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_SIZE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_DUMP_FORMAT;
+
+/**
+ * The immutable snapshot of configurations in a memory-mapped file. Encoded configurations are followed by
+ * the index of entries which is sorted by names, so a configuration is found with the binary search and decoded
+ * directly from the mapped file.
+ */
+public final class SnapshotFile {
+    // The last bytes of a snapshot
+    private static final int MAGIC = 0x4D43534E;
+    // The version of the format
+    private static final int VERSION = 1;
+    // The footer: a number of entries, an offset of the index, the version and the magic
+    private static final int FOOTER_SIZE = 20;
+    // The entry: an offset and a length of a config, a version, an offset and a length of a name
+    private static final int ENTRY_SIZE = 28;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int index;
+
+    private SnapshotFile(final ByteBuffer buffer, final int count, final int index) {
+        this.buffer = buffer;
+        this.count = count;
+        this.index = index;
+    }
+
+    /**
+     * Maps a snapshot file to the memory.
+     *
+     * @param path a path of a snapshot.
+     * @return a snapshot.
+     * @throws IOException when a snapshot can not be read.
+     */
+    public static SnapshotFile open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format(SNAPSHOT_SIZE_ERROR, Integer.MAX_VALUE));
+            } else if (size < FOOTER_SIZE) {
+                throw new IOException(WRONG_DUMP_FORMAT);
+            }
+            // The mapping stays valid after the channel is closed and the file is replaced
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final int footer = (int) size - FOOTER_SIZE;
+            final int count = buffer.getInt(footer);
+            final long index = buffer.getLong(footer + 4);
+            if (buffer.getInt(footer + 16) != MAGIC || buffer.getInt(footer + 12) != VERSION || count < 0 ||
+                    index < 0 || index + (long) count * ENTRY_SIZE > footer) {
+                throw new IOException(WRONG_DUMP_FORMAT);
+            }
+
+            return new SnapshotFile(buffer, count, (int) index);
+        }
+    }
+
+    /**
+     * Writes configurations to a snapshot. The snapshot is replaced only when it is completely written.
+     *
+     * @param stream a stream of configurations.
+     * @param path   a path of a snapshot.
+     * @return a number of written configurations.
+     * @throws IOException when a snapshot can not be written.
+     */
+    public static long write(final Stream<Config> stream, final Path path) throws IOException {
+        final Path target = path.toAbsolutePath();
+        final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        final long count;
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temp), BUFFER_SIZE))) {
+            // Configs are written in the order of the stream, only their entries are kept to build the index
+            final List<Entry> entries = new ArrayList<>();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+            final DataOutputStream encoder = new DataOutputStream(bytes);
+            long offset = 0;
+            final Iterator<Config> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                final Config config = iterator.next();
+                bytes.reset();
+                ConfigCodec.write(encoder, config);
+                bytes.writeTo(output);
+                entries.add(new Entry(config.getName().getBytes(StandardCharsets.UTF_8), offset, bytes.size(),
+                        config.getVersion()));
+                offset += bytes.size();
+            }
+
+            entries.sort((first, second) -> compare(first.name, second.name));
+            long nameOffset = offset + (long) entries.size() * ENTRY_SIZE;
+            for (final Entry entry : entries) {
+                output.writeLong(entry.offset);
+                output.writeInt(entry.length);
+                output.writeInt(entry.version);
+                output.writeLong(nameOffset);
+                output.writeInt(entry.name.length);
+                nameOffset += entry.name.length;
+            }
+
+            for (final Entry entry : entries) {
+                output.write(entry.name);
+            }
+
+            if (nameOffset + FOOTER_SIZE > Integer.MAX_VALUE) {
+                throw new IOException(String.format(SNAPSHOT_SIZE_ERROR, Integer.MAX_VALUE));
+            }
+
+            output.writeInt(entries.size());
+            output.writeLong(offset);
+            output.writeInt(VERSION);
+            output.writeInt(MAGIC);
+            count = entries.size();
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * Returns the number of configurations.
+     *
+     * @return a number of configurations.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns names of configurations in the sorted order.
+     *
+     * @return a stream of names.
+     */
+    public Stream<String> getNames() {
+        return IntStream.range(0, count).mapToObj(this::getName);
+    }
+
+    /**
+     * Returns all configurations in the order of names, they are decoded lazily.
+     *
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get() {
+        return IntStream.range(0, count).mapToObj(this::read);
+    }
+
+    /**
+     * Returns a configuration by the name.
+     *
+     * @param name a name of a configuration.
+     * @return a configuration or null if the snapshot does not have it.
+     */
+    public Config get(final String name) {
+        final int i = find(name);
+        return i >= 0 ? read(i) : null;
+    }
+
+    /**
+     * Returns the version of a configuration by the name without decoding it.
+     *
+     * @param name a name of a configuration.
+     * @return a version or 0 if the snapshot does not have the configuration.
+     */
+    public int getVersion(final String name) {
+        final int i = find(name);
+        return i >= 0 ? buffer.getInt(entry(i) + 12) : 0;
+    }
+
+    private int find(final String name) {
+        final byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int result = compare(middle, key);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    private int compare(final int i, final byte[] key) {
+        // Names are compared in the mapped file without copying
+        final int offset = (int) buffer.getLong(entry(i) + 16);
+        final int length = buffer.getInt(entry(i) + 24);
+        final int min = Math.min(length, key.length);
+        for (int j = 0; j < min; j++) {
+            final int result = Integer.compare(buffer.get(offset + j) & 0xFF, key[j] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return Integer.compare(length, key.length);
+    }
+
+    private String getName(final int i) {
+        final byte[] name = new byte[buffer.getInt(entry(i) + 24)];
+        final ByteBuffer view = buffer.duplicate();
+        view.position((int) buffer.getLong(entry(i) + 16));
+        view.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private Config read(final int i) {
+        final int offset = (int) buffer.getLong(entry(i));
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + buffer.getInt(entry(i) + 8));
+        try {
+            return ConfigCodec.read(new DataInputStream(new BufferInput(view)));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int entry(final int i) {
+        return index + i * ENTRY_SIZE;
+    }
+
+    private static int compare(final byte[] first, final byte[] second) {
+        final int min = Math.min(first.length, second.length);
+        for (int i = 0; i < min; i++) {
+            final int result = Integer.compare(first[i] & 0xFF, second[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return Integer.compare(first.length, second.length);
+    }
+
+    private static final class Entry {
+        private final byte[] name;
+        private final long offset;
+        private final int length;
+        private final int version;
+
+        private Entry(final byte[] name, final long offset, final int length, final int version) {
+            this.name = name;
+            this.offset = offset;
+            this.length = length;
+            this.version = version;
+        }
+    }
+
+    private static final class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInput(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.snapshot;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_PUBLISH_ERROR;
+
+/**
+ * Publishes the snapshot file of all configurations after changes. Changes which are made within the delay
+ * are published with a single snapshot, the snapshot is also published at the start and on close.
+ */
+public final class SnapshotPublisher implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(SnapshotPublisher.class.getSimpleName());
+    private static final long SHUTDOWN_TIMEOUT = 10;
+    private final Path path;
+    private final long delay;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final Object publishLock = new Object();
+    private Supplier<Stream<Config>> configs;
+    private ScheduledExecutorService executor;
+    private long published;
+
+    SnapshotPublisher(final Path path, final long delay) {
+        this.path = path;
+        this.delay = delay;
+    }
+
+    /**
+     * Starts publishing and publishes the first snapshot.
+     *
+     * @param configs a supplier of a stream of all configurations, the stream is closed.
+     * @return a snapshot publisher.
+     */
+    public synchronized SnapshotPublisher start(final Supplier<Stream<Config>> configs) {
+        if (executor == null) {
+            this.configs = configs;
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "snapshot-publisher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pending.set(true);
+            executor.execute(this::publishSafely);
+        }
+
+        return this;
+    }
+
+    /**
+     * Requests publishing of the snapshot after the delay, requests within the delay are merged.
+     */
+    public void requestPublish() {
+        if (pending.compareAndSet(false, true)) {
+            synchronized (this) {
+                // A request before the start is published with the first snapshot
+                if (executor != null) {
+                    executor.schedule(this::publishSafely, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the snapshot.
+     *
+     * @return a number of published configurations.
+     * @throws IOException when a snapshot can not be written.
+     */
+    public long publish() throws IOException {
+        synchronized (publishLock) {
+            pending.set(false);
+            try (final Stream<Config> stream = configs.get()) {
+                final long count = SnapshotFile.write(stream, path);
+                published++;
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of published snapshots.
+     *
+     * @return a number of snapshots.
+     */
+    public long getPublished() {
+        synchronized (publishLock) {
+            return published;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        final ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+
+        if (executor != null) {
+            // The delayed publishing is completed, so the snapshot has all changes
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (pending.get()) {
+                publishSafely();
+            }
+        }
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, SNAPSHOT_PUBLISH_ERROR, e);
+        }
+    }
+}
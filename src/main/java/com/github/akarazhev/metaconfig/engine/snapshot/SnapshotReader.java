@@ -0,0 +1,169 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.snapshot;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_REFRESH_ERROR;
+
+/**
+ * Reads configurations from the published snapshot file. The file is checked periodically and a replaced file
+ * is mapped and swapped atomically, so reads always see a complete snapshot.
+ */
+public final class SnapshotReader implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(SnapshotReader.class.getSimpleName());
+    private final Path path;
+    private final long interval;
+    private volatile Mapped mapped = new Mapped(null, null);
+    private Consumer<Collection<String>> listener;
+    private ScheduledExecutorService executor;
+
+    SnapshotReader(final Path path, final long interval) {
+        this.path = path;
+        this.interval = interval;
+    }
+
+    /**
+     * Maps the current snapshot and starts periodic checks of the file.
+     *
+     * @param listener a consumer of names of configurations which are changed by a new snapshot.
+     * @return a snapshot reader.
+     * @throws IOException when a snapshot can not be read.
+     */
+    public synchronized SnapshotReader start(final Consumer<Collection<String>> listener) throws IOException {
+        if (executor == null) {
+            refresh();
+            this.listener = listener;
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "snapshot-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::refreshSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        return this;
+    }
+
+    /**
+     * Maps the snapshot file if it is replaced since the last check. An absent file is read as an empty snapshot
+     * until it is published.
+     *
+     * @return names of configurations which are added or changed by a new snapshot.
+     * @throws IOException when a snapshot can not be read.
+     */
+    public synchronized List<String> refresh() throws IOException {
+        final String key;
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            // A published file is moved, so it has a new file key or modification time
+            key = Objects.toString(attributes.fileKey()) + ':' + attributes.lastModifiedTime().toMillis() + ':' +
+                    attributes.size();
+        } catch (final NoSuchFileException e) {
+            return Collections.emptyList();
+        }
+
+        final Mapped previous = mapped;
+        if (key.equals(previous.key)) {
+            return Collections.emptyList();
+        }
+
+        final SnapshotFile file = SnapshotFile.open(path);
+        mapped = new Mapped(file, key);
+        final List<String> changed = file.getNames().
+                filter(name -> previous.file == null || previous.file.getVersion(name) != file.getVersion(name)).
+                collect(Collectors.toList());
+        if (listener != null && changed.size() > 0) {
+            listener.accept(changed);
+        }
+
+        return changed;
+    }
+
+    /**
+     * Returns names of configurations of the current snapshot.
+     *
+     * @return a stream of names.
+     */
+    public Stream<String> getNames() {
+        final SnapshotFile file = mapped.file;
+        return file != null ? file.getNames() : Stream.empty();
+    }
+
+    /**
+     * Returns all configurations of the current snapshot.
+     *
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get() {
+        final SnapshotFile file = mapped.file;
+        return file != null ? file.get() : Stream.empty();
+    }
+
+    /**
+     * Returns configurations of the current snapshot by names.
+     *
+     * @param names names of configurations.
+     * @return a stream of configurations.
+     */
+    public Stream<Config> get(final Collection<String> names) {
+        final SnapshotFile file = mapped.file;
+        return file != null ? names.stream().map(file::get).filter(Objects::nonNull) : Stream.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, SNAPSHOT_REFRESH_ERROR, e);
+        }
+    }
+
+    private static final class Mapped {
+        private final SnapshotFile file;
+        private final String key;
+
+        private Mapped(final SnapshotFile file, final String key) {
+            this.file = file;
+            this.key = key;
+        }
+    }
+}
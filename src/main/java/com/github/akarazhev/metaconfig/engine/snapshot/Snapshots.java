@@ -0,0 +1,106 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.snapshot;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.nio.file.Paths;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.DELAY;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.DELAY_VALUE;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.INTERVAL;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.INTERVAL_VALUE;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.PATH;
+
+/**
+ * Provides factory methods to create a snapshot publisher and a snapshot reader.
+ */
+public final class Snapshots {
+
+    private Snapshots() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the snapshot.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "snapshot";
+        // The path key
+        public static final String PATH = "path";
+        // The delay key of the publisher (milliseconds)
+        public static final String DELAY = "delay";
+        // The delay value
+        static final long DELAY_VALUE = 100;
+        // The interval key of checks of the reader (milliseconds)
+        public static final String INTERVAL = "interval";
+        // The interval value
+        static final long INTERVAL_VALUE = 1000;
+    }
+
+    /**
+     * Returns a snapshot publisher based on the configuration.
+     *
+     * @param config a configuration of a snapshot.
+     * @return a snapshot publisher.
+     */
+    public static SnapshotPublisher newPublisher(final Config config) {
+        final Config snapshotConfig = validate(config);
+        // Get the delay
+        final long delay = snapshotConfig.getProperty(DELAY).
+                map(Property::asLong).
+                orElse(DELAY_VALUE);
+        // Create the snapshot publisher
+        return new SnapshotPublisher(Paths.get(snapshotConfig.getProperty(PATH).get().getValue()), delay);
+    }
+
+    /**
+     * Returns a snapshot reader based on the configuration.
+     *
+     * @param config a configuration of a snapshot.
+     * @return a snapshot reader.
+     */
+    public static SnapshotReader newReader(final Config config) {
+        final Config snapshotConfig = validate(config);
+        // Get the interval
+        final long interval = snapshotConfig.getProperty(INTERVAL).
+                map(Property::asLong).
+                orElse(INTERVAL_VALUE);
+        // Create the snapshot reader
+        return new SnapshotReader(Paths.get(snapshotConfig.getProperty(PATH).get().getValue()), interval);
+    }
+
+    private static Config validate(final Config config) {
+        // Validate the config
+        return Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(PATH).map(p -> !p.getValue().isEmpty()).orElse(false),
+                        String.format(WRONG_PARAM_VALUE, PATH)).
+                validate(c -> c.getProperty(DELAY).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, DELAY)).
+                validate(c -> c.getProperty(INTERVAL).map(p -> p.asLong() > 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, INTERVAL)).
+                get();
+    }
+}
@@ -0,0 +1,140 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.startup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.STARTUP_TIMEOUT;
+
+/**
+ * Runs startup phases concurrently, a phase starts when its dependencies are completed. All phases share
+ * the startup timeout and durations of completed phases are recorded in the order of completion.
+ */
+public final class StartupPhases implements AutoCloseable {
+    // The interval of readiness checks (milliseconds)
+    private static final long READY_INTERVAL = 10;
+    private final ExecutorService executor;
+    private final long timeout;
+    private final long deadline;
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+
+    /**
+     * Constructs startup phases with the timeout.
+     *
+     * @param timeout a startup timeout in milliseconds.
+     */
+    public StartupPhases(final long timeout) {
+        final AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "startup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeout = timeout;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Runs a phase when dependencies are completed.
+     *
+     * @param phase        a name of a phase.
+     * @param task         a task of a phase.
+     * @param dependencies phases which must be completed before.
+     * @param <T>          a type of a result.
+     * @return a future of a result.
+     */
+    public <T> CompletableFuture<T> run(final String phase, final Callable<T> task,
+                                        final CompletableFuture<?>... dependencies) {
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+            final long started = System.nanoTime();
+            try {
+                return task.call();
+            } catch (final Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                synchronized (timings) {
+                    timings.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                }
+            }
+        }, executor);
+    }
+
+    /**
+     * Waits for a result of a phase within the startup timeout.
+     *
+     * @param future a future of a phase.
+     * @param <T>    a type of a result.
+     * @return a result of a phase.
+     * @throws Exception when a phase is failed or the timeout is expired.
+     */
+    public <T> T await(final CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (final TimeoutException e) {
+            throw new TimeoutException(String.format(STARTUP_TIMEOUT, timeout));
+        }
+    }
+
+    /**
+     * Waits until a component is ready within the startup timeout.
+     *
+     * @param ready a readiness check.
+     * @throws Exception when the timeout is expired or the waiting is interrupted.
+     */
+    public void awaitReady(final BooleanSupplier ready) throws Exception {
+        while (!ready.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new TimeoutException(String.format(STARTUP_TIMEOUT, timeout));
+            }
+
+            Thread.sleep(READY_INTERVAL);
+        }
+    }
+
+    /**
+     * Returns durations of completed phases.
+     *
+     * @return a map of durations in milliseconds by phases.
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+        }
+    }
+
+    /**
+     * Interrupts running phases and waits until they are completed, so components which are started by them are
+     * known to the caller. Phases which are not completed within the startup timeout are abandoned.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.warmup;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCache;
+import com.github.akarazhev.metaconfig.engine.dump.ConfigDumps;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.CONNECTION_CLOSE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_READ_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SNAPSHOT_WRITE_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WARM_UP_COMPLETED;
+
+/**
+ * Warms up the connection pool and the config cache at the start. Configurations are preloaded from a snapshot
+ * which is written on close, configurations which are changed since the snapshot are loaded from the database.
+ */
+public final class WarmUp {
+    private final static Logger LOGGER = Logger.getLogger(WarmUp.class.getSimpleName());
+    private final Path snapshot;
+    private final Collection<String> names;
+    private final int connections;
+
+    WarmUp(final Path snapshot, final Collection<String> names, final int connections) {
+        this.snapshot = snapshot;
+        this.names = names;
+        this.connections = connections;
+    }
+
+    /**
+     * Opens connections of the pool, so first requests do not wait for them.
+     *
+     * @param dataSource a datasource.
+     * @return a number of opened connections.
+     * @throws SQLException when a database encounters a problem.
+     */
+    public int openConnections(final DataSource dataSource) throws SQLException {
+        final List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } finally {
+            for (final Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (final SQLException e) {
+                    LOGGER.log(Level.WARNING, CONNECTION_CLOSE_ERROR, e);
+                }
+            }
+        }
+
+        return opened.size();
+    }
+
+    /**
+     * Preloads configurations into the cache. Configurations of the snapshot are used if their versions are
+     * not changed, others are loaded from the database. Without the cache, configurations are only read,
+     * so pages of the database are cached.
+     *
+     * @param cache    a config cache or null.
+     * @param allNames a supplier of names of all configurations.
+     * @param loader   a function that loads configurations by names from the database.
+     * @param versions versions of stored configurations by config ids or null if they are unknown.
+     * @return a number of preloaded configurations.
+     */
+    public long preload(final ConfigCache cache, final Supplier<Stream<String>> allNames,
+                        final Function<Collection<String>, Stream<Config>> loader,
+                        final Map<Long, Integer> versions) {
+        final long started = System.currentTimeMillis();
+        final Collection<String> warmNames = names.isEmpty() ? allNames.get().collect(Collectors.toList()) : names;
+        final long count;
+        final int fromSnapshot;
+        if (cache != null) {
+            final Map<String, Config> fresh = readSnapshot(warmNames, versions);
+            fromSnapshot = fresh.size();
+            count = cache.get(warmNames.stream(), missed -> {
+                final List<String> stale = missed.stream().
+                        filter(name -> !fresh.containsKey(name)).
+                        collect(Collectors.toList());
+                return Stream.concat(missed.stream().map(fresh::get).filter(Objects::nonNull),
+                        stale.isEmpty() ? Stream.empty() : loader.apply(stale));
+            }).count();
+        } else {
+            fromSnapshot = 0;
+            count = warmNames.isEmpty() ? 0 : loader.apply(warmNames).count();
+        }
+
+        LOGGER.log(Level.INFO, String.format(WARM_UP_COMPLETED, count, fromSnapshot,
+                System.currentTimeMillis() - started));
+        return count;
+    }
+
+    /**
+     * Writes configurations to the snapshot. The snapshot is replaced only when it is completely written.
+     *
+     * @param all    a supplier of a stream of all configurations, the stream is closed.
+     * @param loader a function that loads configurations by names from the database.
+     * @return a number of written configurations.
+     */
+    public long save(final Supplier<Stream<Config>> all, final Function<Collection<String>, Stream<Config>> loader) {
+        if (snapshot == null) {
+            return 0;
+        }
+
+        try {
+            final Path path = snapshot.toAbsolutePath();
+            final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            final long count;
+            try (final Stream<Config> stream = names.isEmpty() ? all.get() : loader.apply(names)) {
+                count = ConfigDumps.write(stream, temp);
+            }
+
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, SNAPSHOT_WRITE_ERROR, e);
+            return 0;
+        }
+    }
+
+    private Map<String, Config> readSnapshot(final Collection<String> warmNames, final Map<Long, Integer> versions) {
+        final Map<String, Config> fresh = new HashMap<>();
+        if (snapshot != null && versions != null && Files.exists(snapshot)) {
+            final Set<String> nameSet = new HashSet<>(warmNames);
+            try (final Stream<Config> stream = ConfigDumps.read(snapshot)) {
+                stream.filter(config -> nameSet.contains(config.getName()) &&
+                        Objects.equals(versions.get(config.getId()), config.getVersion())).
+                        forEach(config -> fresh.put(config.getName(), config));
+            } catch (final Exception e) {
+                LOGGER.log(Level.WARNING, SNAPSHOT_READ_ERROR, e);
+                fresh.clear();
+            }
+        }
+
+        return fresh;
+    }
+}
@@ -0,0 +1,91 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.warmup;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.CONNECTIONS;
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.NAMES;
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.SNAPSHOT;
+
+/**
+ * Provides factory methods to create a warm-up.
+ */
+public final class WarmUps {
+
+    private WarmUps() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the warm-up.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "warm-up";
+        // The snapshot path key
+        public static final String SNAPSHOT = "snapshot";
+        // The names key of preloaded configs, all configs are preloaded by default
+        public static final String NAMES = "names";
+        // The number of opened connections key, the max connections of the pool by default
+        public static final String CONNECTIONS = "connections";
+    }
+
+    /**
+     * Returns a warm-up based on the configuration.
+     *
+     * @param config         a configuration of a warm-up.
+     * @param maxConnections a maximum number of connections of the pool.
+     * @return a warm-up.
+     */
+    public static WarmUp newWarmUp(final Config config, final int maxConnections) {
+        // Validate the config
+        final Config warmUpConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(SNAPSHOT).map(p -> !p.getValue().isEmpty()).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, SNAPSHOT)).
+                validate(c -> c.getProperty(CONNECTIONS).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, CONNECTIONS)).
+                get();
+        // Get the snapshot
+        final Path snapshot = warmUpConfig.getProperty(SNAPSHOT).
+                map(p -> Paths.get(p.getValue())).
+                orElse(null);
+        // Get the names
+        final Collection<String> names = warmUpConfig.getProperty(NAMES).
+                map(p -> Arrays.asList(p.asArray())).
+                orElse(Collections.emptyList());
+        // Get the connections
+        final long connections = warmUpConfig.getProperty(CONNECTIONS).
+                map(Property::asLong).
+                orElse((long) maxConnections);
+        // Create the warm-up
+        return new WarmUp(snapshot, names, (int) Math.min(Math.min(connections, maxConnections), Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,313 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.writebehind;
+
+import com.github.akarazhev.metaconfig.api.Config;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRITE_BEHIND_CLOSED;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRITE_BEHIND_ERROR;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRITE_BEHIND_QUEUE_FULL;
+
+/**
+ * Queues updates of configurations and writes them in batches. Updates of the same configuration within the delay
+ * are coalesced, so only the latest one is written and all callers receive the stored configuration. A batch is
+ * written after the delay or as soon as it reaches the batch size. Callers are blocked while the queue is full
+ * up to the timeout, queued updates are written on close.
+ */
+public final class WriteBehindQueue implements Closeable {
+    private final static Logger LOGGER = Logger.getLogger(WriteBehindQueue.class.getSimpleName());
+    private static final long SHUTDOWN_TIMEOUT = 10;
+    private final long delay;
+    private final int batchSize;
+    private final int queueSize;
+    private final long timeout;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private List<Entry> written = Collections.emptyList();
+    private long firstQueued;
+    private boolean flushRequested;
+    private boolean closed;
+    private Function<Stream<Config>, Stream<Config>> writer;
+    private ExecutorService executor;
+    private volatile Thread flusher;
+
+    WriteBehindQueue(final long delay, final int batchSize, final int queueSize, final long timeout) {
+        this.delay = TimeUnit.MILLISECONDS.toNanos(delay);
+        this.batchSize = batchSize;
+        this.queueSize = queueSize;
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Starts writing of batches.
+     *
+     * @param writer a writer of a batch of configurations which returns stored configurations.
+     * @return a write-behind queue.
+     */
+    public synchronized WriteBehindQueue start(final Function<Stream<Config>, Stream<Config>> writer) {
+        if (executor == null) {
+            this.writer = writer;
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.execute(this::run);
+        }
+
+        return this;
+    }
+
+    /**
+     * Queues updates of configurations.
+     *
+     * @param stream a stream of configurations.
+     * @return a future of stored configurations, it is completed when all configurations are written.
+     */
+    public CompletableFuture<List<Config>> update(final Stream<Config> stream) {
+        final Map<String, Config> configs = new LinkedHashMap<>();
+        stream.forEach(config -> configs.put(config.getName(), config));
+        final List<CompletableFuture<Config>> futures = new ArrayList<>(configs.size());
+        try {
+            final long deadline = System.nanoTime() + timeout;
+            lock.lockInterruptibly();
+            try {
+                for (final Config config : configs.values()) {
+                    final Entry entry = entries.get(config.getName());
+                    if (entry != null) {
+                        // The queued update is replaced with the latest one
+                        entry.config = config;
+                        futures.add(entry.future);
+                        continue;
+                    }
+
+                    while (!closed && entries.size() >= queueSize) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new RejectedExecutionException(String.format(WRITE_BEHIND_QUEUE_FULL, queueSize));
+                        }
+
+                        notFull.awaitNanos(remaining);
+                    }
+
+                    if (closed) {
+                        throw new IllegalStateException(WRITE_BEHIND_CLOSED);
+                    }
+
+                    if (entries.isEmpty()) {
+                        firstQueued = System.nanoTime();
+                    }
+
+                    final Entry newEntry = new Entry(config);
+                    entries.put(config.getName(), newEntry);
+                    futures.add(newEntry.future);
+                    if (entries.size() == 1 || entries.size() >= batchSize) {
+                        notEmpty.signal();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(e);
+        } catch (final RuntimeException e) {
+            return failed(e);
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).
+                thenApply(v -> futures.stream().
+                        map(CompletableFuture::join).
+                        filter(Objects::nonNull).
+                        collect(Collectors.toList()));
+    }
+
+    /**
+     * Writes queued updates without the delay and waits for them, errors are delivered to futures of updates.
+     */
+    public void flush() {
+        // The writer does not wait for itself
+        if (Thread.currentThread() == flusher) {
+            return;
+        }
+
+        final List<CompletableFuture<Config>> futures = new ArrayList<>();
+        lock.lock();
+        try {
+            entries.values().forEach(entry -> futures.add(entry.future));
+            written.forEach(entry -> futures.add(entry.future));
+            if (entries.size() > 0) {
+                flushRequested = true;
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((v, e) -> null).join();
+    }
+
+    /**
+     * Returns the number of configurations which are queued or being written.
+     *
+     * @return a number of configurations.
+     */
+    public int getPending() {
+        lock.lock();
+        try {
+            return entries.size() + written.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+
+        if (executor != null) {
+            // Queued updates are written before the executor is terminated
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Updates which are not written are failed, so callers are not blocked
+        lock.lock();
+        try {
+            final IllegalStateException error = new IllegalStateException(WRITE_BEHIND_CLOSED);
+            entries.values().forEach(entry -> entry.future.completeExceptionally(error));
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        flusher = Thread.currentThread();
+        try {
+            while (true) {
+                final List<Entry> batch;
+                lock.lock();
+                try {
+                    while (entries.isEmpty() && !closed) {
+                        notEmpty.await();
+                    }
+
+                    if (entries.isEmpty()) {
+                        return;
+                    }
+                    // Updates are coalesced within the delay unless the batch is full
+                    long remaining = firstQueued + delay - System.nanoTime();
+                    while (remaining > 0 && entries.size() < batchSize && !flushRequested && !closed) {
+                        remaining = notEmpty.awaitNanos(remaining);
+                    }
+
+                    batch = new ArrayList<>(Math.min(entries.size(), batchSize));
+                    final Iterator<Entry> iterator = entries.values().iterator();
+                    while (iterator.hasNext() && batch.size() < batchSize) {
+                        batch.add(iterator.next());
+                        iterator.remove();
+                    }
+
+                    if (entries.isEmpty()) {
+                        flushRequested = false;
+                    }
+
+                    written = batch;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                write(batch);
+                lock.lock();
+                try {
+                    written = Collections.emptyList();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final List<Entry> batch) {
+        final Map<String, Config> stored = new HashMap<>();
+        try (final Stream<Config> stream = writer.apply(batch.stream().map(entry -> entry.config))) {
+            stream.forEach(config -> stored.put(config.getName(), config));
+        } catch (final RuntimeException e) {
+            LOGGER.log(Level.WARNING, WRITE_BEHIND_ERROR, e);
+            batch.forEach(entry -> entry.future.completeExceptionally(e));
+            return;
+        }
+        // Rejected configurations are completed with null
+        batch.forEach(entry -> entry.future.complete(stored.get(entry.config.getName())));
+    }
+
+    private static <T> CompletableFuture<T> failed(final Exception e) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Config> future = new CompletableFuture<>();
+        private Config config;
+
+        private Entry(final Config config) {
+            this.config = config;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.writebehind;
+
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.extension.Validator;
+
+import java.util.Arrays;
+
+import static com.github.akarazhev.metaconfig.Constants.CREATE_CONSTANT_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.CREATE_FACTORY_CLASS_ERROR;
+import static com.github.akarazhev.metaconfig.Constants.Messages.WRONG_CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.WRONG_PARAM_VALUE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.BATCH_SIZE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.BATCH_SIZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.DELAY;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.DELAY_VALUE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.QUEUE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.QUEUE_SIZE_VALUE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.TIMEOUT;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.TIMEOUT_VALUE;
+
+/**
+ * Provides factory methods to create a write-behind queue.
+ */
+public final class WriteBehinds {
+
+    private WriteBehinds() {
+        throw new AssertionError(CREATE_FACTORY_CLASS_ERROR);
+    }
+
+    /**
+     * Settings constants for the write-behind queue.
+     */
+    public final static class Settings {
+
+        private Settings() {
+            throw new AssertionError(CREATE_CONSTANT_CLASS_ERROR);
+        }
+
+        // The configuration name
+        public static final String CONFIG_NAME = "write-behind";
+        // The delay key of coalescing (milliseconds)
+        public static final String DELAY = "delay";
+        // The delay value
+        static final long DELAY_VALUE = 10;
+        // The batch size key
+        public static final String BATCH_SIZE = "batch-size";
+        // The batch size value
+        static final int BATCH_SIZE_VALUE = 256;
+        // The queue size key
+        public static final String QUEUE_SIZE = "queue-size";
+        // The queue size value
+        static final int QUEUE_SIZE_VALUE = 4096;
+        // The timeout key of waiting for the full queue (milliseconds)
+        public static final String TIMEOUT = "timeout";
+        // The timeout value
+        static final long TIMEOUT_VALUE = 1000;
+    }
+
+    /**
+     * Returns a default write-behind queue.
+     *
+     * @return a write-behind queue.
+     */
+    public static WriteBehindQueue newQueue() {
+        return newQueue(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(DELAY, DELAY_VALUE).build(),
+                new Property.Builder(BATCH_SIZE, BATCH_SIZE_VALUE).build(),
+                new Property.Builder(QUEUE_SIZE, QUEUE_SIZE_VALUE).build(),
+                new Property.Builder(TIMEOUT, TIMEOUT_VALUE).build())).build());
+    }
+
+    /**
+     * Returns a write-behind queue based on the configuration.
+     *
+     * @param config a configuration of a write-behind queue.
+     * @return a write-behind queue.
+     */
+    public static WriteBehindQueue newQueue(final Config config) {
+        // Validate the config
+        final Config queueConfig = Validator.of(config).
+                validate(c -> CONFIG_NAME.equals(c.getName()), WRONG_CONFIG_NAME).
+                validate(c -> c.getProperty(DELAY).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, DELAY)).
+                validate(c -> c.getProperty(BATCH_SIZE).
+                                map(p -> p.asLong() > 0 && p.asLong() <= Integer.MAX_VALUE).
+                                orElse(true),
+                        String.format(WRONG_PARAM_VALUE, BATCH_SIZE)).
+                validate(c -> c.getProperty(QUEUE_SIZE).
+                                map(p -> p.asLong() > 0 && p.asLong() <= Integer.MAX_VALUE).
+                                orElse(true),
+                        String.format(WRONG_PARAM_VALUE, QUEUE_SIZE)).
+                validate(c -> c.getProperty(TIMEOUT).map(p -> p.asLong() >= 0).orElse(true),
+                        String.format(WRONG_PARAM_VALUE, TIMEOUT)).
+                get();
+        // Get the delay
+        final long delay = queueConfig.getProperty(DELAY).
+                map(Property::asLong).
+                orElse(DELAY_VALUE);
+        // Get the batch size
+        final int batchSize = queueConfig.getProperty(BATCH_SIZE).
+                map(p -> (int) p.asLong()).
+                orElse(BATCH_SIZE_VALUE);
+        // Get the queue size
+        final int queueSize = queueConfig.getProperty(QUEUE_SIZE).
+                map(p -> (int) p.asLong()).
+                orElse(QUEUE_SIZE_VALUE);
+        // Get the timeout
+        final long timeout = queueConfig.getProperty(TIMEOUT).
+                map(Property::asLong).
+                orElse(TIMEOUT_VALUE);
+        // Create the write-behind queue
+        return new WriteBehindQueue(delay, batchSize, queueSize, timeout);
+    }
+}
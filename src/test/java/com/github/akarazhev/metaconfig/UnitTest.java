@@ -19,6 +19,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -60,6 +62,23 @@ public class UnitTest {
         connectionPool.close();
     }
 
+    protected void createTables(final ConnectionPool connectionPool) throws SQLException {
+        try (final Connection connection = connectionPool.getDataSource().getConnection();
+             final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE CONFIGS (ID IDENTITY NOT NULL, NAME VARCHAR(255) NOT NULL UNIQUE, " +
+                    "DESCRIPTION VARCHAR(1024), VERSION INT NOT NULL, UPDATED BIGINT NOT NULL)");
+            statement.execute("CREATE TABLE CONFIG_ATTRIBUTES (ID IDENTITY NOT NULL, CONFIG_ID BIGINT NOT NULL, " +
+                    "KEY VARCHAR(255) NOT NULL, VALUE VARCHAR(1024), FOREIGN KEY (CONFIG_ID) REFERENCES CONFIGS (ID))");
+            statement.execute("CREATE TABLE PROPERTIES (ID IDENTITY NOT NULL, PROPERTY_ID BIGINT, " +
+                    "CONFIG_ID BIGINT NOT NULL, NAME VARCHAR(255) NOT NULL, CAPTION VARCHAR(255), " +
+                    "DESCRIPTION VARCHAR(1024), TYPE VARCHAR(255) NOT NULL, VALUE VARCHAR(4096) NOT NULL, " +
+                    "VERSION INT NOT NULL, FOREIGN KEY (CONFIG_ID) REFERENCES CONFIGS (ID))");
+            statement.execute("CREATE TABLE PROPERTY_ATTRIBUTES (ID IDENTITY NOT NULL, PROPERTY_ID BIGINT NOT NULL, " +
+                    "KEY VARCHAR(255) NOT NULL, VALUE VARCHAR(1024), " +
+                    "FOREIGN KEY (PROPERTY_ID) REFERENCES PROPERTIES (ID))");
+        }
+    }
+
     protected Config getConfigWithSubProperties(final String name) {
         final Property firstSubProperty = new Property.Builder("Sub-Property-1", "Sub-Value-1").
                 attribute("key_1", "value_1").build();
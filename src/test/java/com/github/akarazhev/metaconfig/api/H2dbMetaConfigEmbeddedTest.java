@@ -0,0 +1,316 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.engine.cache.ConfigCaches;
+import com.github.akarazhev.metaconfig.engine.db.DbServer;
+import com.github.akarazhev.metaconfig.engine.db.DbServers;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.DeltaResult;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers;
+import com.github.akarazhev.metaconfig.engine.metrics.OperationMetrics;
+import com.github.akarazhev.metaconfig.engine.metrics.OperationSample;
+import com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers;
+import com.github.akarazhev.metaconfig.engine.warmup.WarmUps;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.ARGS;
+import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("H2db meta config embedded test")
+final class H2dbMetaConfigEmbeddedTest extends UnitTest {
+
+    @Test
+    @DisplayName("Build embedded config with the tcp url")
+    void buildEmbeddedWithTcpUrl() {
+        assertThrows(RuntimeException.class, () -> new H2dbMetaConfig.Builder().
+                embedded().
+                connectionPool(getConnectionPool("jdbc:h2:tcp://localhost:8043/mem:embeddedTest")).
+                build());
+    }
+
+    @Test
+    @DisplayName("Get configs in the embedded mode")
+    void getConfigsEmbedded() throws IOException {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("embeddedTest").
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            // Check test results
+            assertEquals(1, h2dbMetaConfig.get(Stream.of(FIRST_CONFIG)).count());
+            assertEquals(1, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG)));
+        }
+    }
+
+    @Test
+    @DisplayName("Get cached configs by names")
+    void getCachedConfigsByNames() throws IOException {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("cacheTest").
+                configCache(getConfigCache()).
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG),
+                    getConfigWithProperties(SECOND_CONFIG)));
+            h2dbMetaConfig.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG)).count();
+            final long hits = h2dbMetaConfig.getCacheHits();
+            final Config[] configs = h2dbMetaConfig.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG)).toArray(Config[]::new);
+            // Check test results
+            assertEquals(2, configs.length);
+            assertEqualsConfig(getConfigWithProperties(FIRST_CONFIG), configs[0]);
+            assertEqualsConfig(getConfigWithProperties(SECOND_CONFIG), configs[1]);
+            assertEquals(hits + 2, h2dbMetaConfig.getCacheHits());
+            assertEquals(2, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG, SECOND_CONFIG)));
+        }
+    }
+
+    @Test
+    @DisplayName("Get cached configs after the update")
+    void getCachedConfigsAfterUpdate() throws IOException {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("cacheUpdateTest").
+                configCache(getConfigCache()).
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            final Optional<Config> firstConfig = h2dbMetaConfig.get(Stream.of(FIRST_CONFIG)).findFirst();
+            assertTrue(firstConfig.isPresent());
+            final Config newConfig = new Config.Builder(firstConfig.get()).description("Updated").build();
+            h2dbMetaConfig.update(Stream.of(newConfig)).count();
+            final Optional<Config> updatedConfig = h2dbMetaConfig.get(Stream.of(FIRST_CONFIG)).findFirst();
+            // Check test results
+            assertTrue(updatedConfig.isPresent());
+            assertEquals("Updated", updatedConfig.get().getDescription());
+            assertEquals(1, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG)));
+        }
+    }
+
+    @Test
+    @DisplayName("Build embedded config with the wrong startup timeout")
+    void buildEmbeddedWithWrongStartupTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> new H2dbMetaConfig.Builder().startupTimeout(0));
+    }
+
+    @Test
+    @DisplayName("Get startup timings in the embedded mode")
+    void getStartupTimings() throws IOException {
+        try (final H2dbMetaConfig h2dbMetaConfig = new H2dbMetaConfig.Builder().
+                embedded().
+                dbServer(getDbServer()).
+                connectionPool(getConnectionPool("jdbc:h2:mem:startupTest;DB_CLOSE_DELAY=-1")).
+                startupTimeout(30000).
+                build()) {
+            // Check test results
+            assertTrue(h2dbMetaConfig.getStartupTimings().containsKey("db-server"));
+            assertTrue(h2dbMetaConfig.getStartupTimings().containsKey("connection-pool"));
+            assertTrue(h2dbMetaConfig.getStartupTimings().containsKey("meta-config"));
+        }
+    }
+
+    @Test
+    @DisplayName("Stop the tcp server when the connection pool fails")
+    void stopServerWhenPoolFails() throws Exception {
+        assertThrows(RuntimeException.class, () -> new H2dbMetaConfig.Builder().
+                embedded().
+                dbServer(getDbServer()).
+                connectionPool(new Config.Builder("wrong-pool", Collections.emptyList()).build()).
+                build());
+        // Check test results
+        final DbServer dbServer = DbServers.newServer(getDbServer()).start();
+        dbServer.stop();
+    }
+
+    @Test
+    @DisplayName("Get configs in the embedded mode with the tcp server")
+    void getConfigsEmbeddedWithServer() throws Exception {
+        try (final H2dbMetaConfig h2dbMetaConfig = new H2dbMetaConfig.Builder().
+                embedded().
+                dbServer(getDbServer()).
+                connectionPool(getConnectionPool("jdbc:h2:./data/metacfg4j")).
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            // Check test results
+            assertGetSchema();
+            assertEquals(1, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG)));
+        }
+    }
+
+    @Test
+    @DisplayName("Notify consumers about changes of the database")
+    void notifyConsumersAboutChanges() throws Exception {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("changesTest").
+                changeNotifier(new Config.Builder(ChangeNotifiers.Settings.CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(ChangeNotifiers.Settings.POLL_INTERVAL, 50).build())).build()).
+                build()) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            h2dbMetaConfig.addConsumer(config -> {
+                if (FIRST_CONFIG.equals(config.getName())) {
+                    latch.countDown();
+                }
+            });
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            // Check test results
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG)));
+        }
+    }
+
+    @Test
+    @DisplayName("Warm up the config cache from the snapshot")
+    void warmUpFromSnapshot() throws Exception {
+        final Path snapshot = Files.createTempFile("metacfg4j", ".snapshot");
+        final Config warmUp = new Config.Builder(WarmUps.Settings.CONFIG_NAME, Collections.singletonList(
+                new Property.Builder(WarmUps.Settings.SNAPSHOT, snapshot.toString()).build())).build();
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("warmUpTest").
+                configCache(getConfigCache()).
+                warmUp(warmUp).
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+        }
+
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("warmUpTest").
+                configCache(getConfigCache()).
+                warmUp(warmUp).
+                build()) {
+            // Check test results
+            assertEquals(1, h2dbMetaConfig.get(Stream.of(FIRST_CONFIG)).count());
+            assertEquals(1, h2dbMetaConfig.getCacheHits());
+            assertEquals(1, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG)));
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    @Test
+    @DisplayName("Run maintenance in the embedded mode")
+    void runMaintenance() throws Exception {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("maintenanceTest").
+                maintenance(new Config.Builder(MaintenanceSchedulers.Settings.CONFIG_NAME, Collections.emptyList()).
+                        build()).
+                build()) {
+            // Check test results
+            assertNotNull(h2dbMetaConfig.getMaintenanceMetrics());
+            assertEquals(0, h2dbMetaConfig.getMaintenanceMetrics().getRuns());
+        }
+    }
+
+    @Test
+    @DisplayName("Update configs with deltas")
+    void updateConfigsWithDeltas() throws IOException {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("deltaTest").
+                build()) {
+            final Config stored = h2dbMetaConfig.update(Stream.of(getConfigWithSubProperties(FIRST_CONFIG))).
+                    findFirst().get();
+            final DeltaResult changed = h2dbMetaConfig.updateDelta(Stream.of(new Config.Builder(stored).
+                    attribute("key", "value").
+                    build()));
+            final DeltaResult unchanged = h2dbMetaConfig.updateDelta(Stream.of(changed.getConfigs().get(0)));
+            final DeltaResult stale = h2dbMetaConfig.updateDelta(Stream.of(stored));
+            // Check test results
+            assertEquals(2, changed.getRows());
+            assertEquals(stored.getVersion() + 1, changed.getConfigs().get(0).getVersion());
+            assertEquals(0, unchanged.getRows());
+            assertEquals(stored.getVersion() + 1, unchanged.getConfigs().get(0).getVersion());
+            assertEquals(Collections.singletonList(FIRST_CONFIG), stale.getRejected());
+            assertEquals("value", h2dbMetaConfig.get(Stream.of(FIRST_CONFIG)).findFirst().get().
+                    getAttribute("key").get());
+        }
+    }
+
+    @Test
+    @DisplayName("Get properties by paths")
+    void getPropertiesByPaths() throws IOException {
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("propertyTest").
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithSubProperties(FIRST_CONFIG)));
+            final Property property = h2dbMetaConfig.getProperty(FIRST_CONFIG, "Property", "Sub-Property-1").get();
+            // Check test results
+            assertEquals("Sub-Value-1", property.getValue());
+            assertEquals("value_1", property.getAttribute("key_1").get());
+            assertEquals("Sub-Value-3", property.getProperty("Sub-Property-2", "Sub-Property-3").get().getValue());
+            assertEquals("Caption", h2dbMetaConfig.getProperty(FIRST_CONFIG, "Property").get().getCaption());
+            assertFalse(h2dbMetaConfig.getProperty(FIRST_CONFIG, "Sub-Property-1").isPresent());
+            assertFalse(h2dbMetaConfig.getProperty(SECOND_CONFIG, "Property").isPresent());
+            assertThrows(IllegalArgumentException.class, () -> h2dbMetaConfig.getProperty(FIRST_CONFIG));
+        }
+    }
+
+    @Test
+    @DisplayName("Record metrics of operations")
+    void recordOperationMetrics() throws IOException {
+        final List<OperationSample> samples = new CopyOnWriteArrayList<>();
+        try (final H2dbMetaConfig h2dbMetaConfig = newBuilder("metricsTest").
+                metricsListener(samples::add).
+                build()) {
+            h2dbMetaConfig.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            assertEquals(1, h2dbMetaConfig.get(Stream.of(FIRST_CONFIG)).count());
+            // Check test results
+            final Map<String, OperationMetrics> metrics = h2dbMetaConfig.getOperationMetrics();
+            assertEquals(1, metrics.get("update").getCount());
+            assertEquals(0, metrics.get("update").getErrors());
+            assertEquals(1, metrics.get("get").getCount());
+            assertTrue(samples.stream().anyMatch(s -> "update".equals(s.getOperation())));
+        }
+    }
+
+    @Test
+    @DisplayName("Build sharded config with read replicas")
+    void buildShardedWithReplicas() {
+        assertThrows(RuntimeException.class, () -> newBuilder("wrongShardTest").
+                shard(getConnectionPool("jdbc:h2:mem:wrongSecondShardTest;DB_CLOSE_DELAY=-1")).
+                readReplica(getConnectionPool("jdbc:h2:mem:wrongReplicaTest;DB_CLOSE_DELAY=-1")).
+                build());
+    }
+
+    private H2dbMetaConfig.Builder newBuilder(final String database) {
+        return new H2dbMetaConfig.Builder().
+                embedded().
+                connectionPool(getConnectionPool("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1"));
+    }
+
+    private Config getDbServer() {
+        return new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(TYPE, "tcp").build(),
+                new Property.Builder(ARGS, "-tcp", "-tcpPort", "8043", "-ifNotExists").build())).build();
+    }
+
+    private Config getConfigCache() {
+        return new Config.Builder(ConfigCaches.Settings.CONFIG_NAME, Arrays.asList(
+                new Property.Builder(ConfigCaches.Settings.SIZE, 100).build(),
+                new Property.Builder(ConfigCaches.Settings.TTL, 60000).build())).build();
+    }
+
+    private Config getConnectionPool(final String url) {
+        return new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                new Property.Builder(URL, url).build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build();
+    }
+}
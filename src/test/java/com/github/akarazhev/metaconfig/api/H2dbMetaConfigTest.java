@@ -22,11 +22,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static com.github.akarazhev.metaconfig.engine.db.h2db.Server.Settings.ARGS;
@@ -135,6 +142,102 @@ final class H2dbMetaConfigTest extends UnitTest {
         assertEqualsConfigs(h2dbMetaConfig.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG)).toArray(Config[]::new));
     }
 
+    @Test
+    @DisplayName("Get pool metrics")
+    void getPoolMetrics() {
+        final long acquisitions = h2dbMetaConfig.getPoolMetrics().getAcquisitions();
+        h2dbMetaConfig.getNames().count();
+        // Check test results
+        assertTrue(h2dbMetaConfig.getPoolMetrics().getAcquisitions() > acquisitions);
+        assertEquals(0, h2dbMetaConfig.getPoolMetrics().getActive());
+    }
+
+    @Test
+    @DisplayName("Import configs")
+    void importConfigs() {
+        final List<Integer> progress = new ArrayList<>();
+        final int imported = h2dbMetaConfig.importConfigs(Stream.of(getConfigWithSubProperties(FIRST_CONFIG),
+                getConfigWithProperties(SECOND_CONFIG), getConfigWithProperties(NEW_CONFIG)), 2, progress::add);
+        // Check test results
+        assertEquals(3, imported);
+        assertEquals(Arrays.asList(2, 3), progress);
+        assertEqualsConfigs(h2dbMetaConfig.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG)).toArray(Config[]::new));
+        assertEquals(1, h2dbMetaConfig.get(Stream.of(NEW_CONFIG)).count());
+        assertEquals(3, h2dbMetaConfig.getNames().count());
+    }
+
+    @Test
+    @DisplayName("Import configs with the same name")
+    void importConfigsWithSameName() {
+        final Config config = new Config.Builder(getConfigWithProperties(NEW_CONFIG)).description("Imported").build();
+        // Check test results
+        assertEquals(1, h2dbMetaConfig.importConfigs(Stream.of(getConfigWithProperties(NEW_CONFIG), config)));
+        final Optional<Config> newConfig = h2dbMetaConfig.get(Stream.of(NEW_CONFIG)).findFirst();
+        assertTrue(newConfig.isPresent());
+        assertEquals("Imported", newConfig.get().getDescription());
+    }
+
+    @Test
+    @DisplayName("Import configs with the wrong chunk size")
+    void importConfigsWithWrongChunkSize() {
+        // Check test results
+        assertThrows(IllegalArgumentException.class, () -> h2dbMetaConfig.importConfigs(Stream.empty(), 0, count -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("Export configs")
+    void exportConfigs() {
+        try (final Stream<Config> stream = h2dbMetaConfig.export()) {
+            // Check test results
+            assertEqualsConfigs(stream.sorted(Comparator.comparing(Config::getName)).toArray(Config[]::new));
+        }
+    }
+
+    @Test
+    @DisplayName("Dump and restore configs")
+    void dumpAndRestoreConfigs() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".dump");
+        try {
+            // Check test results
+            assertEquals(2, h2dbMetaConfig.dump(path));
+            assertEquals(2, h2dbMetaConfig.remove(Stream.of(FIRST_CONFIG, SECOND_CONFIG)));
+            assertEquals(2, h2dbMetaConfig.restore(path));
+            assertEqualsConfigs(h2dbMetaConfig.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG)).toArray(Config[]::new));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Get configs asynchronously")
+    void getConfigsAsync() throws Exception {
+        final CompletableFuture<List<Config>> configs =
+                h2dbMetaConfig.async().get(Stream.of(FIRST_CONFIG, SECOND_CONFIG));
+        final CompletableFuture<List<String>> names = h2dbMetaConfig.async().getNames();
+        // Check test results
+        assertEqualsConfigs(configs.get(5, TimeUnit.SECONDS).toArray(new Config[0]));
+        assertEqualsNames(names.get(5, TimeUnit.SECONDS).toArray(new String[0]));
+    }
+
+    @Test
+    @DisplayName("Update and remove configs asynchronously")
+    void updateAndRemoveAsync() throws Exception {
+        final List<Config> configs = h2dbMetaConfig.async().update(Stream.of(getConfigWithProperties(NEW_CONFIG))).
+                get(5, TimeUnit.SECONDS);
+        // Check test results
+        assertEquals(1, configs.size());
+        assertTrue(configs.get(0).getId() > 0);
+        assertEquals(1, (int) h2dbMetaConfig.async().remove(Stream.of(NEW_CONFIG)).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Get schema changes")
+    void getSchemaChanges() {
+        // Check test results
+        assertTrue(h2dbMetaConfig.getSchemaChanges().stream().anyMatch(sql -> sql.startsWith("ANALYZE")));
+    }
+
     @Test
     @DisplayName("Get config names")
     void getNames() {
@@ -0,0 +1,83 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.api;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.engine.snapshot.SnapshotPublisher;
+import com.github.akarazhev.metaconfig.engine.snapshot.Snapshots;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Snapshot config service test")
+final class SnapshotConfigServiceTest extends UnitTest {
+
+    @Test
+    @DisplayName("Read configs from the published snapshot")
+    void readFromSnapshot() throws Exception {
+        final Path path = Files.createTempFile("metacfg4j", ".snapshot");
+        Files.delete(path);
+        final Config snapshot = new Config.Builder(Snapshots.Settings.CONFIG_NAME, Arrays.asList(
+                new Property.Builder(Snapshots.Settings.PATH, path.toString()).build(),
+                new Property.Builder(Snapshots.Settings.DELAY, 0).build(),
+                new Property.Builder(Snapshots.Settings.INTERVAL, 10).build())).build();
+        final List<Config> configs = new CopyOnWriteArrayList<>(Arrays.asList(getConfigWithProperties(FIRST_CONFIG),
+                getConfigWithSubProperties(SECOND_CONFIG)));
+        final List<Config> changed = new CopyOnWriteArrayList<>();
+        try (final SnapshotConfigService snapshotConfigService = new SnapshotConfigService.Builder().
+                snapshot(snapshot).
+                build()) {
+            snapshotConfigService.addConsumer(changed::add);
+            try (final SnapshotPublisher snapshotPublisher = Snapshots.newPublisher(snapshot).start(configs::stream)) {
+                // Check test results
+                assertTrue(await(() -> changed.size() == 2));
+                final Config config = snapshotConfigService.get(Stream.of(SECOND_CONFIG)).findFirst().get();
+                assertEqualsConfig(getConfigWithSubProperties(SECOND_CONFIG), config);
+                assertEqualsProperty(getConfigWithSubProperties(SECOND_CONFIG), config);
+                assertEquals(2, snapshotConfigService.get().count());
+                configs.remove(0);
+                snapshotPublisher.requestPublish();
+                assertTrue(await(() -> snapshotConfigService.getNames().count() == 1));
+                assertEquals(0, snapshotConfigService.get(Stream.of(FIRST_CONFIG)).count());
+                assertThrows(IllegalStateException.class, () ->
+                        snapshotConfigService.remove(Stream.of(SECOND_CONFIG)));
+                assertThrows(IllegalStateException.class, () ->
+                        snapshotConfigService.update(Stream.of(getConfigWithProperties(FIRST_CONFIG))));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private boolean await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return true;
+    }
+}
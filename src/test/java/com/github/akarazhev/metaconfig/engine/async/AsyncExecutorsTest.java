@@ -0,0 +1,101 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.async;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.QUEUE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.THREADS;
+import static com.github.akarazhev.metaconfig.engine.async.AsyncExecutors.Settings.VIRTUAL_THREADS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Async executors test")
+final class AsyncExecutorsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Async executors constructor")
+    void asyncExecutorsConstructor() throws Exception {
+        assertPrivate(AsyncExecutors.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(AsyncExecutors.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create an executor with the wrong config name")
+    void createExecutorWithWrongName() {
+        assertThrows(Exception.class, () -> AsyncExecutors.newExecutor(
+                new Config.Builder("wrong", Collections.emptyList()).build(), 1));
+    }
+
+    @Test
+    @DisplayName("Create an executor with the wrong queue size")
+    void createExecutorWithWrongQueueSize() {
+        assertThrows(Exception.class, () -> AsyncExecutors.newExecutor(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(QUEUE_SIZE, 0).build())).build(), 1));
+    }
+
+    @Test
+    @DisplayName("Reject tasks of the saturated executor")
+    void rejectTasks() throws Exception {
+        final ExecutorService executor = AsyncExecutors.newExecutor(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(THREADS, 1).build(),
+                new Property.Builder(QUEUE_SIZE, 1).build())).build(), 10);
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> {
+            });
+            // Check test results
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+            }));
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Execute tasks with virtual threads")
+    void executeWithVirtualThreads() throws Exception {
+        final ExecutorService executor = AsyncExecutors.newExecutor(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(VIRTUAL_THREADS, true).build())).build(), 2);
+        // Check test results, platform threads are used on older versions of Java
+        assertEquals(Boolean.TRUE, executor.submit(() -> true).get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
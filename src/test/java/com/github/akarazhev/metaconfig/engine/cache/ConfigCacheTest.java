@@ -0,0 +1,200 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CAPACITY;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.SIZE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TTL;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE_OFF_HEAP;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config cache test")
+final class ConfigCacheTest extends UnitTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Collection<String>, Stream<Config>> loader = names -> {
+        loads.incrementAndGet();
+        return names.stream().filter(name -> !NEW_CONFIG.equals(name)).map(this::getConfigWithProperties);
+    };
+
+    @Test
+    @DisplayName("Get configs")
+    void getConfigs() {
+        final ConfigCache configCache = ConfigCaches.newCache();
+        assertEquals(2, configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count());
+        final Config[] configs = configCache.get(Stream.of(SECOND_CONFIG, FIRST_CONFIG), loader).toArray(Config[]::new);
+        // Check test results
+        assertEquals(2, configs.length);
+        assertEquals(SECOND_CONFIG, configs[0].getName());
+        assertEquals(FIRST_CONFIG, configs[1].getName());
+        assertEquals(1, loads.get());
+        assertEquals(2, configCache.getHits());
+        assertEquals(2, configCache.getMisses());
+        assertEquals(2, configCache.size());
+    }
+
+    @Test
+    @DisplayName("Get configs by the not existed name")
+    void getByNotExistedName() {
+        final ConfigCache configCache = ConfigCaches.newCache();
+        assertEquals(0, configCache.get(Stream.of(NEW_CONFIG), loader).count());
+        assertEquals(0, configCache.get(Stream.of(NEW_CONFIG), loader).count());
+        // Check test results
+        assertEquals(2, loads.get());
+        assertEquals(0, configCache.size());
+    }
+
+    @Test
+    @DisplayName("Get configs by empty names")
+    void getByEmptyNames() {
+        final ConfigCache configCache = ConfigCaches.newCache();
+        // Check test results
+        assertEquals(0, configCache.get(Stream.empty(), loader).count());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("Evict by the size")
+    void evictBySize() {
+        final ConfigCache configCache = ConfigCaches.newCache(new Config.Builder(CONFIG_NAME,
+                Arrays.asList(new Property.Builder(SIZE, 1).build(), new Property.Builder(TTL, 0).build())).build());
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        // Check test results
+        assertEquals(1, configCache.size());
+        assertEquals(1, configCache.get(Stream.of(SECOND_CONFIG), loader).count());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Evict by the ttl")
+    void evictByTtl() throws InterruptedException {
+        final ConfigCache configCache = ConfigCaches.newCache(new Config.Builder(CONFIG_NAME,
+                Arrays.asList(new Property.Builder(SIZE, 10).build(), new Property.Builder(TTL, 1).build())).build());
+        configCache.get(Stream.of(FIRST_CONFIG), loader).count();
+        Thread.sleep(10);
+        configCache.get(Stream.of(FIRST_CONFIG), loader).count();
+        // Check test results
+        assertEquals(2, loads.get());
+        assertEquals(0, configCache.getHits());
+    }
+
+    @Test
+    @DisplayName("Invalidate configs")
+    void invalidate() {
+        final ConfigCache configCache = ConfigCaches.newCache();
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        configCache.invalidate(Stream.of(FIRST_CONFIG));
+        // Check test results
+        assertEquals(1, configCache.size());
+        configCache.invalidateConfigs(Stream.of(getConfigWithProperties(SECOND_CONFIG)));
+        assertEquals(0, configCache.size());
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        configCache.invalidateAll();
+        assertEquals(0, configCache.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Get configs from the off-heap cache")
+    void getOffHeapConfigs() {
+        final ConfigCache configCache = newOffHeapCache(10, 1024 * 1024);
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        final Config[] configs = configCache.get(Stream.of(SECOND_CONFIG, FIRST_CONFIG), loader).toArray(Config[]::new);
+        final CacheMemory memory = configCache.getMemory();
+        // Check test results
+        assertEquals(2, configs.length);
+        assertEqualsConfig(getConfigWithProperties(SECOND_CONFIG), configs[0]);
+        assertEqualsProperty(getConfigWithProperties(SECOND_CONFIG), configs[0]);
+        assertEqualsConfig(getConfigWithProperties(FIRST_CONFIG), configs[1]);
+        assertEqualsProperty(getConfigWithProperties(FIRST_CONFIG), configs[1]);
+        assertEquals(1, loads.get());
+        assertEquals(2, configCache.getHits());
+        assertEquals(2, memory.getEntries());
+        assertEquals(1024 * 1024, memory.getCapacity());
+        assertTrue(memory.getOffHeapBytes() > 0);
+        assertTrue(memory.getHeapBytes() > memory.getOffHeapBytes() + memory.getStringBytes());
+    }
+
+    @Test
+    @DisplayName("Evict by the capacity of the off-heap cache")
+    void evictByCapacity() {
+        final ConfigCache configCache = newOffHeapCache(10, 1024 * 1024);
+        configCache.get(Stream.of(FIRST_CONFIG), loader).count();
+        final long length = configCache.getMemory().getOffHeapBytes();
+        final ConfigCache smallCache = newOffHeapCache(10, length * 3 / 2);
+        smallCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        // Check test results
+        assertEquals(1, smallCache.size());
+        assertEquals(1, smallCache.get(Stream.of(SECOND_CONFIG), loader).count());
+        assertEquals(1, smallCache.get(Stream.of(FIRST_CONFIG), loader).count());
+        assertEquals(1, smallCache.size());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Invalidate configs in the off-heap cache")
+    void invalidateOffHeap() {
+        final ConfigCache configCache = newOffHeapCache(10, 1024 * 1024);
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        configCache.invalidate(Stream.of(FIRST_CONFIG));
+        // Check test results
+        assertEquals(1, configCache.size());
+        configCache.invalidateConfigs(Stream.of(getConfigWithProperties(SECOND_CONFIG)));
+        assertEquals(0, configCache.size());
+        assertEquals(0, configCache.getMemory().getOffHeapBytes());
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        configCache.invalidateAll();
+        assertEquals(0, configCache.size());
+        assertEquals(0, configCache.getMemory().getStrings());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Invalidate renamed configs")
+    void invalidateRenamed() {
+        assertInvalidateRenamed(ConfigCaches.newCache());
+        assertInvalidateRenamed(newOffHeapCache(10, 1024 * 1024));
+    }
+
+    private void assertInvalidateRenamed(final ConfigCache configCache) {
+        final Function<Collection<String>, Stream<Config>> loader = names -> names.stream().
+                map(name -> new Config.Builder(getConfigWithProperties(name)).
+                        id(FIRST_CONFIG.equals(name) ? 1 : 2).build());
+        configCache.get(Stream.of(FIRST_CONFIG, SECOND_CONFIG), loader).count();
+        configCache.invalidateConfigs(Stream.of(new Config.Builder(getConfigWithProperties(NEW_CONFIG)).id(1).build()));
+        // Check test results
+        assertEquals(1, configCache.size());
+        assertEquals(0, configCache.getHits());
+        assertEquals(1, configCache.get(Stream.of(SECOND_CONFIG), loader).count());
+        assertEquals(1, configCache.getHits());
+    }
+
+    private ConfigCache newOffHeapCache(final int size, final long capacity) {
+        return ConfigCaches.newCache(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(SIZE, size).build(),
+                new Property.Builder(TYPE, TYPE_OFF_HEAP).build(),
+                new Property.Builder(CAPACITY, capacity).build())).build());
+    }
+}
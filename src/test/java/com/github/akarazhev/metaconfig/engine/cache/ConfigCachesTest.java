@@ -0,0 +1,82 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.cache;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CAPACITY;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.SIZE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.cache.ConfigCaches.Settings.TYPE_OFF_HEAP;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Config caches test")
+final class ConfigCachesTest extends UnitTest {
+
+    @Test
+    @DisplayName("Config caches constructor")
+    void configCachesConstructor() throws Exception {
+        assertPrivate(ConfigCaches.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(ConfigCaches.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create default cache")
+    void createDefaultCache() {
+        assertNotNull(ConfigCaches.newCache());
+    }
+
+    @Test
+    @DisplayName("Create cache with the wrong config name")
+    void createCacheWithWrongName() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ConfigCaches.newCache(new Config.Builder("cache", Collections.emptyList()).build()));
+    }
+
+    @Test
+    @DisplayName("Create cache with the wrong size")
+    void createCacheWithWrongSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ConfigCaches.newCache(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(SIZE, 0).build())).build()));
+    }
+
+    @Test
+    @DisplayName("Create cache with the wrong type")
+    void createCacheWithWrongType() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ConfigCaches.newCache(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(TYPE, "disk").build())).build()));
+    }
+
+    @Test
+    @DisplayName("Create cache with the wrong capacity")
+    void createCacheWithWrongCapacity() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ConfigCaches.newCache(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                        new Property.Builder(TYPE, TYPE_OFF_HEAP).build(),
+                        new Property.Builder(CAPACITY, 0).build())).build()));
+    }
+}
@@ -15,7 +15,9 @@ import org.h2.jdbc.JdbcSQLNonTransientConnectionException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("Db server test")
 final class DbServerTest extends UnitTest {
@@ -36,4 +38,16 @@ final class DbServerTest extends UnitTest {
         dbServer.stop();
         assertThrows(JdbcSQLNonTransientConnectionException.class, this::assertGetSchema);
     }
+
+    @Test
+    @DisplayName("Is running")
+    void isRunning() throws Exception {
+        final DbServer dbServer = DbServers.newServer();
+        assertFalse(dbServer.isRunning());
+        dbServer.start();
+        // Check test results
+        assertTrue(dbServer.isRunning());
+        dbServer.stop();
+        assertFalse(dbServer.isRunning());
+    }
 }
@@ -0,0 +1,115 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config exporter test")
+final class ConfigExporterTest extends UnitTest {
+    private JdbcDataSource dataSource;
+    private Connection keeper;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:configExporterTest");
+        // The connection keeps the in-memory database
+        keeper = dataSource.getConnection();
+        try (final Statement statement = keeper.createStatement()) {
+            statement.execute("CREATE TABLE CONFIGS (ID IDENTITY NOT NULL, NAME VARCHAR(255) NOT NULL, " +
+                    "DESCRIPTION VARCHAR(1024), VERSION INT NOT NULL, UPDATED BIGINT NOT NULL)");
+            statement.execute("CREATE TABLE CONFIG_ATTRIBUTES (ID IDENTITY NOT NULL, CONFIG_ID BIGINT NOT NULL, " +
+                    "KEY VARCHAR(255) NOT NULL, VALUE VARCHAR(1024), FOREIGN KEY (CONFIG_ID) REFERENCES CONFIGS (ID))");
+            statement.execute("CREATE TABLE PROPERTIES (ID IDENTITY NOT NULL, PROPERTY_ID BIGINT, " +
+                    "CONFIG_ID BIGINT NOT NULL, NAME VARCHAR(255) NOT NULL, CAPTION VARCHAR(255), " +
+                    "DESCRIPTION VARCHAR(1024), TYPE VARCHAR(255) NOT NULL, VALUE VARCHAR(4096) NOT NULL, " +
+                    "FOREIGN KEY (CONFIG_ID) REFERENCES CONFIGS (ID))");
+            statement.execute("CREATE TABLE PROPERTY_ATTRIBUTES (ID IDENTITY NOT NULL, PROPERTY_ID BIGINT NOT NULL, " +
+                    "KEY VARCHAR(255) NOT NULL, VALUE VARCHAR(1024), " +
+                    "FOREIGN KEY (PROPERTY_ID) REFERENCES PROPERTIES (ID))");
+            statement.execute("INSERT INTO CONFIGS (ID, NAME, VERSION, UPDATED) VALUES (1, 'config', 1, 0)");
+            statement.execute("INSERT INTO PROPERTIES (ID, PROPERTY_ID, CONFIG_ID, NAME, TYPE, VALUE) " +
+                    "VALUES (1, 0, 1, 'property', 'STRING', 'first')");
+            statement.execute("INSERT INTO CONFIGS (ID, NAME, VERSION, UPDATED) VALUES (2, 'second', 1, 0)");
+            statement.execute("INSERT INTO PROPERTIES (ID, PROPERTY_ID, CONFIG_ID, NAME, TYPE, VALUE) " +
+                    "VALUES (2, 0, 2, 'property', 'STRING', 'first')");
+        }
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        keeper.close();
+    }
+
+    @Test
+    @DisplayName("Export a consistent snapshot")
+    void exportSnapshot() throws SQLException {
+        final List<Config> configs = new ArrayList<>();
+        try (final Stream<Config> stream = new ConfigExporter(dataSource, new Tables(null)).export(1)) {
+            final Iterator<Config> iterator = stream.iterator();
+            configs.add(iterator.next());
+            // A write is committed while the export is read
+            try (final Statement statement = keeper.createStatement()) {
+                statement.execute("UPDATE CONFIGS SET VERSION = 2 WHERE ID = 2");
+                statement.execute("UPDATE PROPERTIES SET VALUE = 'second' WHERE ID = 2");
+            }
+
+            iterator.forEachRemaining(configs::add);
+        }
+        // Check test results
+        assertEquals(2, configs.size());
+        for (final Config config : configs) {
+            assertEquals(1, config.getVersion());
+            assertEquals("first", config.getProperty("property").get().getValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Restore the connection after export")
+    void restoreConnection() throws SQLException {
+        final JdbcConnectionPool connectionPool = JdbcConnectionPool.create(dataSource);
+        connectionPool.setMaxConnections(1);
+        try {
+            try (final Connection connection = connectionPool.getConnection()) {
+                connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            }
+
+            try (final Stream<Config> stream = new ConfigExporter(connectionPool, new Tables(null)).export(1)) {
+                assertEquals(2, stream.count());
+            }
+            // Check test results
+            try (final Connection connection = connectionPool.getConnection()) {
+                assertTrue(connection.getAutoCommit());
+                assertEquals(Connection.TRANSACTION_READ_COMMITTED, connection.getTransactionIsolation());
+            }
+        } finally {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Schema manager test")
+final class SchemaManagerTest extends UnitTest {
+    private JdbcDataSource dataSource;
+    private Connection keeper;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:schemaManagerTest");
+        // The connection keeps the in-memory database
+        keeper = dataSource.getConnection();
+        try (final Statement statement = keeper.createStatement()) {
+            statement.execute("CREATE TABLE CONFIGS (ID IDENTITY NOT NULL, NAME VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE CONFIG_ATTRIBUTES (ID IDENTITY NOT NULL, CONFIG_ID BIGINT NOT NULL, " +
+                    "FOREIGN KEY (CONFIG_ID) REFERENCES CONFIGS (ID))");
+            statement.execute("CREATE TABLE PROPERTIES (ID IDENTITY NOT NULL, PROPERTY_ID BIGINT, " +
+                    "CONFIG_ID BIGINT NOT NULL, NAME VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE PROPERTY_ATTRIBUTES (ID IDENTITY NOT NULL, PROPERTY_ID BIGINT NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        keeper.close();
+    }
+
+    @Test
+    @DisplayName("Create missing indexes")
+    void createMissingIndexes() throws SQLException {
+        final List<String> changes = new SchemaManager(dataSource, new Tables(null)).tune();
+        // Check test results, the foreign key of config attributes is already indexed
+        assertEquals(4, changes.stream().filter(sql -> sql.startsWith("CREATE INDEX")).count());
+        assertEquals(4, changes.stream().filter(sql -> sql.startsWith("ANALYZE")).count());
+        assertTrue(getPlan("SELECT * FROM CONFIGS WHERE NAME = 'name'").contains("CONFIGS_NAME_IDX"));
+        assertTrue(getPlan("SELECT * FROM PROPERTIES WHERE CONFIG_ID = 1 AND NAME = 'name'").
+                contains("PROPERTIES_CONFIG_ID_NAME_IDX"));
+        assertTrue(getPlan("SELECT * FROM PROPERTIES WHERE PROPERTY_ID = 1 AND NAME = 'name'").
+                contains("PROPERTIES_PROPERTY_ID_NAME_IDX"));
+    }
+
+    @Test
+    @DisplayName("Tune the tuned schema")
+    void tuneTunedSchema() throws SQLException {
+        final SchemaManager schemaManager = new SchemaManager(dataSource, new Tables(null));
+        schemaManager.tune();
+        // Check test results
+        assertTrue(schemaManager.tune().stream().noneMatch(sql -> sql.startsWith("CREATE INDEX")));
+    }
+
+    private String getPlan(final String sql) throws SQLException {
+        try (final Statement statement = keeper.createStatement();
+             final ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            return resultSet.next() ? resultSet.getString(1) : "";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.jdbc;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.Constants.Mapping.CONFIGS_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DisplayName("Tables test")
+final class TablesTest extends UnitTest {
+
+    @Test
+    @DisplayName("Get default tables")
+    void getDefaultTables() {
+        final Tables tables = new Tables(null);
+        // Check test results
+        assertEquals("CONFIGS", tables.getConfigs());
+        assertEquals("CONFIG_ATTRIBUTES", tables.getConfigAttributes());
+        assertEquals("PROPERTIES", tables.getProperties());
+        assertEquals("PROPERTY_ATTRIBUTES", tables.getPropertyAttributes());
+    }
+
+    @Test
+    @DisplayName("Get mapped tables")
+    void getMappedTables() {
+        final Tables tables = new Tables(Collections.singletonMap(CONFIGS_TABLE, "CUSTOM_CONFIGS"));
+        // Check test results
+        assertEquals("CUSTOM_CONFIGS", tables.getConfigs());
+        assertEquals("PROPERTIES", tables.getProperties());
+    }
+
+    @Test
+    @DisplayName("Quote identifiers")
+    void quoteIdentifiers() {
+        // Check test results
+        assertEquals("\"KEY\"", Tables.quote("KEY"));
+        assertEquals("\"A\"\"B\"", Tables.quote("A\"B"));
+        assertEquals("?, ?, ?", Tables.placeholders(3));
+    }
+
+    @Test
+    @DisplayName("Check the layout of not existed tables")
+    void checkNotExistedTables() throws SQLException {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:tablesTest");
+        try (final Connection connection = dataSource.getConnection()) {
+            // Check test results
+            assertFalse(new Tables(Collections.emptyMap()).isCompatible(connection));
+        }
+    }
+}
@@ -10,12 +10,43 @@
  * limitations under the License. */
 package com.github.akarazhev.metaconfig.engine.db.pool;
 
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.h2.engine.SessionInterface;
+import org.h2.jdbc.JdbcConnection;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.ACQUIRE_TIMEOUT;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_CONNECTIONS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_WAITERS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MIN_IDLE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE_H2;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE_STRIPED;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.VALIDATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("Connection pool test")
 final class ConnectionPoolTest {
@@ -27,4 +58,175 @@ final class ConnectionPoolTest {
         assertNotNull(connectionPool.getDataSource());
         connectionPool.close();
     }
+
+    @Test
+    @DisplayName("Acquire timeout")
+    void acquireTimeout() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_H2, 1, 100, 0, false));
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            assertFalse(connection.isClosed());
+            assertThrows(SQLTransientConnectionException.class, () -> connectionPool.getDataSource().getConnection());
+        }
+        // Check test results
+        final Connection connection = connectionPool.getDataSource().getConnection();
+        connection.close();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::getSchema);
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Warm up and validate")
+    void warmUpAndValidate() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_H2, 2, 1000, 2, true));
+        try (final Connection first = connectionPool.getDataSource().getConnection();
+             final Connection second = connectionPool.getDataSource().getConnection()) {
+            // Check test results
+            assertTrue(first.isValid(1));
+            assertTrue(second.isValid(1));
+        }
+
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Evict invalid connections")
+    void evictInvalidConnections() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_H2, 1, 1000, 1, true));
+        final SessionInterface session;
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            session = connection.unwrap(JdbcConnection.class).getSession();
+            session.close();
+        }
+
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            // Check test results
+            assertTrue(connection.isValid(1));
+            assertNotSame(session, connection.unwrap(JdbcConnection.class).getSession());
+        }
+
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Get metrics")
+    void getMetrics() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_H2, 1, 100, 1, false));
+        assertEquals(1, connectionPool.getMaxConnections());
+        assertEquals(1, connectionPool.getMetrics().getIdle());
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            assertFalse(connection.isClosed());
+            assertThrows(SQLTransientConnectionException.class, () -> connectionPool.getDataSource().getConnection());
+            final PoolMetrics metrics = connectionPool.getMetrics();
+            // Check test results
+            assertEquals(1, metrics.getActive());
+            assertEquals(0, metrics.getIdle());
+            assertEquals(0, metrics.getWaiting());
+            assertEquals(1, metrics.getAcquisitions());
+            assertEquals(1, metrics.getTimeouts());
+            assertEquals(1, metrics.getAcquireLatency().getCount());
+            assertEquals(1, connectionPool.getActive());
+            assertEquals(0, connectionPool.getWaiting());
+        }
+
+        final PoolMetrics metrics = connectionPool.getMetrics();
+        assertEquals(0, metrics.getActive());
+        assertEquals(1, metrics.getIdle());
+        assertEquals(0, connectionPool.getActive());
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Striped pool acquire timeout")
+    void stripedAcquireTimeout() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_STRIPED, 1, 100, 1, true));
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            assertThrows(SQLTransientConnectionException.class, () -> connectionPool.getDataSource().getConnection());
+        }
+        // Check test results
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            assertTrue(connection.getAutoCommit());
+        }
+
+        final PoolMetrics metrics = connectionPool.getMetrics();
+        assertEquals(0, metrics.getActive());
+        assertEquals(1, metrics.getIdle());
+        assertEquals(2, metrics.getAcquisitions());
+        assertEquals(1, metrics.getTimeouts());
+        connectionPool.close();
+        assertThrows(SQLException.class, () -> connectionPool.getDataSource().getConnection());
+    }
+
+    @Test
+    @DisplayName("Striped pool concurrent acquisitions")
+    void stripedConcurrentAcquisitions() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_STRIPED, 2, 10000, 0, false));
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final Future<?>[] futures = new Future[1000];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = executor.submit(() -> {
+                try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+                    return connection.getSchema();
+                }
+            });
+        }
+
+        for (final Future<?> future : futures) {
+            assertEquals("PUBLIC", future.get());
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Check test results
+        final PoolMetrics metrics = connectionPool.getMetrics();
+        assertEquals(0, metrics.getActive());
+        assertTrue(metrics.getIdle() <= 2);
+        assertEquals(1000, metrics.getAcquisitions());
+        assertEquals(0, metrics.getTimeouts());
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Striped pool statement cache")
+    void stripedStatementCache() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(getConfig(TYPE_STRIPED, 1, 100, 1, false));
+        PreparedStatement first = null;
+        for (int i = 0; i < 3; i++) {
+            try (final Connection connection = connectionPool.getDataSource().getConnection();
+                 final PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+                statement.setInt(1, i);
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals(i, resultSet.getInt(1));
+                }
+
+                assertEquals(connection, statement.getConnection());
+                first = first == null ? statement : first;
+            }
+        }
+        // Check test results
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, first::executeQuery);
+        final PoolMetrics metrics = connectionPool.getMetrics();
+        assertEquals(2, metrics.getStatementCacheHits());
+        assertEquals(1, metrics.getStatementCacheMisses());
+        assertEquals(2d / 3, metrics.getStatementCacheHitRate());
+        connectionPool.close();
+    }
+
+    private Config getConfig(final String type, final int maxConnections, final long acquireTimeout,
+                             final int minIdle, final boolean validate) {
+        return new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(TYPE, type).build(),
+                new Property.Builder(URL, "jdbc:h2:mem:connectionPoolTest").build(),
+                new Property.Builder(MAX_WAITERS, 16).build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build(),
+                new Property.Builder(MAX_CONNECTIONS, maxConnections).build(),
+                new Property.Builder(ACQUIRE_TIMEOUT, acquireTimeout).build(),
+                new Property.Builder(MIN_IDLE, minIdle).build(),
+                new Property.Builder(VALIDATE, validate).build())).build();
+    }
 }
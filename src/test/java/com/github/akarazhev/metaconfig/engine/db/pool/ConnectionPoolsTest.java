@@ -11,9 +11,24 @@
 package com.github.akarazhev.metaconfig.engine.db.pool;
 
 import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.MAX_CONNECTIONS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.STATEMENT_CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.TYPE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 @DisplayName("Connection pools test")
 final class ConnectionPoolsTest extends UnitTest {
 
@@ -28,4 +43,64 @@ final class ConnectionPoolsTest extends UnitTest {
     void settingsConstructor() throws Exception {
         assertPrivate(ConnectionPools.Settings.class);
     }
+
+    @Test
+    @DisplayName("Create pool with the wrong max connections")
+    void createPoolWithWrongMaxConnections() {
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(URL, "jdbc:h2:mem:connectionPoolsTest").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build(),
+                new Property.Builder(MAX_CONNECTIONS, 0).build())).build();
+        // Check test results
+        assertThrows(IllegalArgumentException.class, () -> ConnectionPools.newPool(config));
+    }
+
+    @Test
+    @DisplayName("Create pool with the wrong type")
+    void createPoolWithWrongType() {
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(TYPE, "unknown").build(),
+                new Property.Builder(URL, "jdbc:h2:mem:connectionPoolsTest").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build();
+        // Check test results
+        assertThrows(IllegalArgumentException.class, () -> ConnectionPools.newPool(config));
+    }
+
+    @Test
+    @DisplayName("Create pool with the wrong profile")
+    void createPoolWithWrongProfile() {
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(PROFILE, "unknown").build(),
+                new Property.Builder(URL, "jdbc:h2:mem:connectionPoolsTest").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build();
+        // Check test results
+        assertThrows(IllegalArgumentException.class, () -> ConnectionPools.newPool(config));
+    }
+
+    @Test
+    @DisplayName("Create pool with the wrong cache size")
+    void createPoolWithWrongCacheSize() {
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(CACHE_SIZE, 0).build(),
+                new Property.Builder(URL, "jdbc:h2:mem:connectionPoolsTest").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build();
+        // Check test results
+        assertThrows(IllegalArgumentException.class, () -> ConnectionPools.newPool(config));
+    }
+
+    @Test
+    @DisplayName("Create pool with the wrong statement cache size")
+    void createPoolWithWrongStatementCacheSize() {
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(STATEMENT_CACHE_SIZE, -1).build(),
+                new Property.Builder(URL, "jdbc:h2:mem:connectionPoolsTest").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build();
+        // Check test results
+        assertThrows(IllegalArgumentException.class, () -> ConnectionPools.newPool(config));
+    }
 }
@@ -0,0 +1,98 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.pool;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CACHE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.COMPRESS;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE_READ_HEAVY;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PROFILE_WRITE_HEAVY;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Storage settings test")
+final class StorageSettingsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Storage settings constructor")
+    void storageSettingsConstructor() throws Exception {
+        assertPrivate(StorageSettings.class);
+    }
+
+    @Test
+    @DisplayName("Check profiles")
+    void checkProfiles() {
+        // Check test results
+        assertTrue(StorageSettings.isProfile(PROFILE_READ_HEAVY));
+        assertTrue(StorageSettings.isProfile(PROFILE_WRITE_HEAVY));
+        assertFalse(StorageSettings.isProfile("unknown"));
+    }
+
+    @Test
+    @DisplayName("Apply settings without a profile")
+    void applyWithoutProfile() {
+        final Config config = new Config.Builder(CONFIG_NAME, Collections.emptyList()).build();
+        // Check test results
+        assertEquals("jdbc:h2:mem:test", StorageSettings.apply("jdbc:h2:mem:test", config));
+    }
+
+    @Test
+    @DisplayName("Apply settings of the profile with overrides")
+    void applyProfileWithOverrides() {
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(PROFILE, PROFILE_WRITE_HEAVY).build(),
+                new Property.Builder(CACHE_SIZE, 1024).build(),
+                new Property.Builder(COMPRESS, true).build())).build();
+        final String url = StorageSettings.apply("jdbc:h2:./data/test;write_delay=100", config);
+        // Check test results
+        assertTrue(url.contains(";CACHE_SIZE=1024"));
+        assertTrue(url.contains(";COMPRESS=TRUE"));
+        assertTrue(url.contains(";RETENTION_TIME=1000"));
+        assertFalse(url.contains(";WRITE_DELAY="));
+    }
+
+    @Test
+    @DisplayName("Open connections with settings of the profile")
+    void openWithProfile() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(URL, "jdbc:h2:mem:storageSettingsTest").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build(),
+                new Property.Builder(PROFILE, PROFILE_READ_HEAVY).build())).build());
+        try (final Connection connection = connectionPool.getDataSource().getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SELECT VALUE FROM INFORMATION_SCHEMA.SETTINGS " +
+                     "WHERE NAME = 'QUERY_CACHE_SIZE'")) {
+            // Check test results
+            assertTrue(resultSet.next());
+            assertEquals("64", resultSet.getString(1));
+        }
+
+        connectionPool.close();
+    }
+}
@@ -0,0 +1,152 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.db.slowlog;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.EXPLAIN;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.SIZE;
+import static com.github.akarazhev.metaconfig.engine.db.slowlog.SlowQueryLogs.Settings.THRESHOLD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Slow query logs test")
+final class SlowQueryLogsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Slow query logs constructor")
+    void slowQueryLogsConstructor() throws Exception {
+        assertPrivate(SlowQueryLogs.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(SlowQueryLogs.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create log with the wrong config name")
+    void createLogWithWrongName() {
+        assertThrows(IllegalArgumentException.class, () ->
+                SlowQueryLogs.newLog(new Config.Builder("slow-log", Collections.emptyList()).build()));
+    }
+
+    @Test
+    @DisplayName("Create log with the wrong threshold")
+    void createLogWithWrongThreshold() {
+        assertThrows(IllegalArgumentException.class, () ->
+                SlowQueryLogs.newLog(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(THRESHOLD, -1).build())).build()));
+    }
+
+    @Test
+    @DisplayName("Create log with the wrong size")
+    void createLogWithWrongSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                SlowQueryLogs.newLog(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(SIZE, 0).build())).build()));
+    }
+
+    @Test
+    @DisplayName("Create default log")
+    void createDefaultLog() {
+        final SlowQueryLog slowQueryLog = SlowQueryLogs.newLog();
+        // Check test results
+        assertEquals(0, slowQueryLog.getCount());
+        assertTrue(slowQueryLog.getQueries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Record slow queries with plans")
+    void recordSlowQueries() throws SQLException, IOException {
+        final SlowQueryLog slowQueryLog = SlowQueryLogs.newLog(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(THRESHOLD, 0).build(),
+                new Property.Builder(SIZE, 2).build(),
+                new Property.Builder(EXPLAIN, true).build())).build());
+        final ConnectionPool connectionPool = slowQueryLog.wrap(ConnectionPools.newPool(
+                new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                        new Property.Builder(URL, "jdbc:h2:mem:slowQueryLogsTest").build(),
+                        new Property.Builder(USER, "sa").build(),
+                        new Property.Builder(PASSWORD, "sa").build())).build()));
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            try (final Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE SLOW_QUERY (ID INT PRIMARY KEY, NAME VARCHAR)");
+                statement.executeUpdate("INSERT INTO SLOW_QUERY VALUES (1, 'value')");
+            }
+
+            try (final PreparedStatement statement =
+                         connection.prepareStatement("SELECT NAME FROM SLOW_QUERY WHERE ID = ?")) {
+                statement.setInt(1, 1);
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                }
+            }
+        } finally {
+            connectionPool.close();
+        }
+        // Check test results
+        final List<SlowQuery> slowQueries = slowQueryLog.getQueries();
+        assertEquals(3, slowQueryLog.getCount());
+        assertEquals(2, slowQueries.size());
+        assertEquals("INSERT INTO SLOW_QUERY VALUES (1, 'value')", slowQueries.get(0).getSql());
+        assertNotNull(slowQueries.get(0).getPlan());
+        assertEquals("SELECT NAME FROM SLOW_QUERY WHERE ID = ?", slowQueries.get(1).getSql());
+        assertEquals(1, slowQueries.get(1).getParameters());
+        assertTrue(slowQueries.get(1).getPlan().contains("scanCount"));
+    }
+
+    @Test
+    @DisplayName("Record slow statements without plans")
+    void recordSlowStatements() throws SQLException, IOException {
+        final SlowQueryLog slowQueryLog = SlowQueryLogs.newLog(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(THRESHOLD, 0).build())).build());
+        final ConnectionPool connectionPool = slowQueryLog.wrap(ConnectionPools.newPool(
+                new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                        new Property.Builder(URL, "jdbc:h2:mem:slowStatementsTest").build(),
+                        new Property.Builder(USER, "sa").build(),
+                        new Property.Builder(PASSWORD, "sa").build())).build()));
+        try (final Connection connection = connectionPool.getDataSource().getConnection();
+             final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE SLOW_STATEMENT (ID INT PRIMARY KEY)");
+        } finally {
+            connectionPool.close();
+        }
+        // Check test results
+        final List<SlowQuery> slowQueries = slowQueryLog.getQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals(0, slowQueries.get(0).getParameters());
+        assertNull(slowQueries.get(0).getPlan());
+    }
+}
@@ -0,0 +1,117 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.dump;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Config dumps test")
+final class ConfigDumpsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Config dumps constructor")
+    void configDumpsConstructor() throws Exception {
+        assertPrivate(ConfigDumps.class);
+    }
+
+    @Test
+    @DisplayName("Config codec constructor")
+    void configCodecConstructor() throws Exception {
+        assertPrivate(ConfigCodec.class);
+    }
+
+    @Test
+    @DisplayName("Write and read a dump")
+    void writeAndReadDump() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".dump");
+        try {
+            final Config firstConfig = getConfigWithSubProperties(FIRST_CONFIG);
+            final Config secondConfig = getConfigWithProperties(SECOND_CONFIG);
+            // Check test results
+            assertEquals(2, ConfigDumps.write(Stream.of(firstConfig, secondConfig), path));
+            try (final Stream<Config> stream = ConfigDumps.read(path)) {
+                final List<Config> configs = stream.collect(Collectors.toList());
+                assertEquals(2, configs.size());
+                assertEqualsConfig(firstConfig, configs.get(0));
+                assertEqualsProperty(firstConfig, configs.get(0));
+                assertEqualsConfig(secondConfig, configs.get(1));
+                assertEqualsProperty(secondConfig, configs.get(1));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Write and read an empty dump")
+    void writeAndReadEmptyDump() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".dump");
+        try {
+            // Check test results
+            assertEquals(0, ConfigDumps.write(Stream.empty(), path));
+            try (final Stream<Config> stream = ConfigDumps.read(path)) {
+                assertEquals(0, stream.count());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Read a wrong dump")
+    void readWrongDump() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".dump");
+        try {
+            Files.write(path, new byte[]{1, 2, 3});
+            // Check test results
+            assertThrows(IOException.class, () -> ConfigDumps.read(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Read a truncated dump")
+    void readTruncatedDump() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".dump");
+        try {
+            ConfigDumps.write(Stream.of(getConfigWithProperties(FIRST_CONFIG)), path);
+            final byte[] bytes = Files.readAllBytes(path);
+            final Path truncated = Files.createTempFile("metacfg4j", ".dump");
+            try {
+                Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+                // Check test results
+                assertThrows(RuntimeException.class, () -> {
+                    try (final Stream<Config> stream = ConfigDumps.read(truncated)) {
+                        stream.count();
+                    }
+                });
+            } finally {
+                Files.delete(truncated);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.maintenance;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.SHUTDOWN_COMPACT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Maintenance scheduler test")
+final class MaintenanceSchedulerTest extends UnitTest {
+
+    @Test
+    @DisplayName("Skip maintenance under load")
+    void skipUnderLoad() throws Exception {
+        final ConnectionPool connectionPool = getConnectionPool("jdbc:h2:mem:maintenanceTest");
+        final MaintenanceScheduler scheduler = MaintenanceSchedulers.newScheduler(
+                new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(), connectionPool);
+        try (final Connection connection = connectionPool.getDataSource().getConnection()) {
+            // Check test results
+            assertFalse(connection.isClosed());
+            assertFalse(scheduler.run());
+        }
+
+        assertEquals(1, scheduler.getMetrics().getSkips());
+        assertEquals(0, scheduler.getMetrics().getRuns());
+        scheduler.close();
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Compact the database file")
+    void compactFile() throws Exception {
+        final ConnectionPool connectionPool = getConnectionPool("jdbc:h2:./data/maintenanceTest");
+        final MaintenanceScheduler scheduler = MaintenanceSchedulers.newScheduler(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(SHUTDOWN_COMPACT, true).build())).build(), connectionPool).start();
+        try (final Connection connection = connectionPool.getDataSource().getConnection();
+             final Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS CHURN");
+            statement.execute("CREATE TABLE CHURN(ID INT PRIMARY KEY, VALUE VARCHAR)");
+            try (final PreparedStatement insert = connection.prepareStatement("MERGE INTO CHURN VALUES (?, ?)")) {
+                for (int i = 0; i < 10000; i++) {
+                    insert.setInt(1, i % 1000);
+                    insert.setString(2, "value-" + i);
+                    insert.addBatch();
+                }
+
+                insert.executeBatch();
+            }
+
+            statement.execute("DELETE FROM CHURN WHERE ID >= 100");
+        }
+        // Check test results
+        assertTrue(scheduler.run());
+        final MaintenanceMetrics metrics = scheduler.getMetrics();
+        assertEquals(1, metrics.getRuns());
+        assertEquals(0, metrics.getSkips());
+        assertTrue(metrics.getFileSizeBefore() > 0);
+        assertTrue(metrics.getFileSizeAfter() > 0);
+        try (final Connection connection = connectionPool.getDataSource().getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM CHURN")) {
+            assertTrue(resultSet.next());
+            assertEquals(100, resultSet.getInt(1));
+        }
+
+        scheduler.close();
+        connectionPool.close();
+    }
+
+    private ConnectionPool getConnectionPool(final String url) {
+        return ConnectionPools.newPool(new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                new Property.Builder(URL, url).build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build());
+    }
+}
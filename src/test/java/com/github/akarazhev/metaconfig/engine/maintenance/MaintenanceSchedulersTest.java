@@ -0,0 +1,86 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.maintenance;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.COMPACT_TIME;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.maintenance.MaintenanceSchedulers.Settings.INTERVAL;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Maintenance schedulers test")
+final class MaintenanceSchedulersTest extends UnitTest {
+
+    @Test
+    @DisplayName("Maintenance schedulers constructor")
+    void maintenanceSchedulersConstructor() throws Exception {
+        assertPrivate(MaintenanceSchedulers.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(MaintenanceSchedulers.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create a scheduler")
+    void createScheduler() throws IOException {
+        final ConnectionPool connectionPool = ConnectionPools.newPool();
+        // Check test results
+        assertNotNull(MaintenanceSchedulers.newScheduler(
+                new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(), connectionPool));
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Create a scheduler with the wrong config name")
+    void createSchedulerWithWrongName() throws IOException {
+        final ConnectionPool connectionPool = ConnectionPools.newPool();
+        // Check test results
+        assertThrows(Exception.class, () -> MaintenanceSchedulers.newScheduler(
+                new Config.Builder("wrong", Collections.emptyList()).build(), connectionPool));
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Create a scheduler with the wrong interval")
+    void createSchedulerWithWrongInterval() throws IOException {
+        final ConnectionPool connectionPool = ConnectionPools.newPool();
+        // Check test results
+        assertThrows(Exception.class, () -> MaintenanceSchedulers.newScheduler(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(INTERVAL, 0).build())).build(), connectionPool));
+        connectionPool.close();
+    }
+
+    @Test
+    @DisplayName("Create a scheduler with the wrong compact time")
+    void createSchedulerWithWrongCompactTime() throws IOException {
+        final ConnectionPool connectionPool = ConnectionPools.newPool();
+        // Check test results
+        assertThrows(Exception.class, () -> MaintenanceSchedulers.newScheduler(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(COMPACT_TIME, -1).build())).build(), connectionPool));
+        connectionPool.close();
+    }
+}
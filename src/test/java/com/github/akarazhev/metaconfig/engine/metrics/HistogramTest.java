@@ -0,0 +1,51 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Histogram test")
+final class HistogramTest {
+
+    @Test
+    @DisplayName("Empty snapshot")
+    void emptySnapshot() {
+        final Histogram.Snapshot snapshot = new Histogram().snapshot();
+        // Check test results
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Record durations")
+    void recordDurations() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+
+        final Histogram.Snapshot snapshot = histogram.snapshot();
+        // Check test results
+        assertEquals(100, snapshot.getCount());
+        assertEquals(50500, snapshot.getMean());
+        assertEquals(100000, snapshot.getMax());
+        assertTrue(snapshot.getPercentile(50) >= 50000);
+        assertTrue(snapshot.getPercentile(50) < 100000);
+        assertEquals(100000, snapshot.getPercentile(100));
+        assertEquals(64, snapshot.getBuckets().length);
+    }
+}
@@ -0,0 +1,157 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.metrics;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.JMX;
+import static com.github.akarazhev.metaconfig.engine.metrics.Instrumentations.Settings.NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Instrumentations test")
+final class InstrumentationsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Instrumentations constructor")
+    void instrumentationsConstructor() throws Exception {
+        assertPrivate(Instrumentations.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(Instrumentations.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create instrumentation with the wrong config name")
+    void createInstrumentationWithWrongName() {
+        assertThrows(IllegalArgumentException.class, () ->
+                Instrumentations.newInstrumentation(new Config.Builder("metrics", Collections.emptyList()).build()));
+    }
+
+    @Test
+    @DisplayName("Create instrumentation with the empty name")
+    void createInstrumentationWithEmptyName() {
+        assertThrows(IllegalArgumentException.class, () ->
+                Instrumentations.newInstrumentation(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(NAME, "").build())).build()));
+    }
+
+    @Test
+    @DisplayName("Measure operations")
+    void measureOperations() {
+        final List<OperationSample> samples = new ArrayList<>();
+        try (final Instrumentation instrumentation = Instrumentations.newInstrumentation()) {
+            instrumentation.addListener(samples::add);
+            assertEquals(FIRST_CONFIG, instrumentation.measure("get", () -> FIRST_CONFIG));
+            assertThrows(IllegalStateException.class, () -> instrumentation.measure("get", () -> {
+                throw new IllegalStateException();
+            }));
+            // Check test results
+            final OperationMetrics metrics = instrumentation.getMetrics().get("get");
+            assertNotNull(metrics);
+            assertEquals(2, metrics.getCount());
+            assertEquals(1, metrics.getErrors());
+            assertEquals(2, samples.size());
+            assertNull(samples.get(0).getError());
+            assertNotNull(samples.get(1).getError());
+        }
+    }
+
+    @Test
+    @DisplayName("Measure a lazy stream")
+    void measureStream() throws InterruptedException {
+        try (final Instrumentation instrumentation = Instrumentations.newInstrumentation(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(JMX, false).build())).build())) {
+            final Stream<String> stream = instrumentation.measureStream("export", () ->
+                    Stream.of(FIRST_CONFIG, SECOND_CONFIG).peek(name -> OperationContext.current().addRows(1)));
+            assertEquals(0, instrumentation.getMetrics().get("export").getCount());
+            // Rows are fetched in another thread
+            final Thread consumer = new Thread(() -> {
+                try (final Stream<String> names = stream) {
+                    assertEquals(2, names.collect(Collectors.toList()).size());
+                }
+            });
+            consumer.start();
+            consumer.join();
+            // Check test results
+            final OperationMetrics metrics = instrumentation.getMetrics().get("export");
+            assertEquals(1, metrics.getCount());
+            assertEquals(2, metrics.getRows());
+        }
+    }
+
+    @Test
+    @DisplayName("Measure queries")
+    void measureQueries() throws IOException {
+        final ConnectionPool connectionPool = ConnectionPools.newPool(
+                new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                        new Property.Builder(URL, "jdbc:h2:mem:instrumentationsTest").build(),
+                        new Property.Builder(USER, "sa").build(),
+                        new Property.Builder(PASSWORD, "sa").build())).build());
+        try (final Instrumentation instrumentation = Instrumentations.newInstrumentation(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(JMX, false).build())).build())) {
+            final int count = instrumentation.measure("query", () -> {
+                try (final Connection connection = connectionPool.getDataSource().getConnection();
+                     final Statement statement = connection.createStatement();
+                     final ResultSet resultSet = statement.executeQuery("SELECT X FROM SYSTEM_RANGE(1, 10)")) {
+                    int rows = 0;
+                    while (resultSet.next()) {
+                        resultSet.getString(1);
+                        rows++;
+                    }
+
+                    return rows;
+                } catch (final SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            // Check test results
+            final OperationMetrics metrics = instrumentation.getMetrics().get("query");
+            assertEquals(10, count);
+            assertEquals(1, metrics.getCount());
+            assertEquals(10, metrics.getRows());
+            assertTrue(metrics.getBytes() > 0);
+            assertTrue(metrics.getQueryTime() > 0);
+        } finally {
+            connectionPool.close();
+        }
+    }
+}
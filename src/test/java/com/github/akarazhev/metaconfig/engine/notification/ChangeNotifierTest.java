@@ -0,0 +1,131 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.notification;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ChangeLog;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Change notifier test")
+final class ChangeNotifierTest extends UnitTest {
+    private final List<Collection<String>> notifications = new ArrayList<>();
+    private JdbcDataSource dataSource;
+    private Connection keeper;
+    private ChangeNotifier changeNotifier;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:changeNotifierTest");
+        // The connection keeps the in-memory database
+        keeper = dataSource.getConnection();
+        execute("CREATE TABLE CONFIGS (ID IDENTITY NOT NULL, NAME VARCHAR(255) NOT NULL, VERSION INT DEFAULT 1)",
+                "CREATE TABLE PROPERTIES (ID IDENTITY NOT NULL, CONFIG_ID BIGINT NOT NULL, VALUE VARCHAR(255))");
+        changeNotifier = new ChangeNotifier(new ChangeLog(dataSource, new Tables(null)), 60000, 0, 0,
+                notifications::add);
+        changeNotifier.start();
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        changeNotifier.close();
+        keeper.close();
+        notifications.clear();
+    }
+
+    @Test
+    @DisplayName("Poll changes of configs")
+    void pollConfigChanges() throws SQLException {
+        execute("INSERT INTO CONFIGS (NAME) VALUES ('first')", "INSERT INTO CONFIGS (NAME) VALUES ('second')");
+        // Check test results
+        assertEquals(2, changeNotifier.poll());
+        assertEquals(Arrays.asList("first", "second"), new ArrayList<>(notifications.get(0)));
+        assertEquals(0, changeNotifier.poll());
+    }
+
+    @Test
+    @DisplayName("Poll changes of properties")
+    void pollPropertyChanges() throws SQLException {
+        execute("INSERT INTO CONFIGS (NAME) VALUES ('first')",
+                "INSERT INTO PROPERTIES (CONFIG_ID, VALUE) SELECT ID, 'value' FROM CONFIGS WHERE NAME = 'first'");
+        changeNotifier.poll();
+        execute("UPDATE PROPERTIES SET VALUE = 'updated'", "UPDATE CONFIGS SET VERSION = VERSION + 1");
+        // Check test results
+        assertEquals(1, changeNotifier.poll());
+        assertEquals(Collections.singletonList("first"), new ArrayList<>(notifications.get(1)));
+    }
+
+    @Test
+    @DisplayName("Skip changes of properties without configs")
+    void skipPropertyChanges() throws SQLException {
+        execute("INSERT INTO CONFIGS (NAME) VALUES ('first')",
+                "INSERT INTO PROPERTIES (CONFIG_ID, VALUE) SELECT ID, 'value' FROM CONFIGS WHERE NAME = 'first'");
+        changeNotifier.poll();
+        execute("UPDATE PROPERTIES SET VALUE = 'updated'");
+        // Check test results
+        assertEquals(0, changeNotifier.poll());
+    }
+
+    @Test
+    @DisplayName("Poll removed configs")
+    void pollRemovedConfigs() throws SQLException {
+        execute("INSERT INTO CONFIGS (NAME) VALUES ('first')");
+        changeNotifier.poll();
+        execute("DELETE FROM CONFIGS");
+        // Check test results
+        assertEquals(1, changeNotifier.poll());
+        assertEquals(Collections.singletonList("first"), new ArrayList<>(notifications.get(1)));
+    }
+
+    @Test
+    @DisplayName("Poll changes after a rolled back transaction")
+    void pollAfterRollback() throws SQLException {
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("INSERT INTO CONFIGS (NAME) VALUES ('rolled back')");
+            connection.rollback();
+        }
+
+        execute("INSERT INTO CONFIGS (NAME) VALUES ('first')");
+        // Check test results
+        assertEquals(1, changeNotifier.poll());
+        execute("INSERT INTO CONFIGS (NAME) VALUES ('second')");
+        assertEquals(1, changeNotifier.poll());
+        assertEquals(Arrays.asList(Collections.singleton("first"), Collections.singleton("second")),
+                new ArrayList<>(notifications));
+    }
+
+    private void execute(final String... sqls) throws SQLException {
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement()) {
+            for (final String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.notification;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.ChangeLog;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.notification.ChangeNotifiers.Settings.POLL_INTERVAL;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Change notifiers test")
+final class ChangeNotifiersTest extends UnitTest {
+
+    @Test
+    @DisplayName("Change notifiers constructor")
+    void changeNotifiersConstructor() throws Exception {
+        assertPrivate(ChangeNotifiers.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(ChangeNotifiers.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create a notifier")
+    void createNotifier() {
+        assertNotNull(ChangeNotifiers.newNotifier(new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(),
+                getChangeLog(), names -> {
+                }));
+    }
+
+    @Test
+    @DisplayName("Create a notifier with the wrong config name")
+    void createNotifierWithWrongName() {
+        assertThrows(Exception.class, () -> ChangeNotifiers.newNotifier(
+                new Config.Builder("wrong", Collections.emptyList()).build(), getChangeLog(), names -> {
+                }));
+    }
+
+    @Test
+    @DisplayName("Create a notifier with the wrong poll interval")
+    void createNotifierWithWrongPollInterval() {
+        assertThrows(Exception.class, () -> ChangeNotifiers.newNotifier(
+                new Config.Builder(CONFIG_NAME, Collections.singletonList(
+                        new Property.Builder(POLL_INTERVAL, 0).build())).build(), getChangeLog(), names -> {
+                }));
+    }
+
+    private ChangeLog getChangeLog() {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:changeNotifiersTest");
+        return new ChangeLog(dataSource, new Tables(null));
+    }
+}
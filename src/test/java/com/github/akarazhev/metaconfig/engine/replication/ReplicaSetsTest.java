@@ -0,0 +1,141 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.replication;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.BulkImporter;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static com.github.akarazhev.metaconfig.engine.replication.ReplicaSets.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.replication.ReplicaSets.Settings.SYNC_INTERVAL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Replica sets test")
+final class ReplicaSetsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Replica sets constructor")
+    void replicaSetsConstructor() throws Exception {
+        assertPrivate(ReplicaSets.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(ReplicaSets.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create a replica set")
+    void createReplicaSet() throws Exception {
+        final ConnectionPool connectionPool = ConnectionPools.newPool();
+        try (final ReplicaSet replicaSet = ReplicaSets.newReplicaSet(
+                new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(), connectionPool.getDataSource(),
+                new Tables(new HashMap<>()), Collections.singletonList(ConnectionPools.newPool()), names -> {
+                })) {
+            // Check test results
+            assertNotNull(replicaSet);
+            assertEquals(1, replicaSet.getMetrics().size());
+            assertEquals(0, replicaSet.getSyncs());
+        } finally {
+            connectionPool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Create a replica set without replicas")
+    void createReplicaSetWithoutReplicas() throws Exception {
+        try (final ConnectionPool connectionPool = ConnectionPools.newPool()) {
+            assertThrows(Exception.class, () -> ReplicaSets.newReplicaSet(connectionPool.getDataSource(),
+                    new Tables(new HashMap<>()), Collections.emptyList(), names -> {
+                    }));
+        }
+    }
+
+    @Test
+    @DisplayName("Create a replica set with the wrong config name")
+    void createReplicaSetWithWrongName() {
+        assertThrows(Exception.class, () -> ReplicaSets.newReplicaSet(
+                new Config.Builder("wrong", Collections.emptyList()).build(), null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Create a replica set with the wrong sync interval")
+    void createReplicaSetWithWrongSyncInterval() {
+        assertThrows(Exception.class, () -> ReplicaSets.newReplicaSet(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(SYNC_INTERVAL, 0).build())).build(),
+                null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Sync replicas with the primary database")
+    void syncReplicas() throws Exception {
+        final ConnectionPool connectionPool = newPool("primaryTest");
+        createTables(connectionPool);
+        final Tables tables = new Tables(null);
+        final BulkImporter importer = new BulkImporter(connectionPool.getDataSource(), tables);
+        importer.write(Arrays.asList(getConfigWithProperties(FIRST_CONFIG), getConfigWithProperties(SECOND_CONFIG)));
+        final List<String> changed = new CopyOnWriteArrayList<>();
+        try (final ReplicaSet replicaSet = ReplicaSets.newReplicaSet(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(SYNC_INTERVAL, 60_000).build())).build(),
+                connectionPool.getDataSource(), tables,
+                Arrays.asList(newPool("firstReplicaTest"), newPool("secondReplicaTest")), changed::addAll).start()) {
+            // Check test results
+            assertEquals(2, replicaSet.getMetrics().size());
+            assertEquals(1, replicaSet.getSyncs());
+            assertEquals(4, changed.size());
+            for (int i = 0; i < 2; i++) {
+                assertEquals(2, replicaSet.getNames().count());
+                assertEquals(1, replicaSet.get(Collections.singletonList(FIRST_CONFIG)).count());
+                assertEquals("Value-1", replicaSet.getProperty(SECOND_CONFIG, "Property", "Property-1").get().
+                        getValue());
+            }
+
+            assertEquals(0, replicaSet.sync());
+            assertEquals(1, importer.remove(Collections.singletonList(FIRST_CONFIG)));
+            changed.clear();
+            assertEquals(0, replicaSet.sync());
+            assertTrue(changed.contains(FIRST_CONFIG));
+            for (int i = 0; i < 2; i++) {
+                assertEquals(Collections.singletonList(SECOND_CONFIG), replicaSet.get().map(Config::getName).
+                        collect(Collectors.toList()));
+            }
+        } finally {
+            connectionPool.close();
+        }
+    }
+
+    private ConnectionPool newPool(final String name) {
+        return ConnectionPools.newPool(new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                new Property.Builder(URL, "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build());
+    }
+}
@@ -0,0 +1,67 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.sharding;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Shard ring test")
+final class ShardRingTest extends UnitTest {
+    private static final int NAMES = 10000;
+
+    @Test
+    @DisplayName("Get a shard of a single shard ring")
+    void getShardOfSingleShard() {
+        final ShardRing ring = new ShardRing(1, 160);
+        // Check test results
+        assertEquals(1, ring.getShards());
+        assertEquals(0, ring.getShard(FIRST_CONFIG));
+        assertEquals(0, ring.getShard(SECOND_CONFIG));
+    }
+
+    @Test
+    @DisplayName("Distribute names across shards")
+    void distributeNames() {
+        final ShardRing ring = new ShardRing(4, 160);
+        final int[] counts = new int[ring.getShards()];
+        for (int i = 0; i < NAMES; i++) {
+            counts[ring.getShard("config-" + i)]++;
+        }
+        // Check test results
+        for (final int count : counts) {
+            assertTrue(count > NAMES / 8);
+        }
+
+        assertEquals(ring.getShard(FIRST_CONFIG), new ShardRing(4, 160).getShard(FIRST_CONFIG));
+    }
+
+    @Test
+    @DisplayName("Move names only to an added shard")
+    void moveNamesToAddedShard() {
+        final ShardRing ring = new ShardRing(3, 160);
+        final ShardRing extended = new ShardRing(4, 160);
+        int moved = 0;
+        for (int i = 0; i < NAMES; i++) {
+            final String name = "config-" + i;
+            if (ring.getShard(name) != extended.getShard(name)) {
+                // Check test results
+                assertEquals(3, extended.getShard(name));
+                moved++;
+            }
+        }
+
+        assertTrue(moved > 0 && moved < NAMES / 2);
+    }
+}
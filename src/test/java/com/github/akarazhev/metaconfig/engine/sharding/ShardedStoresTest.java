@@ -0,0 +1,156 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.sharding;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import com.github.akarazhev.metaconfig.engine.db.jdbc.Tables;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPool;
+import com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.H2dbConstants.Messages.SHARD_STALE_ERROR;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.PASSWORD;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.URL;
+import static com.github.akarazhev.metaconfig.engine.db.pool.ConnectionPools.Settings.USER;
+import static com.github.akarazhev.metaconfig.engine.sharding.ShardedStores.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.sharding.ShardedStores.Settings.VIRTUAL_NODES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Sharded stores test")
+final class ShardedStoresTest extends UnitTest {
+
+    @Test
+    @DisplayName("Sharded stores constructor")
+    void shardedStoresConstructor() throws Exception {
+        assertPrivate(ShardedStores.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(ShardedStores.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create a sharded store")
+    void createShardedStore() throws Exception {
+        try (final ConnectionPool connectionPool = ConnectionPools.newPool();
+             final ShardedStore shardedStore = ShardedStores.newStore(
+                     new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(),
+                     Collections.singletonList(connectionPool), new Tables(new HashMap<>()))) {
+            // Check test results
+            assertNotNull(shardedStore);
+            assertEquals(0, shardedStore.getShard(FIRST_CONFIG));
+            assertEquals(1, shardedStore.getMetrics().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Create a sharded store without shards")
+    void createShardedStoreWithoutShards() {
+        assertThrows(Exception.class, () -> ShardedStores.newStore(Collections.emptyList(),
+                new Tables(new HashMap<>())));
+    }
+
+    @Test
+    @DisplayName("Create a sharded store with the wrong config name")
+    void createShardedStoreWithWrongName() {
+        assertThrows(Exception.class, () -> ShardedStores.newStore(
+                new Config.Builder("wrong", Collections.emptyList()).build(), null, null));
+    }
+
+    @Test
+    @DisplayName("Create a sharded store with the wrong virtual nodes")
+    void createShardedStoreWithWrongVirtualNodes() {
+        assertThrows(Exception.class, () -> ShardedStores.newStore(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(VIRTUAL_NODES, 0).build())).build(), null, null));
+    }
+
+    @Test
+    @DisplayName("Partition configs across shards")
+    void partitionConfigs() throws Exception {
+        final List<ConnectionPool> connectionPools = Arrays.asList(newPool("firstShardTest"),
+                newPool("secondShardTest"), newPool("thirdShardTest"));
+        createTables(connectionPools.get(0));
+        try (final ShardedStore shardedStore = ShardedStores.newStore(connectionPools, new Tables(null)).start()) {
+            final List<Config> configs = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                configs.add(getConfigWithProperties(FIRST_CONFIG + i));
+            }
+            // Check test results
+            assertEquals(100, shardedStore.update(configs).size());
+            assertEquals(3, configs.stream().map(config -> shardedStore.getShard(config.getName())).distinct().count());
+            assertEquals(100, shardedStore.getNames().count());
+            assertEquals(3, shardedStore.get(Arrays.asList(FIRST_CONFIG + 1, FIRST_CONFIG + 2, FIRST_CONFIG + 3)).
+                    count());
+            assertEquals("Value-1", shardedStore.getProperty(FIRST_CONFIG + 5, "Property", "Property-1").
+                    get().getValue());
+            try (final Stream<Config> stream = shardedStore.export(10)) {
+                assertEquals(100, stream.count());
+            }
+
+            assertEquals(100, shardedStore.remove(shardedStore.getNames().collect(Collectors.toList())));
+            assertEquals(0, shardedStore.get().count());
+        } finally {
+            connectionPools.get(0).close();
+        }
+    }
+
+    @Test
+    @DisplayName("Update configs with versions on shards")
+    void updateConfigsWithVersions() throws Exception {
+        final List<ConnectionPool> connectionPools = Arrays.asList(newPool("firstVersionTest"),
+                newPool("secondVersionTest"));
+        createTables(connectionPools.get(0));
+        try (final ShardedStore shardedStore = ShardedStores.newStore(connectionPools, new Tables(null)).start()) {
+            final List<Config> stored = shardedStore.update(Arrays.asList(getConfigWithProperties(FIRST_CONFIG),
+                    getConfigWithProperties(SECOND_CONFIG)));
+            final Config changed = shardedStore.update(Collections.singletonList(new Config.Builder(stored.get(0)).
+                    description("Changed").build())).get(0);
+            final Config unchanged = shardedStore.update(Collections.singletonList(stored.get(1))).get(0);
+            // Check test results
+            assertEquals(stored.get(0).getId(), changed.getId());
+            assertEquals(stored.get(0).getVersion() + 1, changed.getVersion());
+            assertEquals(stored.get(1).getId(), unchanged.getId());
+            assertEquals(stored.get(1).getVersion(), unchanged.getVersion());
+            final IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                    shardedStore.update(Arrays.asList(new Config.Builder(stored.get(1)).description("New").build(),
+                            stored.get(0))));
+            assertEquals(String.format(SHARD_STALE_ERROR, Collections.singletonList(FIRST_CONFIG)), e.getMessage());
+            assertEquals(stored.get(1).getVersion(),
+                    shardedStore.get(Collections.singletonList(SECOND_CONFIG)).findFirst().get().getVersion());
+            assertEquals("Changed",
+                    shardedStore.get(Collections.singletonList(FIRST_CONFIG)).findFirst().get().getDescription());
+        } finally {
+            connectionPools.get(0).close();
+        }
+    }
+
+    private ConnectionPool newPool(final String name) {
+        return ConnectionPools.newPool(new Config.Builder(ConnectionPools.Settings.CONFIG_NAME, Arrays.asList(
+                new Property.Builder(URL, "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1").build(),
+                new Property.Builder(USER, "sa").build(),
+                new Property.Builder(PASSWORD, "sa").build())).build());
+    }
+}
@@ -0,0 +1,192 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.snapshot;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.DELAY;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.INTERVAL;
+import static com.github.akarazhev.metaconfig.engine.snapshot.Snapshots.Settings.PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Snapshots test")
+final class SnapshotsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Snapshots constructor")
+    void snapshotsConstructor() throws Exception {
+        assertPrivate(Snapshots.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(Snapshots.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create publisher and reader")
+    void createPublisherAndReader() {
+        final Config config = new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(PATH, "metacfg4j.snapshot").build())).build();
+        // Check test results
+        assertNotNull(Snapshots.newPublisher(config));
+        assertNotNull(Snapshots.newReader(config));
+    }
+
+    @Test
+    @DisplayName("Create publisher with the wrong config name")
+    void createPublisherWithWrongName() {
+        assertThrows(IllegalArgumentException.class, () ->
+                Snapshots.newPublisher(new Config.Builder("publisher", Collections.emptyList()).build()));
+    }
+
+    @Test
+    @DisplayName("Create publisher without the path")
+    void createPublisherWithoutPath() {
+        assertThrows(IllegalArgumentException.class, () ->
+                Snapshots.newPublisher(new Config.Builder(CONFIG_NAME, Collections.emptyList()).build()));
+    }
+
+    @Test
+    @DisplayName("Create reader with the wrong interval")
+    void createReaderWithWrongInterval() {
+        assertThrows(IllegalArgumentException.class, () ->
+                Snapshots.newReader(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                        new Property.Builder(PATH, "metacfg4j.snapshot").build(),
+                        new Property.Builder(INTERVAL, 0).build())).build()));
+    }
+
+    @Test
+    @DisplayName("Write and read a snapshot")
+    void writeAndReadSnapshot() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".snapshot");
+        try {
+            final Config firstConfig = getConfigWithSubProperties(FIRST_CONFIG);
+            final Config secondConfig = getConfigWithProperties(SECOND_CONFIG);
+            // Check test results
+            assertEquals(2, SnapshotFile.write(Stream.of(secondConfig, firstConfig), path));
+            final SnapshotFile snapshotFile = SnapshotFile.open(path);
+            assertEquals(2, snapshotFile.size());
+            assertEquals(Arrays.asList(FIRST_CONFIG, SECOND_CONFIG),
+                    snapshotFile.getNames().collect(Collectors.toList()));
+            assertEqualsConfig(firstConfig, snapshotFile.get(FIRST_CONFIG));
+            assertEqualsProperty(firstConfig, snapshotFile.get(FIRST_CONFIG));
+            assertEqualsConfig(secondConfig, snapshotFile.get(SECOND_CONFIG));
+            assertEquals(secondConfig.getVersion(), snapshotFile.getVersion(SECOND_CONFIG));
+            assertNull(snapshotFile.get(NEW_CONFIG));
+            assertEquals(0, snapshotFile.getVersion(NEW_CONFIG));
+            assertEquals(2, snapshotFile.get().count());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Read a wrong snapshot")
+    void readWrongSnapshot() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".snapshot");
+        try {
+            Files.write(path, new byte[]{1, 2, 3});
+            // Check test results
+            assertThrows(IOException.class, () -> SnapshotFile.open(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Refresh a replaced snapshot")
+    void refreshSnapshot() throws IOException {
+        final Path path = Files.createTempFile("metacfg4j", ".snapshot");
+        Files.delete(path);
+        final SnapshotReader snapshotReader = Snapshots.newReader(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(PATH, path.toString()).build())).build());
+        try {
+            // Check test results
+            assertEquals(0, snapshotReader.refresh().size());
+            assertEquals(0, snapshotReader.get().count());
+            SnapshotFile.write(Stream.of(getConfigWithProperties(FIRST_CONFIG)), path);
+            assertEquals(Collections.singletonList(FIRST_CONFIG), snapshotReader.refresh());
+            assertEquals(0, snapshotReader.refresh().size());
+            SnapshotFile.write(Stream.of(getConfigWithProperties(FIRST_CONFIG),
+                    getConfigWithProperties(SECOND_CONFIG)), path);
+            final List<String> changed = snapshotReader.refresh();
+            assertEquals(Collections.singletonList(SECOND_CONFIG), changed);
+            assertEquals(2, snapshotReader.get(Arrays.asList(SECOND_CONFIG, FIRST_CONFIG, NEW_CONFIG)).count());
+        } finally {
+            snapshotReader.close();
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Publish snapshots to the reader")
+    void publishSnapshots() throws Exception {
+        final Path path = Files.createTempFile("metacfg4j", ".snapshot");
+        Files.delete(path);
+        final Config config = new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(PATH, path.toString()).build(),
+                new Property.Builder(DELAY, 0).build(),
+                new Property.Builder(INTERVAL, 10).build())).build();
+        final List<Config> configs = new CopyOnWriteArrayList<>(Arrays.asList(getConfigWithProperties(FIRST_CONFIG),
+                getConfigWithProperties(SECOND_CONFIG)));
+        final List<String> changed = new CopyOnWriteArrayList<>();
+        try (final SnapshotReader snapshotReader = Snapshots.newReader(config).start(changed::addAll);
+             final SnapshotPublisher snapshotPublisher = Snapshots.newPublisher(config).start(configs::stream)) {
+            // Check test results
+            assertTrue(await(() -> changed.size() == 2));
+            final Config secondConfig = snapshotReader.get(Collections.singletonList(SECOND_CONFIG)).findFirst().get();
+            assertEqualsConfig(getConfigWithProperties(SECOND_CONFIG), secondConfig);
+            assertEqualsProperty(getConfigWithProperties(SECOND_CONFIG), secondConfig);
+            configs.remove(0);
+            snapshotPublisher.requestPublish();
+            assertTrue(await(() -> snapshotReader.getNames().count() == 1));
+            assertEquals(0, snapshotReader.get(Collections.singletonList(FIRST_CONFIG)).count());
+            assertEquals(2, snapshotPublisher.getPublished());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private boolean await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return true;
+    }
+}
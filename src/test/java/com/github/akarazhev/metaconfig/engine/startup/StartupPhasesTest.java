@@ -0,0 +1,95 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.startup;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Startup phases test")
+final class StartupPhasesTest extends UnitTest {
+
+    @Test
+    @DisplayName("Run dependent phases")
+    void runDependentPhases() throws Exception {
+        try (final StartupPhases phases = new StartupPhases(10000)) {
+            final CompletableFuture<String> first = phases.run("first", () -> FIRST_CONFIG);
+            final CompletableFuture<String> second = phases.run("second", () -> SECOND_CONFIG);
+            final CompletableFuture<String> third = phases.run("third", () -> first.join() + second.join(),
+                    first, second);
+            // Check test results
+            assertEquals(FIRST_CONFIG + SECOND_CONFIG, phases.await(third));
+            assertEquals(3, phases.getTimings().size());
+            assertEquals("third", phases.getTimings().keySet().toArray()[2]);
+        }
+    }
+
+    @Test
+    @DisplayName("Fail a dependent phase")
+    void failDependentPhase() {
+        try (final StartupPhases phases = new StartupPhases(10000)) {
+            final CompletableFuture<String> first = phases.run("first", () -> {
+                throw new IOException(FIRST_CONFIG);
+            });
+            // Check test results
+            assertThrows(IOException.class, () -> phases.await(phases.run("second", () -> SECOND_CONFIG, first)));
+            assertTrue(phases.getTimings().containsKey("first"));
+        }
+    }
+
+    @Test
+    @DisplayName("Time out phases")
+    void timeOutPhases() {
+        try (final StartupPhases phases = new StartupPhases(100)) {
+            // Check test results
+            assertThrows(TimeoutException.class, () -> phases.awaitReady(() -> false));
+            assertThrows(TimeoutException.class, () -> phases.await(phases.run("slow", () -> {
+                Thread.sleep(10000);
+                return FIRST_CONFIG;
+            })));
+        }
+    }
+
+    @Test
+    @DisplayName("Close after running phases")
+    void closeAfterRunningPhases() throws Exception {
+        final AtomicBoolean completed = new AtomicBoolean();
+        final CountDownLatch started = new CountDownLatch(1);
+        final StartupPhases phases = new StartupPhases(10000);
+        phases.run("slow", () -> {
+            started.countDown();
+            // The interruption is ignored, as a blocking start of a component does
+            final long deadline = System.currentTimeMillis() + 100;
+            while (System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+
+            completed.set(true);
+            return FIRST_CONFIG;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        phases.close();
+        // Check test results
+        assertTrue(completed.get());
+        assertTrue(phases.getTimings().containsKey("slow"));
+    }
+}
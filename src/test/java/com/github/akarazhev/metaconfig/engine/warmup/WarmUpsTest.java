@@ -0,0 +1,72 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.warmup;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.CONNECTIONS;
+import static com.github.akarazhev.metaconfig.engine.warmup.WarmUps.Settings.SNAPSHOT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Warm-ups test")
+final class WarmUpsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Warm-ups constructor")
+    void warmUpsConstructor() throws Exception {
+        assertPrivate(WarmUps.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(WarmUps.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create a warm-up")
+    void createWarmUp() {
+        final WarmUp warmUp = WarmUps.newWarmUp(new Config.Builder(CONFIG_NAME, Collections.emptyList()).build(), 4);
+        // Check test results
+        assertNotNull(warmUp);
+        assertEquals(0, warmUp.save(Collections.<Config>emptyList()::stream, names -> null));
+    }
+
+    @Test
+    @DisplayName("Create a warm-up with the wrong config name")
+    void createWarmUpWithWrongName() {
+        assertThrows(Exception.class, () -> WarmUps.newWarmUp(
+                new Config.Builder("wrong", Collections.emptyList()).build(), 4));
+    }
+
+    @Test
+    @DisplayName("Create a warm-up with the wrong snapshot")
+    void createWarmUpWithWrongSnapshot() {
+        assertThrows(Exception.class, () -> WarmUps.newWarmUp(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(SNAPSHOT, "").build())).build(), 4));
+    }
+
+    @Test
+    @DisplayName("Create a warm-up with the wrong connections")
+    void createWarmUpWithWrongConnections() {
+        assertThrows(Exception.class, () -> WarmUps.newWarmUp(new Config.Builder(CONFIG_NAME,
+                Collections.singletonList(new Property.Builder(CONNECTIONS, -1).build())).build(), 4));
+    }
+}
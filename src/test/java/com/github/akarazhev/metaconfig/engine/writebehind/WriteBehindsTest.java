@@ -0,0 +1,174 @@
+/* Copyright 2019 Andrey Karazhev
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. */
+package com.github.akarazhev.metaconfig.engine.writebehind;
+
+import com.github.akarazhev.metaconfig.UnitTest;
+import com.github.akarazhev.metaconfig.api.Config;
+import com.github.akarazhev.metaconfig.api.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.BATCH_SIZE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.CONFIG_NAME;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.DELAY;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.QUEUE_SIZE;
+import static com.github.akarazhev.metaconfig.engine.writebehind.WriteBehinds.Settings.TIMEOUT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Write-behinds test")
+final class WriteBehindsTest extends UnitTest {
+
+    @Test
+    @DisplayName("Write-behinds constructor")
+    void writeBehindsConstructor() throws Exception {
+        assertPrivate(WriteBehinds.class);
+    }
+
+    @Test
+    @DisplayName("Settings constructor")
+    void settingsConstructor() throws Exception {
+        assertPrivate(WriteBehinds.Settings.class);
+    }
+
+    @Test
+    @DisplayName("Create queue with the wrong config name")
+    void createQueueWithWrongName() {
+        assertThrows(IllegalArgumentException.class, () ->
+                WriteBehinds.newQueue(new Config.Builder("write-queue", Collections.emptyList()).build()));
+    }
+
+    @Test
+    @DisplayName("Create queue with the wrong batch size")
+    void createQueueWithWrongBatchSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                WriteBehinds.newQueue(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(BATCH_SIZE, 0).build())).build()));
+    }
+
+    @Test
+    @DisplayName("Create queue with the wrong queue size")
+    void createQueueWithWrongQueueSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                WriteBehinds.newQueue(new Config.Builder(CONFIG_NAME,
+                        Collections.singletonList(new Property.Builder(QUEUE_SIZE, -1).build())).build()));
+    }
+
+    @Test
+    @DisplayName("Coalesce updates of the same config")
+    void coalesceUpdates() throws Exception {
+        final List<List<Config>> batches = new CopyOnWriteArrayList<>();
+        try (final WriteBehindQueue queue = newQueue(100, 16, 16, 0).start(stream -> write(stream, batches))) {
+            final CompletableFuture<List<Config>> first =
+                    queue.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            final CompletableFuture<List<Config>> second = queue.update(Stream.of(
+                    getConfigWithSubProperties(FIRST_CONFIG), getConfigWithProperties(SECOND_CONFIG)));
+            // Check test results
+            assertEquals(2, second.get(1, TimeUnit.SECONDS).size());
+            assertEquals(1, first.get(1, TimeUnit.SECONDS).size());
+            assertEquals(1, batches.size());
+            assertEquals(2, batches.get(0).size());
+            assertEqualsConfig(getConfigWithSubProperties(FIRST_CONFIG), first.get().get(0));
+            assertEqualsProperty(getConfigWithSubProperties(FIRST_CONFIG), first.get().get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Write the full batch without the delay")
+    void writeFullBatch() throws Exception {
+        final List<List<Config>> batches = new CopyOnWriteArrayList<>();
+        try (final WriteBehindQueue queue = newQueue(60_000, 2, 16, 0).start(stream -> write(stream, batches))) {
+            final CompletableFuture<List<Config>> future = queue.update(Stream.of(
+                    getConfigWithProperties(FIRST_CONFIG), getConfigWithProperties(SECOND_CONFIG),
+                    getConfigWithProperties(NEW_CONFIG)));
+            queue.flush();
+            // Check test results
+            assertEquals(3, future.get(1, TimeUnit.SECONDS).size());
+            assertEquals(2, batches.size());
+            assertEquals(2, batches.get(0).size());
+            assertEquals(0, queue.getPending());
+        }
+    }
+
+    @Test
+    @DisplayName("Reject updates of the full queue")
+    void rejectUpdates() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch written = new CountDownLatch(1);
+        final List<List<Config>> batches = new CopyOnWriteArrayList<>();
+        try (final WriteBehindQueue queue = newQueue(0, 1, 1, 0).start(stream -> {
+            started.countDown();
+            try {
+                written.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return write(stream, batches);
+        })) {
+            final CompletableFuture<List<Config>> first =
+                    queue.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            final CompletableFuture<List<Config>> second =
+                    queue.update(Stream.of(getConfigWithProperties(SECOND_CONFIG)));
+            final CompletableFuture<List<Config>> third =
+                    queue.update(Stream.of(getConfigWithProperties(NEW_CONFIG)));
+            written.countDown();
+            // Check test results
+            assertEquals(1, first.get(1, TimeUnit.SECONDS).size());
+            assertEquals(1, second.get(1, TimeUnit.SECONDS).size());
+            final ExecutionException e = assertThrows(ExecutionException.class, third::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    @DisplayName("Write queued updates on close")
+    void writeOnClose() throws Exception {
+        final List<List<Config>> batches = new CopyOnWriteArrayList<>();
+        final WriteBehindQueue queue = newQueue(60_000, 16, 16, 0).start(stream -> write(stream, batches));
+        final CompletableFuture<List<Config>> future = queue.update(Stream.of(getConfigWithProperties(FIRST_CONFIG)));
+        queue.close();
+        // Check test results
+        assertEquals(1, future.get(1, TimeUnit.SECONDS).size());
+        assertEquals(1, batches.size());
+        final ExecutionException e = assertThrows(ExecutionException.class, () ->
+                queue.update(Stream.of(getConfigWithProperties(SECOND_CONFIG))).get());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    private WriteBehindQueue newQueue(final long delay, final int batchSize, final int queueSize, final long timeout) {
+        return WriteBehinds.newQueue(new Config.Builder(CONFIG_NAME, Arrays.asList(
+                new Property.Builder(DELAY, delay).build(),
+                new Property.Builder(BATCH_SIZE, batchSize).build(),
+                new Property.Builder(QUEUE_SIZE, queueSize).build(),
+                new Property.Builder(TIMEOUT, timeout).build())).build());
+    }
+
+    private Stream<Config> write(final Stream<Config> stream, final List<List<Config>> batches) {
+        final List<Config> configs = stream.collect(Collectors.toList());
+        batches.add(configs);
+        return configs.stream();
+    }
+}